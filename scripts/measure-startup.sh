@@ -0,0 +1,70 @@
+#!/bin/bash
+# Time-to-first-request of the regular image (java -jar) against the fast-start image (AOT + AppCDS + lazy init).
+# Each image is started with the same environment and timed until GET /api/health answers 200; the result is the
+# median of RUNS starts.
+#
+#   ENV_FILE=render.env RUNS=5 scripts/measure-startup.sh
+#
+# ENV_FILE must provide DATABASE_URL_JDBC, DATABASE_USERNAME, DATABASE_PASSWORD and JWT_SECRET. Without it the
+# containers run against an in-memory H2 database, which leaves out the Postgres connection time.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+TIMEOUT_S=${TIMEOUT_S:-180}
+
+if [ -n "${ENV_FILE:-}" ]; then
+    ENV_ARGS=(--env-file "$ENV_FILE")
+else
+    ENV_ARGS=(-e DATABASE_URL_JDBC=jdbc:h2:mem:startup -e DATABASE_USERNAME=sa -e DATABASE_PASSWORD=
+              -e JWT_SECRET=startup-measurement-secret-startup-measurement-secret-startup-0000
+              -e SPRING_DATASOURCE_DRIVER_CLASS_NAME=org.h2.Driver
+              -e SPRING_JPA_DATABASE_PLATFORM=org.hibernate.dialect.H2Dialect)
+fi
+# Nothing should reach Binance or write snapshots while measuring
+ENV_ARGS+=(-e SCAN_SNAPSHOT_ENABLED=false -e SCAN_PRECOMPUTE_INITIAL_DELAY_MS=3600000 -e SCAN_TICKER_INITIAL_DELAY_MS=3600000)
+
+# The regular Dockerfile copies the jar from the build context
+./mvnw -B -q package -DskipTests
+docker build -q -t ccscanner:baseline -f Dockerfile . > /dev/null
+docker build -q -t ccscanner:fast-start -f Dockerfile.fast-start . > /dev/null
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints the milliseconds from `docker run` until /api/health returns 200
+time_to_first_request() {
+    local image=$1
+    local start
+    start=$(now_ms)
+    local id
+    id=$(docker run -d --rm -p "$PORT:8080" "${ENV_ARGS[@]}" "$image")
+    local deadline=$((start + TIMEOUT_S * 1000))
+    until curl -fs -o /dev/null "http://localhost:$PORT/api/health"; do
+        if [ "$(now_ms)" -gt "$deadline" ]; then
+            docker logs "$id" | tail -20 >&2
+            docker kill "$id" > /dev/null
+            echo "timeout"
+            return
+        fi
+        sleep 0.05
+    done
+    echo $(($(now_ms) - start))
+    docker kill "$id" > /dev/null
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+for image in ccscanner:baseline ccscanner:fast-start; do
+    samples=()
+    for _ in $(seq "$RUNS"); do
+        samples+=("$(time_to_first_request "$image")")
+    done
+    printf '%-22s median %6s ms   samples: %s\n' "$image" "$(printf '%s\n' "${samples[@]}" | median)" "${samples[*]}"
+done
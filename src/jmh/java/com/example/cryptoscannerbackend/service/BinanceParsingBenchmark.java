@@ -0,0 +1,83 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.CoinData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the three Binance payloads a scan depends on, from the fixtures in {@code src/jmh/resources/payloads}.
+ * The committed fixtures are synthetic stand-ins shaped like the real responses; replace them with real ones via
+ * {@link RecordPayloads} before reading the scores as production-representative (see src/jmh/baselines/README.md).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinanceParsingBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String klines;
+    private String tickerPrices;
+    private String ticker24hr;
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        klines = payload("klines-BTCUSDT-4h.json");
+        tickerPrices = payload("ticker-price.json");
+        ticker24hr = payload("ticker-24hr.json");
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public List<BinanceApiClient.Candlestick> parseKlines() throws IOException {
+        return BinanceApiClient.parseCandlesticks(objectMapper, klines);
+    }
+
+    @Benchmark
+    public Map<String, Double> parseTickerPrices() throws IOException {
+        return BinanceApiClient.parseTickerPrices(objectMapper, tickerPrices);
+    }
+
+    @Benchmark
+    public List<CoinData> parseTopVolumeCoins() throws IOException {
+        return BinanceApiClient.parseTopVolumeCoins(objectMapper, ticker24hr, 100);
+    }
+
+    static String payload(String name) throws IOException {
+        try (InputStream in = BinanceParsingBenchmark.class.getResourceAsStream("/payloads/" + name)) {
+            if (in == null) {
+                throw new IOException("Missing payload " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.cryptoscannerbackend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-series steps of detection that don't depend on the parameter preset: median volume and the mitigation walk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DetectorStepsBenchmark {
+
+    @Param({"TRENDING", "RANGING", "GAPPY"})
+    private SyntheticCandles.Market market;
+
+    @Param({"50", "200", "1000"})
+    private int length;
+
+    private List<BinanceApiClient.Candlestick> klines;
+    private BinanceApiClient.Candlestick oldestCandidate;
+    private BinanceApiClient.Candlestick untouchedZone;
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        klines = SyntheticCandles.generate(market, length, 42L);
+        oldestCandidate = klines.get(2);
+        // A zone far below every price: never tapped, so the walk always reaches the last candle
+        untouchedZone = new BinanceApiClient.Candlestick(0L, 0.00002, 0.00003, 0.00001, 0.00001, 1.0);
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public double medianVolume() {
+        return OrderBlockDetector.medianVolume(klines);
+    }
+
+    // Oldest possible candidate against the real series: stops at the first candle that taps the zone
+    @Benchmark
+    public boolean isUnmitigated() {
+        return OrderBlockDetector.isUnmitigated(klines, 3, oldestCandidate, true);
+    }
+
+    @Benchmark
+    public boolean isUnmitigatedFullWalk() {
+        return OrderBlockDetector.isUnmitigated(klines, 3, untouchedZone, true);
+    }
+}
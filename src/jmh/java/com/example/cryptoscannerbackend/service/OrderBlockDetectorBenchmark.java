@@ -0,0 +1,90 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.CoinData;
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ScanParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full {@code detectOrderBlock} call over synthetic series, for each parameter preset. Its median volume and
+ * mitigation steps are measured on their own in {@link DetectorStepsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBlockDetectorBenchmark {
+
+    @Param({"TRENDING", "RANGING", "GAPPY"})
+    private SyntheticCandles.Market market;
+
+    @Param({"50", "200", "1000"})
+    private int length;
+
+    // scheduled: background scan defaults; default: frontend defaults; loose: nothing required beyond the candle shapes
+    @Param({"scheduled", "default", "loose"})
+    private String preset;
+
+    private final OrderBlockDetector detector = new OrderBlockDetector();
+    private List<BinanceApiClient.Candlestick> klines;
+    private CoinData coin;
+    private ScanParameters params;
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        klines = SyntheticCandles.generate(market, length, 42L);
+        coin = new CoinData();
+        coin.setId("BENCHUSDT");
+        coin.setName("BENCH");
+        coin.setCurrentPrice(klines.get(klines.size() - 1).getClose());
+        coin.setVolume("1.0B");
+        switch (preset) {
+            case "scheduled":
+                params = ScanParameters.scheduledDefaults();
+                break;
+            case "default":
+                params = new ScanParameters();
+                break;
+            default:
+                params = new ScanParameters(0.0, 0.0, 0.0, false, false, false, false, 0.0);
+                break;
+        }
+
+        // The detector logs every window to stdout; discard it so console I/O doesn't swamp the measurement
+        // (building the log strings is still measured)
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public OrderBlockResult detectOrderBlock() {
+        return detector.detectOrderBlock(coin, klines, "4h", params.getMinBodyRatio(), params.getMinPriceChange(),
+                params.getVolumeFactor(), params.isRequireBOS(), params.isRequireC3ClosePastC2(), params.isRequireFVG(),
+                params.isRequireUnmitigated(), params.getMinFvgDepthRatio());
+    }
+}
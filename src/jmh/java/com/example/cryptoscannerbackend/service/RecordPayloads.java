@@ -0,0 +1,45 @@
+package com.example.cryptoscannerbackend.service;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Records the Binance responses used by {@link BinanceParsingBenchmark}. Run from the project root:
+ * <pre>
+ * mvn -Pjmh -DskipTests test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.cryptoscannerbackend.service.RecordPayloads
+ * </pre>
+ */
+public final class RecordPayloads {
+
+    private static final String BASE_URL = "https://fapi.binance.com";
+
+    private RecordPayloads() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "src/jmh/resources/payloads");
+        Files.createDirectories(dir);
+        OkHttpClient client = new OkHttpClient();
+        record(client, "/fapi/v1/klines?symbol=BTCUSDT&interval=4h&limit=500", dir.resolve("klines-BTCUSDT-4h.json"));
+        record(client, "/fapi/v1/ticker/price", dir.resolve("ticker-price.json"));
+        record(client, "/fapi/v1/ticker/24hr", dir.resolve("ticker-24hr.json"));
+    }
+
+    private static void record(OkHttpClient client, String path, Path target) throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(BASE_URL + path).build()).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Failed to record " + path + ": " + response.code() + " " + response.message());
+            }
+            byte[] body = response.body().bytes();
+            Files.write(target, body);
+            System.out.println("Recorded " + path + " -> " + target + " (" + body.length + " bytes)");
+        }
+    }
+}
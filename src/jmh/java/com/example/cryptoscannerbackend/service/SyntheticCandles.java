@@ -0,0 +1,64 @@
+package com.example.cryptoscannerbackend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded candle series for benchmarks. The same (market, length, seed) always produces the same candles, so runs on
+ * different commits see identical input.
+ */
+public final class SyntheticCandles {
+
+    public enum Market {
+        // Steady drift with pullbacks: impulsive candles and fair value gaps are common
+        TRENDING,
+        // Mean-reverting around a level: most zones get mitigated, few candidates pass
+        RANGING,
+        // Opens jump away from the previous close and some candles have no volume or range (exercises the skip path)
+        GAPPY
+    }
+
+    private static final long FOUR_HOURS = 4 * 3_600_000L;
+    private static final long START = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+
+    private SyntheticCandles() {
+    }
+
+    public static List<BinanceApiClient.Candlestick> generate(Market market, int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<BinanceApiClient.Candlestick> candles = new ArrayList<>(length);
+        double level = 100.0;
+        double close = level;
+        for (int i = 0; i < length; i++) {
+            double open = close;
+            double move;
+            switch (market) {
+                case TRENDING:
+                    move = 0.004 + random.nextGaussian() * 0.012;
+                    break;
+                case RANGING:
+                    move = (level - close) / level * 0.3 + random.nextGaussian() * 0.006;
+                    break;
+                default:
+                    if (random.nextInt(8) == 0) {
+                        open = close * (1 + random.nextGaussian() * 0.03);
+                    }
+                    move = random.nextGaussian() * 0.01;
+                    break;
+            }
+            close = Math.max(0.0001, open * (1 + move));
+            double high = Math.max(open, close) * (1 + Math.abs(random.nextGaussian()) * 0.003);
+            double low = Math.min(open, close) * (1 - Math.abs(random.nextGaussian()) * 0.003);
+            double volume = 1_000 * Math.exp(random.nextGaussian() * 0.6) * (1 + Math.abs(move) * 40);
+            if (market == Market.GAPPY && random.nextInt(25) == 0) {
+                high = open;
+                low = open;
+                close = open;
+                volume = 0.0;
+            }
+            candles.add(new BinanceApiClient.Candlestick(START + i * FOUR_HOURS, open, high, low, close, volume));
+        }
+        return candles;
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.cryptoscannerbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the Binance futures endpoints a scan uses, served from the payload fixtures in
+ * {@code payloads/} (shared with the JMH benchmarks; synthetic until replaced with {@code RecordPayloads} output).
+ * Every symbol gets the fixture's kline series, re-timed so the last candle is the current one for the requested
+ * interval; {@code limit} and {@code startTime} are honoured like the real API, so the candle cache's incremental
+ * fetches behave as in production.
+ * <p>
+ * Each response is delayed by latency + random jitter; a share of requests can fail with 503 or stall past the
+ * client's read timeout. Requests, injected failures and request weight are counted per endpoint.
+ */
+final class FakeBinance implements AutoCloseable {
+
+    private static final Map<String, Long> INTERVAL_MS = new HashMap<>();
+
+    static {
+        long minute = 60_000L;
+        INTERVAL_MS.put("1m", minute);
+        INTERVAL_MS.put("3m", 3 * minute);
+        INTERVAL_MS.put("5m", 5 * minute);
+        INTERVAL_MS.put("15m", 15 * minute);
+        INTERVAL_MS.put("30m", 30 * minute);
+        INTERVAL_MS.put("1h", 60 * minute);
+        INTERVAL_MS.put("2h", 120 * minute);
+        INTERVAL_MS.put("4h", 240 * minute);
+        INTERVAL_MS.put("6h", 360 * minute);
+        INTERVAL_MS.put("8h", 480 * minute);
+        INTERVAL_MS.put("12h", 720 * minute);
+        INTERVAL_MS.put("1d", 1440 * minute);
+        INTERVAL_MS.put("3d", 3 * 1440 * minute);
+        INTERVAL_MS.put("1w", 7 * 1440 * minute);
+        INTERVAL_MS.put("1M", 30 * 1440 * minute);
+    }
+
+    private static final long STALL_MS = 11_000; // past BinanceApiClient's 10 s read timeout
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int latencyMs;
+    private final int jitterMs;
+    private final double errorRate;
+    private final double stallRate;
+
+    private final byte[] ticker24hr;
+    private final byte[] tickerPrice;
+    private final ArrayNode klines;
+
+    private final ConcurrentMap<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> injected = new ConcurrentHashMap<>();
+    private final LongAdder weight = new LongAdder();
+    private final AtomicLong weightMinute = new AtomicLong();
+    private final AtomicLong weightThisMinute = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    FakeBinance(int latencyMs, int jitterMs, double errorRate, double stallRate) throws IOException {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+        this.stallRate = stallRate;
+        this.ticker24hr = payload("ticker-24hr.json");
+        this.tickerPrice = payload("ticker-price.json");
+        this.klines = (ArrayNode) objectMapper.readTree(payload("klines-BTCUSDT-4h.json"));
+    }
+
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "fake-binance");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/fapi/v1/ticker/24hr", exchange -> handle(exchange, "ticker.24hr", 40, q -> ticker24hr));
+        server.createContext("/fapi/v1/ticker/price", exchange -> handle(exchange, "ticker.price", 2, q -> tickerPrice));
+        server.createContext("/fapi/v1/klines", exchange -> {
+            Map<String, String> query = query(exchange);
+            int limit = Integer.parseInt(query.getOrDefault("limit", "500"));
+            handle(exchange, "klines", klinesWeight(limit), q -> klines(q.get("interval"), limit, q.get("startTime")));
+        });
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Long> perEndpoint = new LinkedHashMap<>();
+        requests.forEach((endpoint, count) -> perEndpoint.put(endpoint, count.sum()));
+        Map<String, Long> failures = new LinkedHashMap<>();
+        injected.forEach((kind, count) -> failures.put(kind, count.sum()));
+        stats.put("requests", perEndpoint);
+        stats.put("totalRequests", perEndpoint.values().stream().mapToLong(Long::longValue).sum());
+        stats.put("injectedFailures", failures);
+        stats.put("weight", weight.sum());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Body {
+        byte[] render(Map<String, String> query) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, String endpoint, int requestWeight, Body body) throws IOException {
+        try {
+            requests.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+            weight.add(requestWeight);
+            long usedWeight = addMinuteWeight(requestWeight);
+            sleep(latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextInt(jitterMs + 1) : 0));
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < stallRate) {
+                injected.computeIfAbsent("stall", k -> new LongAdder()).increment();
+                sleep(STALL_MS);
+                return;
+            }
+            exchange.getResponseHeaders().set("X-MBX-USED-WEIGHT-1M", String.valueOf(usedWeight));
+            if (roll < stallRate + errorRate) {
+                injected.computeIfAbsent("503", k -> new LongAdder()).increment();
+                byte[] error = "{\"code\":-1001,\"msg\":\"Internal error; unable to process your request.\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(503, error.length);
+                exchange.getResponseBody().write(error);
+                return;
+            }
+            byte[] response = body.render(query(exchange));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        } catch (IOException e) {
+            // client went away (e.g. read timeout after a stall)
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // The fixture series re-timed to end at the current candle of the interval, cut to limit/startTime
+    private byte[] klines(String interval, int limit, String startTime) throws IOException {
+        long step = INTERVAL_MS.getOrDefault(interval, INTERVAL_MS.get("4h"));
+        int n = klines.size();
+        long lastOpen = System.currentTimeMillis() / step * step;
+        long firstOpen = lastOpen - (n - 1) * step;
+
+        int from = Math.max(0, n - limit);
+        if (startTime != null) {
+            long start = Long.parseLong(startTime);
+            from = (int) Math.min(n, Math.max(0, (start - firstOpen + step - 1) / step));
+        }
+        int to = Math.min(n, from + limit);
+
+        ArrayNode out = objectMapper.createArrayNode();
+        for (int i = from; i < to; i++) {
+            ArrayNode row = ((ArrayNode) klines.get(i)).deepCopy();
+            long open = firstOpen + i * step;
+            row.set(0, objectMapper.getNodeFactory().numberNode(open));
+            row.set(6, objectMapper.getNodeFactory().numberNode(open + step - 1));
+            out.add(row);
+        }
+        return objectMapper.writeValueAsBytes(out);
+    }
+
+    private long addMinuteWeight(int requestWeight) {
+        long minute = System.currentTimeMillis() / 60_000L;
+        long seen = weightMinute.get();
+        if (seen != minute && weightMinute.compareAndSet(seen, minute)) {
+            weightThisMinute.set(0);
+        }
+        return weightThisMinute.addAndGet(requestWeight);
+    }
+
+    private static int klinesWeight(int limit) {
+        if (limit < 100) {
+            return 1;
+        }
+        if (limit < 500) {
+            return 2;
+        }
+        return limit <= 1000 ? 5 : 10;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw != null) {
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return params;
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] payload(String name) throws IOException {
+        try (InputStream in = FakeBinance.class.getResourceAsStream("/payloads/" + name)) {
+            if (in == null) {
+                throw new IOException("Missing payload " + name);
+            }
+            return in.readAllBytes();
+        }
+    }
+}
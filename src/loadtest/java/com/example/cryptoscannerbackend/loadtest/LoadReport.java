@@ -0,0 +1,107 @@
+package com.example.cryptoscannerbackend.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Latency samples and status codes per operation, summarised as throughput and percentiles. */
+final class LoadReport {
+
+    private final Map<LoadTest.Operation, Samples> samples = new EnumMap<>(LoadTest.Operation.class);
+
+    LoadReport() {
+        for (LoadTest.Operation op : LoadTest.Operation.values()) {
+            samples.put(op, new Samples());
+        }
+    }
+
+    // status -1 means the request failed without a response (connection error or client timeout)
+    void record(LoadTest.Operation op, int status, long nanos) {
+        samples.get(op).add(status, nanos);
+    }
+
+    Map<String, Object> summarize(double seconds) {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long total = 0;
+        long failed = 0;
+        for (Map.Entry<LoadTest.Operation, Samples> entry : samples.entrySet()) {
+            Map<String, Object> op = entry.getValue().summarize(seconds);
+            if ((long) op.get("count") == 0) {
+                continue;
+            }
+            total += (long) op.get("count");
+            failed += (long) op.get("failed");
+            operations.put(entry.getKey().getName(), op);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", total);
+        summary.put("failed", failed);
+        summary.put("throughputPerSecond", round(total / seconds));
+        summary.put("operations", operations);
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    static String format(Map<String, Object> summary) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-15s %8s %8s %9s %9s %9s %9s %9s  %s%n",
+                "operation", "count", "req/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms", "statuses"));
+        ((Map<String, Object>) summary.get("operations")).forEach((name, value) -> {
+            Map<String, Object> op = (Map<String, Object>) value;
+            out.append(String.format("%-15s %8d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n", name, op.get("count"),
+                    op.get("throughputPerSecond"), op.get("meanMs"), op.get("p50Ms"), op.get("p90Ms"), op.get("p99Ms"),
+                    op.get("maxMs"), op.get("statuses")));
+        });
+        out.append(String.format("total %d requests, %d failed, %.1f req/s%n",
+                summary.get("requests"), summary.get("failed"), summary.get("throughputPerSecond")));
+        return out.toString();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+
+        synchronized void add(int status, long latency) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            statuses.merge(status, 1L, Long::sum);
+        }
+
+        synchronized Map<String, Object> summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            long failed = statuses.entrySet().stream().filter(e -> e.getKey() < 200 || e.getKey() >= 400)
+                    .mapToLong(Map.Entry::getValue).sum();
+            Map<String, Object> op = new LinkedHashMap<>();
+            op.put("count", (long) size);
+            op.put("failed", failed);
+            op.put("throughputPerSecond", round(size / seconds));
+            op.put("meanMs", size == 0 ? 0.0 : round(Arrays.stream(sorted).average().orElse(0) / 1e6));
+            op.put("p50Ms", percentile(sorted, 0.50));
+            op.put("p90Ms", percentile(sorted, 0.90));
+            op.put("p99Ms", percentile(sorted, 0.99));
+            op.put("maxMs", size == 0 ? 0.0 : round(sorted[size - 1] / 1e6));
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            statuses.forEach((status, count) -> byStatus.put(status < 0 ? "error" : String.valueOf(status), count));
+            op.put("statuses", byStatus);
+            return op;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return round(sorted[Math.max(0, index)] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.cryptoscannerbackend.loadtest;
+
+import com.example.cryptoscannerbackend.CryptoScannerBackendApplication;
+import com.example.cryptoscannerbackend.model.ERole;
+import com.example.cryptoscannerbackend.model.User;
+import com.example.cryptoscannerbackend.repository.UserRepository;
+import com.example.cryptoscannerbackend.security.jwt.JwtUtils;
+import com.example.cryptoscannerbackend.security.services.UserDetailsImpl;
+import com.example.cryptoscannerbackend.service.CandleCache;
+import com.example.cryptoscannerbackend.service.ScanResultCache;
+import com.example.cryptoscannerbackend.service.TieredScanScheduler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test: boots the whole application (in-memory H2) against {@link FakeBinance}, drives a weighted
+ * mix of logins, status polls, trial and premium scans and admin listings from a fixed number of concurrent virtual
+ * users, and reports throughput, latency percentiles per operation and the upstream requests the run caused.
+ * <pre>
+ * mvn -Ploadtest -DskipTests verify -Dloadtest.args="duration=120 concurrency=32 latency-ms=80 error-rate=0.02"
+ * </pre>
+ * Options (key=value): duration and warmup (seconds), concurrency, users (per tier), latency-ms, jitter-ms,
+ * error-rate (503s), stall-rate (responses that outlast the client's read timeout),
+ * mix (operation:weight,...), report (JSON output path), app-stdout (discard|keep), record (directory to record the
+ * upstream responses to), replay (recording or directory to serve instead of the stand-in) and replay-timing
+ * (full-speed|original).
+ */
+public final class LoadTest {
+
+    enum Operation {
+        LOGIN("login"),
+        STATUS("status"),
+        TRIAL_SCAN("trial-scan"),
+        PREMIUM_SCAN("premium-scan"),
+        ADMIN_LISTING("admin-listing");
+
+        private final String name;
+
+        Operation(String name) {
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        static Operation byName(String name) {
+            for (Operation op : values()) {
+                if (op.name.equals(name)) {
+                    return op;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation " + name);
+        }
+    }
+
+    private static final String PASSWORD = "load-test-password";
+    private static final String[] PREMIUM_INTERVALS = {"15m", "1h", "4h", "1d"};
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int durationS = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmupS = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        int users = Integer.parseInt(options.getOrDefault("users", "20"));
+        int latencyMs = Integer.parseInt(options.getOrDefault("latency-ms", "50"));
+        int jitterMs = Integer.parseInt(options.getOrDefault("jitter-ms", "25"));
+        double errorRate = Double.parseDouble(options.getOrDefault("error-rate", "0"));
+        double stallRate = Double.parseDouble(options.getOrDefault("stall-rate", "0"));
+        Map<Operation, Integer> mix = parseMix(options.getOrDefault("mix", "login:1,status:6,trial-scan:2,premium-scan:2,admin-listing:1"));
+        Path reportPath = Paths.get(options.getOrDefault("report", "target/loadtest-report.json"));
+
+        PrintStream console = System.out;
+        try (FakeBinance binance = new FakeBinance(latencyMs, jitterMs, errorRate, stallRate)) {
+            binance.start();
+            // The scan path logs every detection window; keep the string building but not the console I/O
+            if (!"keep".equals(options.get("app-stdout"))) {
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            }
+            ConfigurableApplicationContext app = new SpringApplicationBuilder(CryptoScannerBackendApplication.class)
+                    .run(applicationArgs(binance.baseUrl(), options));
+            int port = app.getEnvironment().getProperty("local.server.port", Integer.class);
+            console.println("Application started on port " + port + ", Binance stand-in at " + binance.baseUrl());
+
+            VirtualUsers virtualUsers = VirtualUsers.create(app, users);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newFixedThreadPool(Math.max(2, concurrency / 4)))
+                    .build();
+            String base = "http://localhost:" + port;
+
+            LoadReport report = new LoadReport();
+            long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupS);
+            long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationS);
+            Map<String, Object> upstreamAtStart = new LinkedHashMap<>();
+
+            ExecutorService driver = Executors.newFixedThreadPool(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                long seed = 31L * i + 7;
+                driver.submit(() -> drive(client, base, virtualUsers, mix, report, new SplittableRandom(seed), warmupEnd, end));
+            }
+            console.println("Warming up for " + warmupS + " s, then measuring for " + durationS + " s with " + concurrency + " virtual users...");
+            Thread.sleep(TimeUnit.SECONDS.toMillis(warmupS));
+            upstreamAtStart.putAll(binance.getStats());
+            driver.shutdown();
+            driver.awaitTermination(durationS + 180L, TimeUnit.SECONDS);
+            Map<String, Object> upstreamAtEnd = binance.getStats();
+
+            Map<String, Object> summary = report.summarize(durationS);
+            Map<String, Object> upstream = new LinkedHashMap<>(upstreamAtEnd);
+            upstream.put("requestsDuringMeasurement", (long) upstreamAtEnd.get("totalRequests") - (long) upstreamAtStart.get("totalRequests"));
+            upstream.put("weightDuringMeasurement", (long) upstreamAtEnd.get("weight") - (long) upstreamAtStart.get("weight"));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("options", options);
+            result.put("durationSeconds", durationS);
+            result.put("concurrency", concurrency);
+            result.putAll(summary);
+            result.put("upstream", upstream);
+            Map<String, Object> appStats = new LinkedHashMap<>();
+            appStats.put("scanCache", app.getBean(ScanResultCache.class).getStats());
+            appStats.put("scanScheduler", app.getBean(TieredScanScheduler.class).getStats());
+            appStats.put("candleCache", app.getBean(CandleCache.class).getStats());
+            result.put("app", appStats);
+
+            console.println();
+            console.print(LoadReport.format(summary));
+            console.println("upstream: " + upstream);
+            if (reportPath.getParent() != null) {
+                Files.createDirectories(reportPath.getParent());
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), result);
+            console.println("Report written to " + reportPath.toAbsolutePath());
+
+            app.close();
+        } finally {
+            System.setOut(console);
+        }
+        System.exit(0);
+    }
+
+    private static void drive(HttpClient client, String base, VirtualUsers users, Map<Operation, Integer> mix,
+                              LoadReport report, SplittableRandom random, long warmupEnd, long end) {
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        while (System.nanoTime() < end) {
+            Operation op = pick(mix, random.nextInt(totalWeight));
+            HttpRequest request = request(op, base, users, random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                status = -1;
+            }
+            if (start >= warmupEnd) {
+                report.record(op, status, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static HttpRequest request(Operation op, String base, VirtualUsers users, SplittableRandom random) {
+        HttpRequest.Builder builder;
+        switch (op) {
+            case LOGIN: {
+                String username = random.nextBoolean() ? users.trial(random).username : users.premium(random).username;
+                String body = "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+                return HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                        .timeout(Duration.ofSeconds(60))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            case STATUS:
+                builder = HttpRequest.newBuilder(URI.create(base + "/api/user/status"))
+                        .header("Authorization", "Bearer " + (random.nextBoolean() ? users.trial(random) : users.premium(random)).token);
+                break;
+            case TRIAL_SCAN:
+                builder = HttpRequest.newBuilder(URI.create(base + "/api/scan-order-blocks?interval=4h"))
+                        .header("Authorization", "Bearer " + users.trial(random).token);
+                break;
+            case PREMIUM_SCAN:
+                String interval = PREMIUM_INTERVALS[random.nextInt(PREMIUM_INTERVALS.length)];
+                builder = HttpRequest.newBuilder(URI.create(base + "/api/scan-order-blocks?interval=" + interval))
+                        .header("Authorization", "Bearer " + users.premium(random).token);
+                break;
+            default:
+                builder = HttpRequest.newBuilder(URI.create(base + "/api/admin/users/page?limit=50"))
+                        .header("Authorization", "Bearer " + users.admin.token);
+                break;
+        }
+        return builder.timeout(Duration.ofSeconds(180)).GET().build();
+    }
+
+    private static Operation pick(Map<Operation, Integer> mix, int roll) {
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("empty mix");
+    }
+
+    // Command-line properties, so they take precedence over application.properties
+    private static String[] applicationArgs(String binanceUrl, Map<String, String> options) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--app.jwt.secret=load-test-secret-load-test-secret-load-test-secret-load-test-secret",
+                "--binance.futures.base.url=" + binanceUrl,
+                "--scan.snapshot.enabled=false",
+                // Every virtual user shares one address; per-username login limits still apply
+                "--auth.throttle.per-ip-per-minute=1000000",
+                "--auth.throttle.per-ip-burst=1000000"));
+        if (options.containsKey("record")) {
+            args.add("--scan.market-data.record.enabled=true");
+            args.add("--scan.market-data.record.dir=" + options.get("record"));
+        }
+        if (options.containsKey("replay")) {
+            args.add("--scan.market-data.source=replay");
+            args.add("--scan.market-data.replay.path=" + options.get("replay"));
+            args.add("--scan.market-data.replay.timing=" + options.getOrDefault("replay-timing", "full-speed"));
+        }
+        return args.toArray(new String[0]);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, eq).replaceFirst("^--", ""), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            int weight = Integer.parseInt(kv[1]);
+            if (weight > 0) {
+                mix.put(Operation.byName(kv[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("mix has no operations: " + spec);
+        }
+        return mix;
+    }
+
+    // Accounts created straight in the repository with one shared password hash, and tokens issued by JwtUtils,
+    // so setup neither pays for BCrypt per user nor trips the registration throttle
+    private static final class VirtualUsers {
+        final List<Account> trial = new ArrayList<>();
+        final List<Account> premium = new ArrayList<>();
+        Account admin;
+
+        static VirtualUsers create(ConfigurableApplicationContext app, int perTier) {
+            UserRepository repository = app.getBean(UserRepository.class);
+            JwtUtils jwtUtils = app.getBean(JwtUtils.class);
+            String hash = app.getBean(PasswordEncoder.class).encode(PASSWORD);
+            VirtualUsers users = new VirtualUsers();
+            for (int i = 0; i < perTier; i++) {
+                User trialUser = new User("lt-trial-" + i, "lt-trial-" + i + "@example.com", hash);
+                trialUser.getRoles().remove(ERole.ROLE_USER);
+                trialUser.getRoles().add(ERole.ROLE_TRIAL);
+                trialUser.setTrialStartDate(LocalDateTime.now());
+                trialUser.setTrialEndDate(LocalDateTime.now().plusDays(3));
+                users.trial.add(account(repository.save(trialUser), jwtUtils));
+
+                User premiumUser = new User("lt-premium-" + i, "lt-premium-" + i + "@example.com", hash);
+                premiumUser.setPremium(true);
+                premiumUser.getRoles().add(ERole.ROLE_PREMIUM);
+                users.premium.add(account(repository.save(premiumUser), jwtUtils));
+            }
+            User admin = new User("lt-admin", "lt-admin@example.com", hash);
+            admin.getRoles().add(ERole.ROLE_ADMIN);
+            users.admin = account(repository.save(admin), jwtUtils);
+            return users;
+        }
+
+        Account trial(SplittableRandom random) {
+            return trial.get(random.nextInt(trial.size()));
+        }
+
+        Account premium(SplittableRandom random) {
+            return premium.get(random.nextInt(premium.size()));
+        }
+
+        private static Account account(User user, JwtUtils jwtUtils) {
+            UserDetailsImpl details = UserDetailsImpl.build(user);
+            String token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+            return new Account(user.getUsername(), token);
+        }
+    }
+
+    private static final class Account {
+        final String username;
+        final String token;
+
+        Account(String username, String token) {
+            this.username = username;
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.cryptoscannerbackend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Scans run on their own pool so Tomcat worker threads only parse the request and write the response.
+ * Request-thread occupancy no longer depends on how long the upstream calls take. Streaming response writers
+ * (NDJSON scans) get a separate pool: they block until their scan finishes, so sharing the scan pool with them
+ * would let a burst of streams take every scan thread while their own scans wait in its queue.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    @Value("${scan.executor.core-size:8}")
+    private int scanCoreSize;
+
+    @Value("${scan.executor.max-size:16}")
+    private int scanMaxSize;
+
+    @Value("${scan.executor.queue-capacity:200}")
+    private int scanQueueCapacity;
+
+    @Value("${scan.async.timeout-ms:120000}")
+    private long asyncTimeoutMs;
+
+    @Value("${scan.async.pool-size:32}")
+    private int asyncPoolSize;
+
+    @Value("${scan.async.queue-capacity:100}")
+    private int asyncQueueCapacity;
+
+    // 0 = half the available cores, so hashing can never take over the whole machine
+    @Value("${auth.password.pool-size:0}")
+    private int passwordPoolSize;
+
+    @Value("${auth.password.queue-capacity:64}")
+    private int passwordQueueCapacity;
+
+    @Bean(name = "scanExecutor")
+    public AsyncTaskExecutor scanExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(scanCoreSize);
+        executor.setMaxPoolSize(scanMaxSize);
+        executor.setQueueCapacity(scanQueueCapacity);
+        executor.setThreadNamePrefix("scan-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs StreamingResponseBody writers; never the scans they wait on
+    @Bean(name = "mvcAsyncExecutor")
+    public AsyncTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(asyncPoolSize);
+        executor.setMaxPoolSize(asyncPoolSize);
+        executor.setQueueCapacity(asyncQueueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.initialize();
+        return executor;
+    }
+
+    // BCrypt hashing and verification for login and registration (see BoundedPasswordEncoder)
+    @Bean(name = "passwordExecutor")
+    public AsyncTaskExecutor passwordExecutor() {
+        int size = passwordPoolSize > 0 ? passwordPoolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(passwordQueueCapacity);
+        executor.setThreadNamePrefix("password-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeoutMs);
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+    }
+}
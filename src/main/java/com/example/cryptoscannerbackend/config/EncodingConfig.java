@@ -0,0 +1,62 @@
+package com.example.cryptoscannerbackend.config;
+
+import com.example.cryptoscannerbackend.model.ResultPage;
+import com.example.cryptoscannerbackend.service.ScanResultEncoder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Adds the columnar JSON encoding for result pages. CBOR and Smile need no registration: Spring MVC adds
+ * their Jackson converters whenever the dataformat modules are on the classpath.
+ */
+@Configuration
+public class EncodingConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ScanResultEncoder scanResultEncoder;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ColumnarResultPageConverter(scanResultEncoder));
+    }
+
+    static class ColumnarResultPageConverter extends AbstractHttpMessageConverter<ResultPage> {
+
+        private final ScanResultEncoder encoder;
+
+        ColumnarResultPageConverter(ScanResultEncoder encoder) {
+            super(ScanResultEncoder.COLUMNAR_JSON);
+            this.encoder = encoder;
+        }
+
+        @Override
+        protected boolean supports(Class<?> clazz) {
+            return ResultPage.class.isAssignableFrom(clazz);
+        }
+
+        @Override
+        protected boolean canRead(MediaType mediaType) {
+            return false;
+        }
+
+        @Override
+        protected ResultPage readInternal(Class<? extends ResultPage> clazz, HttpInputMessage inputMessage) {
+            throw new HttpMessageNotReadableException("Columnar result pages are write-only", inputMessage);
+        }
+
+        @Override
+        protected void writeInternal(ResultPage page, HttpOutputMessage outputMessage) throws IOException {
+            encoder.writeColumnar(page.getItems(), page.getNextCursor(), outputMessage.getBody());
+        }
+    }
+}
@@ -1,8 +1,22 @@
 package com.example.cryptoscannerbackend.controller;
 
+import com.example.cryptoscannerbackend.security.BoundedPasswordEncoder;
+import com.example.cryptoscannerbackend.security.jwt.JwtUtils;
+import com.example.cryptoscannerbackend.service.EntitlementCache;
+import com.example.cryptoscannerbackend.service.LeaderElection;
+import com.example.cryptoscannerbackend.service.LoginThrottle;
+import com.example.cryptoscannerbackend.service.MarketDataSource;
+import com.example.cryptoscannerbackend.service.ScanHistoryStore;
+import com.example.cryptoscannerbackend.service.ScanResultCache;
+import com.example.cryptoscannerbackend.service.SharedScanSnapshots;
+import com.example.cryptoscannerbackend.service.TieredScanScheduler;
 import com.example.cryptoscannerbackend.service.UserService;
+import com.example.cryptoscannerbackend.service.WarmStartSnapshotService;
 import com.example.cryptoscannerbackend.security.services.UserDetailsImpl;
+import com.example.cryptoscannerbackend.model.EntitlementChange;
 import com.example.cryptoscannerbackend.model.User; // Import User entity
+import com.example.cryptoscannerbackend.model.UserSummary;
+import com.example.cryptoscannerbackend.repository.UserRepositoryCustom;
 import lombok.AllArgsConstructor; // For DTO
 import lombok.Data; // For DTO
 import lombok.NoArgsConstructor; // For DTO
@@ -10,11 +24,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List; // Import List
 import java.util.Map;
 import java.util.Set;
@@ -25,9 +43,42 @@ import java.util.stream.Collectors; // Import Collectors
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AdminController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BULK_USERNAMES = 10_000;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ScanResultCache scanResultCache;
+
+    @Autowired
+    private TieredScanScheduler tieredScanScheduler;
+
+    @Autowired
+    private EntitlementCache entitlementCache;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ScanHistoryStore scanHistoryStore;
+
+    @Autowired
+    private WarmStartSnapshotService warmStartSnapshotService;
+    @Autowired
+    private MarketDataSource marketDataSource;
+    @Autowired
+    private LeaderElection leaderElection;
+    @Autowired
+    private SharedScanSnapshots sharedScanSnapshots;
+
     // Existing methods (grantPremiumAccess, revokePremiumAccess, activateTrialAccess) go here...
 
     @PostMapping("/grant-premium/{username}")
@@ -110,14 +161,179 @@ public class AdminController {
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<User> users = userService.getAllUsers(); // Call the new method in UserService
-        // Convert User entities to UserDTOs to avoid exposing sensitive data like hashed passwords
-        List<UserDTO> userDTOs = users.stream()
-                .map(UserDTO::new) // Use the new DTO constructor
+        // Projection query (users and roles in one round-trip) instead of loading every User entity
+        List<UserDTO> userDTOs = userService.getUserPage(null, null, null, Integer.MAX_VALUE).stream()
+                .map(UserDTO::new)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(userDTOs);
     }
 
+    // Keyset-paginated listing: pass the returned nextCursor as "after" to get the following page
+    // Example: /api/admin/users/page?tier=trial&trialExpiresBefore=1735689600000&limit=50
+    @GetMapping("/users/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getUserPage(@RequestParam(required = false) Long after,
+                                         @RequestParam(defaultValue = "50") int limit,
+                                         @RequestParam(required = false) String tier,
+                                         @RequestParam(required = false) Long trialExpiresBefore) {
+        if (tier != null && !Set.of(UserRepositoryCustom.TIER_PREMIUM, UserRepositoryCustom.TIER_TRIAL, UserRepositoryCustom.TIER_FREE).contains(tier)) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Unknown tier: " + tier + " (use premium, trial or free)");
+            return ResponseEntity.badRequest().body(response);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime expiresBefore = trialExpiresBefore != null
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(trialExpiresBefore), ZoneId.systemDefault()) : null;
+
+        // One extra row tells whether another page exists
+        List<UserSummary> rows = userService.getUserPage(tier, expiresBefore, after, pageSize + 1);
+        Long nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = rows.get(pageSize - 1).getId();
+        }
+        List<UserDTO> users = rows.stream().map(UserDTO::new).collect(Collectors.toList());
+        return ResponseEntity.ok(new UserPage(users, nextCursor));
+    }
+
+    // Applies one action to a list of usernames and/or every user matching the filters, in one transaction
+    // Example body: {"action":"end-trial","tier":"trial","trialExpiresBefore":1735689600000}
+    @PostMapping("/users/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkUpdateUsers(@RequestBody BulkEntitlementRequest request, Authentication authentication) {
+        UserDetailsImpl adminDetails = (UserDetailsImpl) authentication.getPrincipal();
+        Map<String, Object> response = new HashMap<>();
+
+        boolean hasUsernames = request.getUsernames() != null && !request.getUsernames().isEmpty();
+        boolean hasFilter = request.getTier() != null || request.getTrialExpiresBefore() != null;
+        if (!hasUsernames && !hasFilter) {
+            response.put("message", "Specify usernames or a filter (tier, trialExpiresBefore); bulk updates never target every user implicitly.");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (request.getTier() != null && !Set.of(UserRepositoryCustom.TIER_PREMIUM, UserRepositoryCustom.TIER_TRIAL, UserRepositoryCustom.TIER_FREE).contains(request.getTier())) {
+            response.put("message", "Unknown tier: " + request.getTier() + " (use premium, trial or free)");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (hasUsernames && request.getUsernames().size() > MAX_BULK_USERNAMES) {
+            response.put("message", "At most " + MAX_BULK_USERNAMES + " usernames per request.");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        EntitlementChange change;
+        switch (String.valueOf(request.getAction())) {
+            case "grant-premium" -> change = EntitlementChange.grantPremium();
+            case "revoke-premium" -> change = EntitlementChange.revokePremium();
+            case "activate-trial" -> {
+                if (request.getTrialDays() == null || request.getTrialDays() <= 0) {
+                    response.put("message", "activate-trial requires a positive trialDays.");
+                    return ResponseEntity.badRequest().body(response);
+                }
+                change = EntitlementChange.activateTrial(now, request.getTrialDays());
+            }
+            case "end-trial" -> change = EntitlementChange.endTrial(now);
+            default -> {
+                response.put("message", "Unknown action: " + request.getAction() + " (use grant-premium, revoke-premium, activate-trial or end-trial)");
+                return ResponseEntity.badRequest().body(response);
+            }
+        }
+
+        LocalDateTime expiresBefore = request.getTrialExpiresBefore() != null
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(request.getTrialExpiresBefore()), ZoneId.systemDefault()) : null;
+        try {
+            Collection<String> updated = userService.bulkUpdateEntitlements(hasUsernames ? request.getUsernames() : null,
+                    request.getTier(), expiresBefore, change);
+            System.out.println("Admin " + adminDetails.getUsername() + " applied " + request.getAction() + " to " + updated.size() + " users.");
+            response.put("message", "Applied " + request.getAction() + " to " + updated.size() + " users.");
+            response.put("updated", updated.size());
+            response.put("usernames", updated);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            System.err.println("Error applying bulk " + request.getAction() + ": " + e.getMessage());
+            response.put("message", "An error occurred while applying the bulk update.");
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+    // premium / trial / free totals for the dashboard header
+    @GetMapping("/users/counts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Long>> getUserCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>(userService.getTierCounts());
+        counts.put("total", counts.values().stream().mapToLong(Long::longValue).sum());
+        return ResponseEntity.ok(counts);
+    }
+
+    // Hit/miss counters of the per-user entitlement cache used by the JWT filter and tier checks
+    @GetMapping("/entitlement-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getEntitlementCacheStats() {
+        return ResponseEntity.ok(entitlementCache.getStats());
+    }
+
+    // Hit/miss counters of the verified-token cache in JwtUtils
+    @GetMapping("/jwt-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getJwtCacheStats() {
+        return ResponseEntity.ok(jwtUtils.getCacheStats());
+    }
+
+    // Throttled attempts and password-pool rejections on the login/registration path
+    @GetMapping("/auth/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAuthStats() {
+        Map<String, Object> stats = new HashMap<>(loginThrottle.getStats());
+        if (passwordEncoder instanceof BoundedPasswordEncoder bounded) {
+            stats.put("passwordPool", bounded.getStats());
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    // Queue depth, written/dropped rows and failed batches of the scan history writer
+    @GetMapping("/scan-history/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getScanHistoryStats() {
+        return ResponseEntity.ok(scanHistoryStore.getStats());
+    }
+
+    // Last warm-start snapshot write/restore and the candle cache's full vs incremental fetch counters
+    @GetMapping("/warm-start/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getWarmStartStats() {
+        return ResponseEntity.ok(warmStartSnapshotService.getStats());
+    }
+
+    // Which market data source is active (live or replay) and its recording/replay counters
+    @GetMapping("/market-data/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getMarketDataStats() {
+        return ResponseEntity.ok(marketDataSource.getStats());
+    }
+
+    // Precompute lease (this node's role, current epoch and holder) and the shared snapshot counters
+    @GetMapping("/leader/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getLeaderStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lease", leaderElection.getStats());
+        stats.put("sharedSnapshots", sharedScanSnapshots.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    // Hit/miss/eviction counters of the parameter-keyed scan result cache
+    @GetMapping("/scan-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getScanCacheStats() {
+        return ResponseEntity.ok(scanResultCache.getStats());
+    }
+
+    // Per-tier queue depth, queue wait and shed counts of the scan scheduler
+    @GetMapping("/scan-scheduler/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getScanSchedulerStats() {
+        return ResponseEntity.ok(tieredScanScheduler.getStats());
+    }
+
     // NEW DTO: To safely expose user data to the frontend
     @Data @NoArgsConstructor @AllArgsConstructor
     public static class UserDTO {
@@ -129,6 +345,16 @@ public class AdminController {
         private Long trialExpiryDate; // Epoch milliseconds for frontend
         private Set<String> roles;
 
+        public UserDTO(UserSummary user) {
+            this.id = user.getId();
+            this.username = user.getUsername();
+            this.email = user.getEmail();
+            this.isPremium = user.isPremium();
+            this.trialActive = user.getTrialEndDate() != null && user.getTrialEndDate().isAfter(LocalDateTime.now());
+            this.trialExpiryDate = user.getTrialEndDate() != null ? user.getTrialEndDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null;
+            this.roles = user.getRoles().stream().map(Enum::name).collect(Collectors.toSet());
+        }
+
         public UserDTO(User user) {
             this.id = user.getId();
             this.username = user.getUsername();
@@ -139,4 +365,20 @@ public class AdminController {
             this.roles = user.getRoles().stream().map(Enum::name).collect(Collectors.toSet());
         }
     }
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class BulkEntitlementRequest {
+        private String action; // grant-premium, revoke-premium, activate-trial, end-trial
+        private List<String> usernames;
+        private String tier;
+        private Long trialExpiresBefore; // epoch ms
+        private Integer trialDays;
+    }
+
+    // Keyset page of the admin user listing
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class UserPage {
+        private List<UserDTO> users;
+        private Long nextCursor; // null on the last page
+    }
 }
@@ -0,0 +1,103 @@
+package com.example.cryptoscannerbackend.controller;
+
+import com.example.cryptoscannerbackend.model.AlertCondition;
+import com.example.cryptoscannerbackend.model.AlertEvent;
+import com.example.cryptoscannerbackend.security.services.UserDetailsImpl;
+import com.example.cryptoscannerbackend.service.PriceAlertService;
+import com.example.cryptoscannerbackend.service.UserService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = "*", maxAge = 3600) // Temporarily allow all origins for local testing, change to "https://ccscanner.netlify.app" for production
+public class AlertController {
+
+    @Autowired
+    private PriceAlertService priceAlertService;
+    @Autowired
+    private UserService userService;
+
+    // Example body: {"interval":"4h","zoneType":"bullish","withinPct":1.0} (symbol omitted = every symbol)
+    @PostMapping
+    public ResponseEntity<?> createAlert(@RequestBody AlertRequest request, Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        Map<String, Object> userStatus = userService.getUserStatus(username);
+        boolean isPremium = (boolean) userStatus.getOrDefault("isPremium", false);
+        boolean trialActive = (boolean) userStatus.getOrDefault("trialActive", false);
+
+        if (!isPremium && !trialActive) {
+            System.out.println("Access Denied: User " + username + " is neither premium nor has an active trial.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new MessageResponse("A premium plan or active trial is required for alerts."));
+        }
+
+        String interval = request.getInterval() != null ? request.getInterval() : "4h";
+        String effectiveInterval = isPremium ? interval : "4h"; // Trial users restricted to 4h
+
+        try {
+            Optional<AlertCondition> alert = priceAlertService.register(username, request.getSymbol(), effectiveInterval, request.getZoneType(), request.getWithinPct());
+            if (alert.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(new MessageResponse("Alert limit reached. Delete an alert before adding another."));
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(alert.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AlertCondition>> listAlerts(Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return ResponseEntity.ok(priceAlertService.list(userDetails.getUsername()));
+    }
+
+    @DeleteMapping("/{alertId}")
+    public ResponseEntity<?> deleteAlert(@PathVariable long alertId, Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        if (priceAlertService.remove(userDetails.getUsername(), alertId)) {
+            return ResponseEntity.ok(new MessageResponse("Alert deleted: " + alertId));
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Alert not found: " + alertId));
+    }
+
+    // Triggered alerts since the last call (each one is returned once)
+    @GetMapping("/triggered")
+    public ResponseEntity<List<AlertEvent>> getTriggeredAlerts(Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return ResponseEntity.ok(priceAlertService.drainTriggered(userDetails.getUsername()));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAlerts(Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return ResponseEntity.ok(priceAlertService.stream(userDetails.getUsername()));
+    }
+
+    // DTOs for AlertController
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class AlertRequest {
+        private String symbol;
+        private String interval = "4h";
+        private String zoneType = "any";
+        private double withinPct = 1.0;
+    }
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class MessageResponse {
+        private String message;
+    }
+}
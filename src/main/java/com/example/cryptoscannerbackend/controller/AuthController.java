@@ -6,10 +6,13 @@ import com.example.cryptoscannerbackend.repository.UserRepository;
 import com.example.cryptoscannerbackend.security.jwt.JwtUtils;
 import com.example.cryptoscannerbackend.security.services.UserDetailsImpl;
 import com.example.cryptoscannerbackend.service.AuthService;
+import com.example.cryptoscannerbackend.service.AuthThrottledException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -34,15 +37,18 @@ public class AuthController {
     AuthService authService;
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@RequestBody RegisterRequest registerRequest) {
+    public ResponseEntity<?> registerUser(@RequestBody RegisterRequest registerRequest, HttpServletRequest request) {
         try {
             User registeredUser = authService.registerUser(
                     registerRequest.getUsername(),
                     registerRequest.getEmail(),
                     registerRequest.getPassword(),
-                    registerRequest.getPlan()
+                    registerRequest.getPlan(),
+                    request.getRemoteAddr()
             );
             return ResponseEntity.ok(new MessageResponse("User registered successfully! User ID: " + registeredUser.getId()));
+        } catch (AuthThrottledException e) {
+            return throttled(e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
@@ -66,20 +72,30 @@ public class AuthController {
 
 
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
         try {
-            String jwt = authService.authenticateUser(loginRequest.getUsername(), loginRequest.getPassword());
+            String jwt = authService.authenticateUser(loginRequest.getUsername(), loginRequest.getPassword(), request.getRemoteAddr());
             UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
             List<String> roles = userDetails.getAuthorities().stream()
                     .map(GrantedAuthority::getAuthority)
                     .collect(Collectors.toList());
 
             return ResponseEntity.ok(new JwtResponse(jwt, userDetails.getId(), userDetails.getUsername(), userDetails.getEmail(), roles));
+        } catch (AuthThrottledException e) {
+            return throttled(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse("Invalid credentials: " + e.getMessage()));
         }
     }
 
+    // Throttled or hashing pool saturated: tell the client when to retry instead of letting requests pile up
+    private ResponseEntity<?> throttled(AuthThrottledException e) {
+        System.out.println("Auth request throttled: " + e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new MessageResponse(e.getMessage()));
+    }
+
     // DTOs for AuthController
     @Data @NoArgsConstructor @AllArgsConstructor
     public static class RegisterRequest {
@@ -1,25 +1,48 @@
 package com.example.cryptoscannerbackend.controller;
 
-import com.example.cryptoscannerbackend.model.CoinData;
-import com.example.cryptoscannerbackend.model.OrderBlockResult;
-import com.example.cryptoscannerbackend.service.BinanceApiClient;
-import com.example.cryptoscannerbackend.service.OrderBlockDetector;
+import com.example.cryptoscannerbackend.model.ResultPage;
+import com.example.cryptoscannerbackend.model.ResultQuery;
+import com.example.cryptoscannerbackend.model.ScanParameters;
+import com.example.cryptoscannerbackend.model.ScanHistoryEntry;
+import com.example.cryptoscannerbackend.model.ScanTier;
+import com.example.cryptoscannerbackend.model.ZoneDistance;
+import com.example.cryptoscannerbackend.service.OrderBlockStreamService;
+import com.example.cryptoscannerbackend.service.ScanHistoryStore;
+import com.example.cryptoscannerbackend.service.ScanIntervals;
+import com.example.cryptoscannerbackend.service.ScanMetrics;
+import com.example.cryptoscannerbackend.service.ScanProfile;
+import com.example.cryptoscannerbackend.service.ScanRejectedException;
+import com.example.cryptoscannerbackend.service.ScanResultEncoder;
+import com.example.cryptoscannerbackend.service.ScanResultStore;
+import com.example.cryptoscannerbackend.service.ScanService;
+import com.example.cryptoscannerbackend.service.ScanSnapshot;
 import com.example.cryptoscannerbackend.service.UserService;
+import com.example.cryptoscannerbackend.service.ZoneProximityRanking;
 import com.example.cryptoscannerbackend.security.services.UserDetailsImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service; // This should be @RestController
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController // Correct annotation for a REST controller
 @RequestMapping("/api")
@@ -28,13 +51,28 @@ public class CryptoController {
 
 
     @Autowired
-    private BinanceApiClient binanceApiClient;
-    @Autowired
-    private OrderBlockDetector orderBlockDetector;
+    private ScanService scanService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private OrderBlockStreamService orderBlockStreamService;
+    @Autowired
+    private ScanResultStore scanResultStore;
+    @Autowired
+    private ZoneProximityRanking zoneProximityRanking;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ScanResultEncoder scanResultEncoder;
+    @Autowired
+    private ScanHistoryStore scanHistoryStore;
+    @Autowired
+    private ScanMetrics scanMetrics;
 
-    private final ConcurrentMap<String, OrderBlockResult> latestScanResults = new ConcurrentHashMap<>();
+    private static final int PROFILE_SLOWEST_SYMBOLS = 10;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int NDJSON_BUFFER_LINES = 64;
+    private static final long NDJSON_POLL_MS = 250;
 
     // --- NEW HEALTH CHECK ENDPOINT ---
     @GetMapping("/health")
@@ -44,8 +82,90 @@ public class CryptoController {
     // --- END NEW HEALTH CHECK ENDPOINT ---
 
 
+    // Content negotiation on Accept: application/json (default), application/cbor, application/x-jackson-smile or
+    // application/vnd.ccscanner.columnar+json. Cached scans are written from bytes encoded once per type.
+    // profile=true runs a fresh scan and answers {"profile": {...}, "results": [...]} as JSON.
     @GetMapping("/scan-order-blocks")
-    public List<OrderBlockResult> getOrderBlockScanResults(
+    public CompletableFuture<ResponseEntity<byte[]>> getOrderBlockScanResults(
+            @RequestParam(defaultValue = "4h") String interval,
+            @RequestParam(defaultValue = "0.15") double minBodyRatio,
+            @RequestParam(defaultValue = "0.0002") double minPriceChange,
+            @RequestParam(defaultValue = "0.5") double volumeFactor,
+            @RequestParam(defaultValue = "true") boolean requireBOS,
+            @RequestParam(defaultValue = "true") boolean requireC3ClosePastC2,
+            @RequestParam(defaultValue = "true") boolean requireFVG,
+            @RequestParam(defaultValue = "true") boolean requireUnmitigated,
+            @RequestParam(defaultValue = "0.0") double minFvgDepthRatio,
+            @RequestParam(defaultValue = "false") boolean profile,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Authentication authentication
+    ) {
+        MediaType responseType = scanResultEncoder.negotiate(accept);
+        ScanAccess access = resolveAccess(authentication, interval);
+        if (access.denied != null) {
+            return CompletableFuture.completedFuture(encoded(new ScanSnapshot(Collections.emptyList()), responseType, "4h"));
+        }
+        String effectiveInterval = access.interval;
+        if (!ScanIntervals.isSupported(effectiveInterval)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build()); // checked here, not on the scan thread
+        }
+
+        System.out.println("API endpoint hit: Performing one-time scan for order blocks on Binance Futures for interval: " + effectiveInterval + " for user: " + access.username + " (Tier: " + access.tier + ")");
+        System.out.println(String.format("  Parameters: minBodyRatio=%.4f, minPriceChange=%.4f, volumeFactor=%.2f, requireBOS=%b, requireC3ClosePastC2=%b, requireFVG=%b, requireUnmitigated=%b, minFvgDepthRatio=%.4f", minBodyRatio, minPriceChange, volumeFactor, requireBOS, requireC3ClosePastC2, requireFVG, requireUnmitigated, minFvgDepthRatio));
+
+        ScanParameters params = new ScanParameters(minBodyRatio, minPriceChange, volumeFactor, requireBOS, requireC3ClosePastC2, requireFVG, requireUnmitigated, minFvgDepthRatio);
+        if (profile) {
+            return scanService.profileAsync(access.tier, access.coinLimit, effectiveInterval, params)
+                    .thenApply(scanProfile -> profiled(scanProfile, effectiveInterval));
+        }
+        return scanService.scanAsync(access.tier, access.coinLimit, effectiveInterval, params)
+                .thenApply(snapshot -> encoded(snapshot, responseType, effectiveInterval));
+    }
+
+    // Serialization is timed only when an encoding is actually produced, not when cached bytes are reused
+    private ResponseEntity<byte[]> encoded(ScanSnapshot snapshot, MediaType type, String interval) {
+        byte[] body = snapshot.encoded(type, results -> {
+            long start = System.nanoTime();
+            byte[] bytes = scanResultEncoder.encode(results, type);
+            scanMetrics.recordStage(ScanMetrics.Stage.SERIALIZATION, interval, System.nanoTime() - start);
+            return bytes;
+        });
+        return ResponseEntity.ok().contentType(type).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).body(body);
+    }
+
+    // A failed scan is reported with its error but adds nothing to the serialization timer
+    private ResponseEntity<byte[]> profiled(ScanProfile scanProfile, String interval) {
+        long start = System.nanoTime();
+        byte[] results = scanResultEncoder.encode(scanProfile.getResults(), MediaType.APPLICATION_JSON);
+        long nanos = System.nanoTime() - start;
+        if (!scanProfile.isFailed()) {
+            scanMetrics.recordStage(ScanMetrics.Stage.SERIALIZATION, interval, nanos);
+            scanProfile.recordStage(ScanMetrics.Stage.SERIALIZATION, nanos);
+        }
+
+        ObjectNode body = objectMapper.createObjectNode();
+        body.set("profile", objectMapper.valueToTree(scanProfile.toView(PROFILE_SLOWEST_SYMBOLS)));
+        body.putRawValue("results", new RawValue(new String(results, StandardCharsets.UTF_8)));
+        try {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode scan profile", e);
+        }
+    }
+
+    // Scans shed by the tier-aware scheduler: tell the client when to retry instead of letting the request time out
+    @ExceptionHandler(ScanRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleScanRejected(ScanRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("message", e.getMessage()));
+    }
+
+    // Opt-in streaming variant (?format=ndjson): one JSON object per line, flushed as soon as each symbol is scanned.
+    // Symbols that fail to load are written as {"symbol":..., "message":...} lines and the scan continues.
+    // The scan itself runs on the tier-aware scheduler; when it is shed the client gets 503 + Retry-After.
+    @GetMapping(value = "/scan-order-blocks", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamOrderBlockScanResults(
             @RequestParam(defaultValue = "4h") String interval,
             @RequestParam(defaultValue = "0.15") double minBodyRatio,
             @RequestParam(defaultValue = "0.0002") double minPriceChange,
@@ -57,9 +177,129 @@ public class CryptoController {
             @RequestParam(defaultValue = "0.0") double minFvgDepthRatio,
             Authentication authentication
     ) {
+        ScanAccess access = resolveAccess(authentication, interval);
+        if (access.denied != null) {
+            return ResponseEntity.status(access.denied).build();
+        }
+        String effectiveInterval = access.interval;
+        if (!ScanIntervals.isSupported(effectiveInterval)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ScanParameters params = new ScanParameters(minBodyRatio, minPriceChange, volumeFactor, requireBOS, requireC3ClosePastC2, requireFVG, requireUnmitigated, minFvgDepthRatio);
+        System.out.println("API endpoint hit: Streaming NDJSON scan for interval: " + effectiveInterval + " for user: " + access.username + " (Tier: " + access.tier + ")");
+
+        BlockingQueue<Object> lines = new ArrayBlockingQueue<>(NDJSON_BUFFER_LINES);
+        // Admission happens here: a shed scan becomes a 503 with Retry-After via handleScanRejected
+        CompletableFuture<Void> scan = scanService.streamAsync(access.tier, access.coinLimit, effectiveInterval, params, lines::put);
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                while (true) {
+                    Object line = lines.poll(NDJSON_POLL_MS, TimeUnit.MILLISECONDS);
+                    if (line != null) {
+                        writeLine(outputStream, line); // a client disconnect surfaces here and ends the scan
+                    } else if (scan.isDone() && lines.isEmpty()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                scan.cancel(true); // no-op once the scan has finished
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    // Latest stored results, filtered, sorted and paginated server-side.
+    // Example: /api/results?type=bullish&maxDistancePct=2&sort=distance&limit=20, then &cursor=<nextCursor> for the next page
+    @GetMapping("/results")
+    public ResponseEntity<?> getLatestResults(ResultQuery query, Authentication authentication) {
+        ScanAccess access = resolveAccess(authentication, query.getTimeframe());
+        if (access.denied != null) {
+            return ResponseEntity.status(access.denied).build();
+        }
+        query.setTimeframe(access.interval);
+
+        try {
+            ResultPage page = scanResultStore.query(query, access.trialLimit());
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Symbols whose current price is closest to their order block zone, kept ranked as prices and results change.
+    // Example: /api/results/closest?interval=1h&type=bullish&limit=10
+    @GetMapping("/results/closest")
+    public ResponseEntity<?> getClosestToZone(
+            @RequestParam(defaultValue = "4h") String interval,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication
+    ) {
+        ScanAccess access = resolveAccess(authentication, interval);
+        if (access.denied != null) {
+            return ResponseEntity.status(access.denied).build();
+        }
+        List<ZoneDistance> closest = access.tier == ScanTier.PREMIUM
+                ? zoneProximityRanking.top(access.interval, type, limit)
+                : zoneProximityRanking.top(access.interval, type, limit, scanResultStore.topSymbols(access.interval, access.coinLimit));
+        return ResponseEntity.ok(closest);
+    }
+
+    // Persisted history of one symbol's results, newest first (default: the last 24 hours).
+    // Example: /api/results/history?symbol=BTCUSDT&interval=1h&from=1760000000000&to=1760086400000
+    @GetMapping("/results/history")
+    public ResponseEntity<?> getResultHistory(
+            @RequestParam String symbol,
+            @RequestParam(defaultValue = "4h") String interval,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "500") int limit,
+            Authentication authentication
+    ) {
+        ScanAccess access = resolveAccess(authentication, interval);
+        if (access.denied != null) {
+            return ResponseEntity.status(access.denied).build();
+        }
+        String effectiveInterval = access.interval;
+        String effectiveSymbol = symbol.toUpperCase();
+        if (access.tier == ScanTier.TRIAL && !scanResultStore.topSymbols(effectiveInterval, access.coinLimit).contains(effectiveSymbol)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Trial access covers the top " + access.coinLimit + " symbols by volume."));
+        }
+        long toMs = to != null ? to : System.currentTimeMillis();
+        long fromMs = from != null ? from : toMs - 24 * 3_600_000L;
+        if (fromMs >= toMs) {
+            return ResponseEntity.badRequest().body(Map.of("message", "from must be before to"));
+        }
+        int effectiveLimit = Math.max(1, Math.min(limit, 5000));
+        List<ScanHistoryEntry> history = scanHistoryStore.query(effectiveSymbol, effectiveInterval, fromMs, toMs, effectiveLimit);
+        return ResponseEntity.ok(history);
+    }
+
+    // Subscribers receive a snapshot on connect, then only the order blocks that changed after each precompute cycle
+    @GetMapping(value = "/scan-order-blocks/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrderBlockChanges(
+            @RequestParam(defaultValue = "4h") String interval,
+            Authentication authentication
+    ) {
+        ScanAccess access = resolveAccess(authentication, interval);
+        if (access.denied != null) {
+            return ResponseEntity.status(access.denied).build();
+        }
+        if (!ScanIntervals.isSupported(access.interval)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(orderBlockStreamService.subscribe(access.interval, access.coinLimit, access.username));
+    }
+
+    // Premium users get 100 coins on any interval; trial users get the top 20 coins on 4h only
+    private ScanAccess resolveAccess(Authentication authentication, String requestedInterval) {
         if (authentication == null || !authentication.isAuthenticated() || authentication.getPrincipal().equals("anonymousUser")) {
             System.out.println("Access Denied: User not authenticated.");
-            return Collections.emptyList();
+            return ScanAccess.denied(HttpStatus.UNAUTHORIZED);
         }
 
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
@@ -71,100 +311,52 @@ public class CryptoController {
 
         if (!isPremium && !trialActive) {
             System.out.println("Access Denied: User " + username + " is neither premium nor has an active trial.");
-            return Collections.emptyList();
+            return ScanAccess.denied(HttpStatus.FORBIDDEN);
         }
-
-        int coinLimit = isPremium ? 100 : 20; // Premium users get 100 coins, trial users get 20
-        String effectiveInterval = isPremium ? interval : "4h"; // Trial users restricted to 4h
-
-        if (!isPremium && !interval.equals("4h")) {
+        String interval = requestedInterval != null ? requestedInterval : "4h";
+        if (isPremium) {
+            return new ScanAccess(null, username, ScanTier.PREMIUM, 100, interval);
+        }
+        if (!interval.equals("4h")) {
             System.out.println("Trial user requested " + interval + ", but only 4h is allowed. Using 4h.");
         }
+        return new ScanAccess(null, username, ScanTier.TRIAL, 20, "4h");
+    }
 
-        System.out.println("API endpoint hit: Performing one-time scan for order blocks on Binance Futures for interval: " + effectiveInterval + " for user: " + username + " (Premium: " + isPremium + ", Trial: " + trialActive + ")");
-        System.out.println(String.format("  Parameters: minBodyRatio=%.4f, minPriceChange=%.4f, volumeFactor=%.2f, requireBOS=%b, requireC3ClosePastC2=%b, requireFVG=%b, requireUnmitigated=%b, minFvgDepthRatio=%.4f", minBodyRatio, minPriceChange, volumeFactor, requireBOS, requireC3ClosePastC2, requireFVG, requireUnmitigated, minFvgDepthRatio));
-
-        List<OrderBlockResult> results = new ArrayList<>();
-        try {
-            List<CoinData> highVolumeCoins = binanceApiClient.getTopVolumeFuturesCoins(coinLimit);
-            System.out.println("Found " + highVolumeCoins.size() + " top volume futures coins.");
-
-            for (CoinData coin : highVolumeCoins) {
-                List<BinanceApiClient.Candlestick> klines = binanceApiClient.getCandlestickData(coin.getId(), effectiveInterval, 200);
-                if (klines != null && klines.size() >= OrderBlockDetector.WINDOW_SIZE) {
-                    OrderBlockResult result = orderBlockDetector.detectOrderBlock(
-                            coin, klines, effectiveInterval, minBodyRatio, minPriceChange, volumeFactor, requireBOS, requireC3ClosePastC2, requireFVG, requireUnmitigated, minFvgDepthRatio
-                    );
-                    results.add(result);
-                    latestScanResults.put(coin.getId(), result);
-                    System.out.println("Scanned " + coin.getName() + " (" + coin.getId() + "): " + result.getOrderBlockType() + " at " + (result.getOrderBlockPrice() != null ? String.format("$%.2f", result.getOrderBlockPrice()) : "N/A"));
-                } else {
-                    System.out.println("Not enough klines data for " + coin.getId() + " (found " + (klines != null ? klines.size() : 0) + "), skipping order block detection.");
-                    OrderBlockResult noDataResult = new OrderBlockResult();
-                    noDataResult.setId(coin.getId());
-                    noDataResult.setName(coin.getName());
-                    noDataResult.setCurrentPrice(coin.getCurrentPrice());
-                    noDataResult.setVolume(coin.getVolume());
-                    noDataResult.setTimestamp(LocalDateTime.now().atZone(ZoneId.systemDefault()).toLocalTime().toString());
-                    noDataResult.setOrderBlockType("None");
-                    noDataResult.setDetails("Insufficient candlestick data for analysis in scheduled scan.");
-                    noDataResult.setTimeframe(effectiveInterval);
-                    latestScanResults.put(coin.getId(), noDataResult);
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error during one-time scan: " + e.getMessage());
-            e.printStackTrace();
-            return new ArrayList<>();
-        }
-        return results;
+    private void writeLine(OutputStream outputStream, Object value) throws IOException {
+        outputStream.write(objectMapper.writeValueAsBytes(value));
+        outputStream.write('\n');
+        outputStream.flush();
     }
 
     // This method is called by the ScanScheduler for background scans
     public void performScheduledScan() {
-        System.out.println("Performing scheduled background scan for order blocks on Binance Futures...");
-        try {
-            List<CoinData> highVolumeCoins = binanceApiClient.getTopVolumeFuturesCoins(100); // Scan all 100 for scheduled
-            System.out.println("Found " + highVolumeCoins.size() + " top volume futures coins for scheduled scan.");
-
-            // Default parameters for scheduled scan (can be different from frontend defaults)
-            double defaultMinBodyRatio = 0.15;
-            double defaultMinPriceChange = 0.0005;
-            double defaultVolumeFactor = 0.6;
-            String defaultTimeframe = "4h";
-            boolean defaultRequireBOS = true;
-            boolean defaultRequireC3ClosePastC2 = true;
-            boolean defaultRequireFVG = true;
-            boolean defaultRequireUnmitigated = true;
-            double defaultMinFvgDepthRatio = 0.05;
-
-            for (CoinData coin : highVolumeCoins) {
-                List<BinanceApiClient.Candlestick> klines = binanceApiClient.getCandlestickData(coin.getId(), defaultTimeframe, 200);
-                if (klines != null && klines.size() >= OrderBlockDetector.WINDOW_SIZE) {
-                    OrderBlockResult result = orderBlockDetector.detectOrderBlock(
-                            coin, klines, defaultTimeframe, defaultMinBodyRatio, defaultMinPriceChange, defaultVolumeFactor, defaultRequireBOS, defaultRequireC3ClosePastC2, defaultRequireFVG, defaultRequireUnmitigated, defaultMinFvgDepthRatio
-                    );
-                    latestScanResults.put(coin.getId(), result);
-                    System.out.println("  Scheduled Scanned " + coin.getName() + " (" + coin.getId() + "): " + result.getOrderBlockType());
-                } else {
-                    System.out.println("  Scheduled scan: Not enough klines data for " + coin.getId() + " (found " + (klines != null ? klines.size() : 0) + "), skipping order block detection.");
-                    OrderBlockResult noDataResult = new OrderBlockResult();
-                    noDataResult.setId(coin.getId());
-                    noDataResult.setName(coin.getName());
-                    noDataResult.setCurrentPrice(coin.getCurrentPrice());
-                    noDataResult.setVolume(coin.getVolume());
-                    noDataResult.setTimestamp(LocalDateTime.now().atZone(ZoneId.systemDefault()).toLocalTime().toString());
-                    noDataResult.setOrderBlockType("None");
-                    noDataResult.setDetails("Insufficient candlestick data for analysis in scheduled scan.");
-                    noDataResult.setTimeframe(defaultTimeframe);
-                    latestScanResults.put(coin.getId(), noDataResult);
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error during scheduled scan: " + e.getMessage());
-            e.printStackTrace();
-        }
+        scanService.performScheduledScan("4h");
     }
 
+    // Who is asking and what they may see; denied is set (and nothing else) when the request is refused
+    private static final class ScanAccess {
+        final HttpStatus denied;
+        final String username;
+        final ScanTier tier;
+        final int coinLimit;
+        final String interval;
+
+        ScanAccess(HttpStatus denied, String username, ScanTier tier, int coinLimit, String interval) {
+            this.denied = denied;
+            this.username = username;
+            this.tier = tier;
+            this.coinLimit = coinLimit;
+            this.interval = interval;
+        }
+
+        static ScanAccess denied(HttpStatus status) {
+            return new ScanAccess(status, null, null, 0, null);
+        }
+
+        // Coin limit stored results are cut to: premium sees everything that was scanned
+        int trialLimit() {
+            return tier == ScanTier.TRIAL ? coinLimit : 0;
+        }
+    }
 }
-    
\ No newline at end of file
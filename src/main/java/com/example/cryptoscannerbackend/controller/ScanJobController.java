@@ -0,0 +1,120 @@
+package com.example.cryptoscannerbackend.controller;
+
+import com.example.cryptoscannerbackend.model.ScanJobView;
+import com.example.cryptoscannerbackend.model.ScanParameters;
+import com.example.cryptoscannerbackend.model.ScanTier;
+import com.example.cryptoscannerbackend.security.services.UserDetailsImpl;
+import com.example.cryptoscannerbackend.service.ScanIntervals;
+import com.example.cryptoscannerbackend.service.ScanJobService;
+import com.example.cryptoscannerbackend.service.ScanRejectedException;
+import com.example.cryptoscannerbackend.service.UserService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/scan-jobs")
+@CrossOrigin(origins = "*", maxAge = 3600) // Temporarily allow all origins for local testing, change to "https://ccscanner.netlify.app" for production
+public class ScanJobController {
+
+    @Autowired
+    private ScanJobService scanJobService;
+    @Autowired
+    private UserService userService;
+
+    @PostMapping
+    public ResponseEntity<?> submitScanJob(@RequestBody(required = false) ScanJobRequest request, Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        Map<String, Object> userStatus = userService.getUserStatus(username);
+        boolean isPremium = (boolean) userStatus.getOrDefault("isPremium", false);
+        boolean trialActive = (boolean) userStatus.getOrDefault("trialActive", false);
+
+        if (!isPremium && !trialActive) {
+            System.out.println("Access Denied: User " + username + " is neither premium nor has an active trial.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new MessageResponse("A premium plan or active trial is required to scan."));
+        }
+
+        ScanJobRequest effectiveRequest = request != null ? request : new ScanJobRequest();
+        String interval = effectiveRequest.getInterval() != null ? effectiveRequest.getInterval() : "4h";
+        ScanParameters params = effectiveRequest.getParameters() != null ? effectiveRequest.getParameters() : new ScanParameters();
+
+        int coinLimit = isPremium ? 100 : 20; // Premium users get 100 coins, trial users get 20
+        String effectiveInterval = isPremium ? interval : "4h"; // Trial users restricted to 4h
+        if (!ScanIntervals.isSupported(effectiveInterval)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Unsupported interval: " + effectiveInterval));
+        }
+
+        Optional<ScanJobView> job;
+        try {
+            job = scanJobService.submit(username, isPremium ? ScanTier.PREMIUM : ScanTier.TRIAL, coinLimit, effectiveInterval, params);
+        } catch (ScanRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new MessageResponse(e.getMessage()));
+        }
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(new MessageResponse("Too many scan jobs are already running. Wait for one to finish or cancel it."));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.get());
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ScanJobView>> listScanJobs(Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return ResponseEntity.ok(scanJobService.listJobs(userDetails.getUsername()));
+    }
+
+    // Poll with ?offset=<nextOffset from the previous response> to receive only new results
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getScanJob(@PathVariable String jobId, @RequestParam(defaultValue = "0") int offset, Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        Optional<ScanJobView> job = scanJobService.getJob(jobId, userDetails.getUsername(), offset);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Scan job not found or expired: " + jobId));
+        }
+        return ResponseEntity.ok(job.get());
+    }
+
+    @GetMapping(value = "/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamScanJob(@PathVariable String jobId, Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return scanJobService.stream(jobId, userDetails.getUsername())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<?> cancelScanJob(@PathVariable String jobId, Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        if (scanJobService.cancel(jobId, userDetails.getUsername())) {
+            return ResponseEntity.ok(new MessageResponse("Scan job cancelled: " + jobId));
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Scan job not found or already finished: " + jobId));
+    }
+
+    // DTOs for ScanJobController
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class ScanJobRequest {
+        private String interval = "4h";
+        private ScanParameters parameters = new ScanParameters();
+    }
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class MessageResponse {
+        private String message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.cryptoscannerbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// "Price within withinPct percent of an unmitigated <zoneType> zone on <interval>", optionally for one symbol
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertCondition {
+    private long id;
+    private String username;
+    private String symbol;     // null matches every symbol
+    private String interval;
+    private String zoneType;   // "bullish", "bearish" or "any"
+    private double withinPct;  // 0 means price inside the zone
+    private long createdAt;
+}
@@ -0,0 +1,21 @@
+package com.example.cryptoscannerbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One triggered alert: the condition, the zone it matched and the price that triggered it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertEvent {
+    private long alertId;
+    private String symbol;
+    private String interval;
+    private String orderBlockType;
+    private double zoneStart;
+    private double zoneEnd;
+    private double price;
+    private double distancePct;
+    private long triggeredAt;
+}
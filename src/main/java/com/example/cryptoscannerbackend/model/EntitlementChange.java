@@ -0,0 +1,42 @@
+package com.example.cryptoscannerbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Column and role changes of one bulk admin action; mirrors what grantPremium/revokePremium/activateTrial do per user
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntitlementChange {
+    private boolean premium;
+    private boolean updateTrialStart; // end-trial keeps the original start date
+    private LocalDateTime trialStartDate;
+    private LocalDateTime trialEndDate;
+    private Set<ERole> rolesToAdd;
+    private Set<ERole> rolesToRemove;
+
+    public static EntitlementChange grantPremium() {
+        return new EntitlementChange(true, true, null, null,
+                EnumSet.of(ERole.ROLE_PREMIUM), EnumSet.of(ERole.ROLE_TRIAL, ERole.ROLE_USER));
+    }
+
+    public static EntitlementChange revokePremium() {
+        return new EntitlementChange(false, true, null, null,
+                EnumSet.of(ERole.ROLE_USER), EnumSet.of(ERole.ROLE_PREMIUM));
+    }
+
+    public static EntitlementChange activateTrial(LocalDateTime now, int trialDays) {
+        return new EntitlementChange(false, true, now, now.plusDays(trialDays),
+                EnumSet.of(ERole.ROLE_TRIAL), EnumSet.of(ERole.ROLE_USER, ERole.ROLE_PREMIUM));
+    }
+
+    public static EntitlementChange endTrial(LocalDateTime now) {
+        return new EntitlementChange(false, false, null, now,
+                EnumSet.of(ERole.ROLE_USER), EnumSet.of(ERole.ROLE_TRIAL, ERole.ROLE_PREMIUM));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.cryptoscannerbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultPage {
+    private List<OrderBlockResult> items;
+    private String nextCursor; // null on the last page
+}
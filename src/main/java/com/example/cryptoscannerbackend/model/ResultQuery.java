@@ -0,0 +1,20 @@
+package com.example.cryptoscannerbackend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Filters, sort order and page position for a query over the latest scan results
+@Data
+@NoArgsConstructor
+public class ResultQuery {
+    private String type;             // "bullish", "bearish", "none" or the full orderBlockType text
+    private String timeframe;        // defaults to 4h
+    private String preset;           // "scheduled", "default" or "custom-<hash>"; defaults to scheduled, then default
+    private Double minVolume;        // quote volume in USDT
+    private Double maxDistancePct;   // distance from current price to the nearest zone edge, percent of price
+    private Double maxZoneWidthPct;  // |obZoneStart - obZoneEnd|, percent of price
+    private String sort = "volume";  // volume, distance, zoneWidth or symbol
+    private String order;            // asc or desc; defaults to desc for volume, asc otherwise
+    private int limit = 50;
+    private String cursor;           // nextCursor of the previous page
+}
@@ -0,0 +1,23 @@
+package com.example.cryptoscannerbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row of the scan_results history: what a scan reported for a symbol at a point in time
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanHistoryEntry {
+    private long scannedAt; // epoch ms
+    private String symbol;
+    private String timeframe;
+    private String preset;
+    private String orderBlockType;
+    private Double orderBlockPrice;
+    private Double obZoneStart;
+    private Double obZoneEnd;
+    private double currentPrice;
+    private String volume;
+    private String candleTime; // the order block candle's timestamp as reported by the detector
+}
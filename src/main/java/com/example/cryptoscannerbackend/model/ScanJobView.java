@@ -0,0 +1,32 @@
+package com.example.cryptoscannerbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Progress and (partial) results of an asynchronous scan job as returned to the client
+@Data
+@NoArgsConstructor
+public class ScanJobView {
+    private String jobId;
+    private String state; // QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    private String interval;
+    private int total;
+    private int completed;
+    private int failed;
+    private long createdAt;
+    private Long finishedAt;
+    private int nextOffset; // pass back as ?offset= to receive only results added since this poll
+    private List<OrderBlockResult> results;
+    private List<SymbolError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SymbolError {
+        private String symbol;
+        private String message;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.cryptoscannerbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// The nine OrderBlockDetector tuning parameters, passed as one value through the scan pipeline
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanParameters {
+    private double minBodyRatio = 0.15;
+    private double minPriceChange = 0.0002;
+    private double volumeFactor = 0.5;
+    private boolean requireBOS = true;
+    private boolean requireC3ClosePastC2 = true;
+    private boolean requireFVG = true;
+    private boolean requireUnmitigated = true;
+    private double minFvgDepthRatio = 0.0;
+
+    public static final String SCHEDULED_PRESET = "scheduled";
+    public static final String DEFAULT_PRESET = "default";
+
+    // Defaults used by the scheduled background scan (can be different from frontend defaults)
+    public static ScanParameters scheduledDefaults() {
+        return new ScanParameters(0.15, 0.0005, 0.6, true, true, true, true, 0.05);
+    }
+
+    // Stable text form: equal parameter sets always produce the same string (0.5 and 0.50, 0.0 and -0.0)
+    public String canonicalForm() {
+        return canonical(minBodyRatio) + "|" + canonical(minPriceChange) + "|" + canonical(volumeFactor)
+                + "|" + requireBOS + "|" + requireC3ClosePastC2 + "|" + requireFVG + "|" + requireUnmitigated
+                + "|" + canonical(minFvgDepthRatio);
+    }
+
+    // Short name for grouping stored results: "scheduled", "default", or "custom-<hash>" for any other combination
+    public String presetKey() {
+        String form = canonicalForm();
+        if (form.equals(scheduledDefaults().canonicalForm())) {
+            return SCHEDULED_PRESET;
+        }
+        if (form.equals(new ScanParameters().canonicalForm())) {
+            return DEFAULT_PRESET;
+        }
+        return "custom-" + Integer.toHexString(form.hashCode());
+    }
+
+    // The presets every interval keeps one snapshot of; "custom-<hash>" ones come and go with user scans
+    public static boolean isCanonicalPreset(String preset) {
+        return SCHEDULED_PRESET.equals(preset) || DEFAULT_PRESET.equals(preset);
+    }
+
+    private static String canonical(double value) {
+        return BigDecimal.valueOf(value == 0.0 ? 0.0 : value).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.cryptoscannerbackend.model;
+
+// Scheduling priority of a scan; premium scans are dispatched ahead of trial scans
+public enum ScanTier {
+    PREMIUM,
+    TRIAL
+}
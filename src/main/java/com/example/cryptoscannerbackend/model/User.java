@@ -11,25 +11,37 @@ import java.util.Set;
 import com.example.cryptoscannerbackend.model.ERole;
 
 @Entity
-@Table(name = "users")
+// Named so a duplicate signup can be reported by the constraint it hit (see AuthService)
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+}, indexes = {
+        // Keyset pages of the admin listing filtered by tier or trial expiry
+        @Index(name = "idx_users_premium_id", columnList = "is_premium, id"),
+        @Index(name = "idx_users_trial_end_id", columnList = "trial_end_date, id")
+})
 @Data
 @NoArgsConstructor
 public class User {
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
     private String password;
 
     @ElementCollection(targetClass = ERole.class, fetch = FetchType.EAGER) // Corrected: removed 'main.'
-    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
+    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_user_roles_user_id", columnList = "user_id"))
     @Enumerated(EnumType.STRING)
     @Column(name = "role")
     private Set<ERole> roles = new HashSet<>(); // Corrected: removed 'main.'
@@ -0,0 +1,21 @@
+package com.example.cryptoscannerbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// Admin listing row: the user's columns and roles without the password hash or a managed entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private Long id;
+    private String username;
+    private String email;
+    private boolean premium;
+    private LocalDateTime trialEndDate;
+    private Set<ERole> roles;
+}
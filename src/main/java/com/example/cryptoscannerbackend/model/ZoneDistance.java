@@ -0,0 +1,19 @@
+package com.example.cryptoscannerbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row of the closest-to-zone ranking
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ZoneDistance {
+    private String symbol;
+    private String timeframe;
+    private String orderBlockType;
+    private double obZoneStart;
+    private double obZoneEnd;
+    private double currentPrice;
+    private double distancePct; // 0 when price is inside the zone
+}
@@ -0,0 +1,35 @@
+package com.example.cryptoscannerbackend.repository;
+
+import com.example.cryptoscannerbackend.model.EntitlementChange;
+import com.example.cryptoscannerbackend.model.UserSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+
+    String TIER_PREMIUM = "premium";
+    String TIER_TRIAL = "trial";
+    String TIER_FREE = "free";
+
+    /**
+     * One page of users ordered by id, starting after {@code afterId} (keyset cursor, null for the first page).
+     * Users and their roles come back in a single query. {@code tier} is premium, trial, free or null for all;
+     * {@code trialExpiresBefore} keeps only active trials ending before that time.
+     */
+    List<UserSummary> findSummaries(String tier, LocalDateTime trialExpiresBefore, Long afterId, int limit, LocalDateTime now);
+
+    // premium / trial / free counts from one grouped query
+    Map<String, Long> countByTier(LocalDateTime now);
+
+    // id -> username of the users matching the given usernames (null = any) and the same filters as findSummaries
+    Map<Long, String> findIdsByFilter(Collection<String> usernames, String tier, LocalDateTime trialExpiresBefore, LocalDateTime now);
+
+    /**
+     * Applies the change to all given users with set-based statements: one UPDATE of users, one DELETE and one
+     * INSERT ... SELECT on user_roles per chunk of ids. Must run inside a transaction. Returns the updated row count.
+     */
+    int applyEntitlementChange(Collection<Long> ids, EntitlementChange change);
+}
@@ -0,0 +1,193 @@
+package com.example.cryptoscannerbackend.repository;
+
+import com.example.cryptoscannerbackend.model.ERole;
+import com.example.cryptoscannerbackend.model.EntitlementChange;
+import com.example.cryptoscannerbackend.model.UserSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Native queries for the admin listing and bulk entitlement changes; the WHERE clause only contains the filters in use so each shape can use its index
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String TIER_EXPRESSION =
+            "CASE WHEN u.is_premium THEN '" + TIER_PREMIUM + "' WHEN u.trial_end_date > :now THEN '" + TIER_TRIAL + "' ELSE '" + TIER_FREE + "' END";
+
+    // Keeps IN lists well below driver and planner limits
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UserSummary> findSummaries(String tier, LocalDateTime trialExpiresBefore, Long afterId, int limit, LocalDateTime now) {
+        Filter filter = new Filter(null, tier, trialExpiresBefore, afterId);
+        String where = filter.where();
+
+        // The page is cut in the inner query so the roles join can't shorten it
+        String sql = "SELECT p.id, p.username, p.email, p.is_premium, p.trial_end_date, r.role"
+                + " FROM (SELECT u.id, u.username, u.email, u.is_premium, u.trial_end_date FROM users u "
+                + where + " ORDER BY u.id LIMIT :limit) p"
+                + " LEFT JOIN user_roles r ON r.user_id = p.id"
+                + " ORDER BY p.id";
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("limit", limit);
+        filter.bind(query, now);
+
+        List<UserSummary> summaries = new ArrayList<>();
+        UserSummary current = null;
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            long id = ((Number) row[0]).longValue();
+            if (current == null || current.getId() != id) {
+                current = new UserSummary(id, (String) row[1], (String) row[2], Boolean.TRUE.equals(row[3]),
+                        toLocalDateTime(row[4]), EnumSet.noneOf(ERole.class));
+                summaries.add(current);
+            }
+            if (row[5] != null) {
+                current.getRoles().add(ERole.valueOf((String) row[5]));
+            }
+        }
+        return summaries;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> countByTier(LocalDateTime now) {
+        Query query = entityManager.createNativeQuery(
+                "SELECT t.tier, COUNT(*) FROM (SELECT " + TIER_EXPRESSION + " AS tier FROM users u) t GROUP BY t.tier");
+        query.setParameter("now", now);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put(TIER_PREMIUM, 0L);
+        counts.put(TIER_TRIAL, 0L);
+        counts.put(TIER_FREE, 0L);
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Long, String> findIdsByFilter(Collection<String> usernames, String tier, LocalDateTime trialExpiresBefore, LocalDateTime now) {
+        Filter filter = new Filter(usernames, tier, trialExpiresBefore, null);
+        Query query = entityManager.createNativeQuery("SELECT u.id, u.username FROM users u " + filter.where() + " ORDER BY u.id");
+        filter.bind(query, now);
+
+        Map<Long, String> ids = new LinkedHashMap<>();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            ids.put(((Number) row[0]).longValue(), (String) row[1]);
+        }
+        return ids;
+    }
+
+    @Override
+    public int applyEntitlementChange(Collection<Long> ids, EntitlementChange change) {
+        List<String> removed = change.getRolesToRemove().stream().map(Enum::name).collect(Collectors.toList());
+        List<Long> all = new ArrayList<>(ids);
+        int updated = 0;
+        for (int from = 0; from < all.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = all.subList(from, Math.min(all.size(), from + ID_CHUNK_SIZE));
+
+            // Typed binding so a null trial date is still sent as a timestamp
+            NativeQuery<?> update = entityManager.createNativeQuery("UPDATE users SET is_premium = :premium, trial_end_date = :trialEnd"
+                    + (change.isUpdateTrialStart() ? ", trial_start_date = :trialStart" : "") + " WHERE id IN (:ids)").unwrap(NativeQuery.class);
+            update.setParameter("premium", change.isPremium());
+            update.setParameter("trialEnd", change.getTrialEndDate(), LocalDateTime.class);
+            if (change.isUpdateTrialStart()) {
+                update.setParameter("trialStart", change.getTrialStartDate(), LocalDateTime.class);
+            }
+            update.setParameter("ids", chunk);
+            updated += update.executeUpdate();
+
+            if (!removed.isEmpty()) {
+                entityManager.createNativeQuery("DELETE FROM user_roles WHERE user_id IN (:ids) AND role IN (:roles)")
+                        .setParameter("ids", chunk)
+                        .setParameter("roles", removed)
+                        .executeUpdate();
+            }
+            for (ERole role : change.getRolesToAdd()) {
+                entityManager.createNativeQuery("INSERT INTO user_roles (user_id, role) SELECT u.id, :role FROM users u"
+                                + " WHERE u.id IN (:ids) AND NOT EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = u.id AND r.role = :role)")
+                        .setParameter("role", role.name())
+                        .setParameter("ids", chunk)
+                        .executeUpdate();
+            }
+        }
+        return updated;
+    }
+
+    // WHERE clause shared by the listing and the bulk target lookup; only the filters in use are added
+    private static final class Filter {
+        private final Collection<String> usernames;
+        private final String tier;
+        private final LocalDateTime trialExpiresBefore;
+        private final Long afterId;
+        private boolean needsNow;
+
+        Filter(Collection<String> usernames, String tier, LocalDateTime trialExpiresBefore, Long afterId) {
+            this.usernames = usernames;
+            this.tier = tier;
+            this.trialExpiresBefore = trialExpiresBefore;
+            this.afterId = afterId;
+        }
+
+        String where() {
+            StringBuilder where = new StringBuilder("WHERE 1 = 1");
+            if (usernames != null) {
+                where.append(" AND u.username IN (:usernames)");
+            }
+            if (afterId != null) {
+                where.append(" AND u.id > :afterId");
+            }
+            if (TIER_PREMIUM.equals(tier)) {
+                where.append(" AND u.is_premium = TRUE");
+            } else if (TIER_TRIAL.equals(tier)) {
+                where.append(" AND u.is_premium = FALSE AND u.trial_end_date > :now");
+                needsNow = true;
+            } else if (TIER_FREE.equals(tier)) {
+                where.append(" AND u.is_premium = FALSE AND (u.trial_end_date IS NULL OR u.trial_end_date <= :now)");
+                needsNow = true;
+            }
+            if (trialExpiresBefore != null) {
+                where.append(" AND u.trial_end_date > :now AND u.trial_end_date < :trialExpiresBefore");
+                needsNow = true;
+            }
+            return where.toString();
+        }
+
+        void bind(Query query, LocalDateTime now) {
+            if (usernames != null) {
+                query.setParameter("usernames", usernames);
+            }
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+            if (needsNow) {
+                query.setParameter("now", now);
+            }
+            if (trialExpiresBefore != null) {
+                query.setParameter("trialExpiresBefore", trialExpiresBefore);
+            }
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -2,9 +2,15 @@ package com.example.cryptoscannerbackend.security;
 
 import com.example.cryptoscannerbackend.security.jwt.AuthTokenFilter;
 import com.example.cryptoscannerbackend.security.services.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -35,9 +41,20 @@ public class WebSecurityConfig {
     @Autowired
     private HandlerMappingIntrospector introspector;
 
+    @Autowired
+    @Qualifier("passwordExecutor")
+    private AsyncTaskExecutor passwordExecutor;
+
+    @Value("${auth.password.timeout-ms:5000}")
+    private long passwordTimeoutMs;
+
+    @Value("${auth.password.retry-after-seconds:2}")
+    private long passwordRetryAfterSeconds;
+
+    // BCrypt runs on the bounded password pool, both for registration and for the login check
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordExecutor, passwordTimeoutMs, passwordRetryAfterSeconds);
     }
 
     @Bean
@@ -65,11 +82,19 @@ public class WebSecurityConfig {
 
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (SSE, deferred results) re-enter the chain after the original request was authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(mvcMatcherBuilder.pattern("/api/auth/**")).permitAll()
                         .requestMatchers(mvcMatcherBuilder.pattern("/api/health")).permitAll()
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
                         // REMOVED: .requestMatchers(mvcMatcherBuilder.pattern("/h2-console/**")).permitAll()
                         // This is now handled by webSecurityCustomizer() above, which is stronger
                         .requestMatchers(mvcMatcherBuilder.pattern("/api/scan-order-blocks")).hasAnyRole("TRIAL", "PREMIUM")
+                        .requestMatchers(mvcMatcherBuilder.pattern("/api/scan-order-blocks/stream")).hasAnyRole("TRIAL", "PREMIUM")
+                        .requestMatchers(mvcMatcherBuilder.pattern("/api/scan-jobs/**")).hasAnyRole("TRIAL", "PREMIUM")
+                        .requestMatchers(mvcMatcherBuilder.pattern("/api/results/**")).hasAnyRole("TRIAL", "PREMIUM")
+                        .requestMatchers(mvcMatcherBuilder.pattern("/api/alerts/**")).hasAnyRole("TRIAL", "PREMIUM")
                         .requestMatchers(mvcMatcherBuilder.pattern("/api/user/status")).authenticated()
                         .requestMatchers(mvcMatcherBuilder.pattern("/api/payment/submit-proof")).authenticated()
                         .requestMatchers(mvcMatcherBuilder.pattern("/api/admin/**")).hasRole("ADMIN")
@@ -1,6 +1,8 @@
 package com.example.cryptoscannerbackend.security.jwt;
 
-import com.example.cryptoscannerbackend.security.services.UserDetailsServiceImpl;
+import com.example.cryptoscannerbackend.security.services.UserDetailsImpl;
+import com.example.cryptoscannerbackend.service.EntitlementCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,17 +25,23 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private EntitlementCache entitlementCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                // Spring Security will load authorities based on username via UserDetailsService
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // One verification per request (and none for a token already verified): all claims come back together
+            Claims claims = jwt != null ? jwtUtils.parseVerifiedClaims(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
+                // Authorities come from the entitlement cache, so most requests don't touch the database
+                EntitlementCache.Entitlement entitlement = entitlementCache.get(username);
+                if (entitlement == null) {
+                    throw new UsernameNotFoundException("User Not Found with username: " + username);
+                }
+                UserDetails userDetails = UserDetailsImpl.build(entitlement);
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -6,14 +6,24 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SecurityException;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 @Component
@@ -25,7 +35,25 @@ public class JwtUtils {
     @Value("${app.jwt.expiration-ms}")
     private int jwtExpirationMs;
 
-    private Key key;
+    @Value("${app.jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    private SecretKey key;
+    // Immutable and thread-safe once built, so one instance serves every request
+    private JwtParser parser;
+
+    // SHA-256 of the token -> its verified claims, kept until the token expires
+    private final ConcurrentMap<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
 
     @PostConstruct
     public void init() {
@@ -33,8 +61,9 @@ public class JwtUtils {
             this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
         } else {
             System.err.println("WARNING: JWT secret key is not configured or is too short. Using a temporary, insecure key.");
-            this.key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+            this.key = Jwts.SIG.HS512.key().build();
         }
+        this.parser = Jwts.parser().verifyWith(key).build();
     }
 
     public String generateJwtToken(Authentication authentication) {
@@ -52,31 +81,70 @@ public class JwtUtils {
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns all of its claims, or null if it is invalid or expired. A token that
+     * was verified before is answered from the cache by its digest until its own expiry, so repeat requests
+     * (polling and SSE clients) skip the HMAC check entirely.
+     */
+    public Claims parseVerifiedClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            System.err.println("JWT claims string is empty");
+            return null;
+        }
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                cacheHits.increment();
+                return cached.claims;
+            }
+            verifiedTokens.remove(digest, cached);
+        }
+        cacheMisses.increment();
+
+        Claims claims = parse(token);
+        if (claims != null && claims.getExpiration() != null) {
+            verifiedTokens.put(digest, new VerifiedToken(claims, claims.getExpiration().getTime()));
+            if (verifiedTokens.size() > cacheMaxEntries) {
+                trim(now);
+            }
+        }
+        return claims;
+    }
+
     public String getUserNameFromJwtToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+        Claims claims = parseVerifiedClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public List<String> getRolesFromJwtToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("roles", List.class);
+        Claims claims = parseVerifiedClaims(token);
+        return claims != null ? claims.get("roles", List.class) : null;
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseVerifiedClaims(authToken) != null;
+    }
+
+    // Drops tokens that have expired since they were cached
+    @Scheduled(fixedDelayString = "${app.jwt.cache.sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        verifiedTokens.values().removeIf(verified -> verified.expiresAt <= now);
+    }
+
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", verifiedTokens.size());
+        stats.put("hits", cacheHits.sum());
+        stats.put("misses", cacheMisses.sum());
+        return stats;
+    }
+
+    private Claims parse(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(key)
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            return parser.parseSignedClaims(token).getPayload();
         } catch (SecurityException e) {
             System.err.println("Invalid JWT signature: " + e.getMessage());
         } catch (MalformedJwtException e) {
@@ -88,6 +156,31 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             System.err.println("JWT claims string is empty: " + e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    private void trim(long now) {
+        verifiedTokens.values().removeIf(verified -> verified.expiresAt <= now);
+        Iterator<String> it = verifiedTokens.keySet().iterator();
+        while (verifiedTokens.size() > cacheMaxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static final class VerifiedToken {
+        final Claims claims;
+        final long expiresAt;
+
+        VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
     }
 }
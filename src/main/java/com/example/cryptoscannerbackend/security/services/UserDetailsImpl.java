@@ -1,6 +1,7 @@
 package com.example.cryptoscannerbackend.security.services;
 
 import com.example.cryptoscannerbackend.model.User;
+import com.example.cryptoscannerbackend.service.EntitlementCache;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -41,6 +42,20 @@ public class UserDetailsImpl implements UserDetails {
                 authorities);
     }
 
+    // Token-authenticated principal built from cached entitlements; the password hash is never needed after login
+    public static UserDetailsImpl build(EntitlementCache.Entitlement entitlement) {
+        List<GrantedAuthority> authorities = entitlement.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(role.name()))
+                .collect(Collectors.toList());
+
+        return new UserDetailsImpl(
+                entitlement.getId(),
+                entitlement.getUsername(),
+                entitlement.getEmail(),
+                null,
+                authorities);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -4,7 +4,9 @@ import com.example.cryptoscannerbackend.model.ERole;
 import com.example.cryptoscannerbackend.model.User;
 import com.example.cryptoscannerbackend.repository.UserRepository;
 import com.example.cryptoscannerbackend.security.jwt.JwtUtils;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -32,27 +34,27 @@ public class AuthService {
     JwtUtils jwtUtils;
 
     @Autowired
-    private UserService userService;
+    private LoginThrottle loginThrottle;
 
-    public User registerUser(String username, String email, String password, String plan) {
-        if (userRepository.existsByUsername(username)) {
-            throw new RuntimeException("Error: Username is already taken!");
-        }
-        if (userRepository.existsByEmail(email)) {
-            throw new RuntimeException("Error: Email is already in use!");
-        }
+    public User registerUser(String username, String email, String password, String plan, String clientIp) {
+        loginThrottle.acquire(clientIp, null);
 
+        // The row is inserted once with its final roles and trial dates; uniqueness is left to the
+        // database constraints instead of racy exists-checks beforehand
         User user = new User(username, email, encoder.encode(password));
-
+        user.setPremium(false);
         if ("trial".equalsIgnoreCase(plan)) {
-            user = userRepository.save(user);
-            userService.activateTrial(user.getUsername(), 3);
-        } else if ("premium".equalsIgnoreCase(plan)) {
-            user.setPremium(false);
-            userRepository.save(user);
-        } else {
-            user.setPremium(false);
-            userRepository.save(user);
+            int trialDays = 3;
+            LocalDateTime now = LocalDateTime.now();
+            user.setTrialStartDate(now);
+            user.setTrialEndDate(now.plusDays(trialDays));
+            Set<ERole> roles = user.getRoles();
+            roles.add(ERole.ROLE_TRIAL);
+            roles.remove(ERole.ROLE_USER);
+        }
+        user = insert(user);
+        if (user.getTrialEndDate() != null) {
+            System.out.println("Activated 3-day trial for user: " + username);
         }
         return user;
     }
@@ -60,13 +62,6 @@ public class AuthService {
     // TEMPORARY METHOD FOR ADMIN REGISTRATION - REMOVE AFTER FIRST ADMIN IS CREATED
 
         public User registerAdmin(String username, String email, String password) {
-            if (userRepository.existsByUsername(username)) {
-                throw new RuntimeException("Error: Username is already taken!");
-            }
-            if (userRepository.existsByEmail(email)) {
-                throw new RuntimeException("Error: Email is already in use!");
-            }
-
             User adminUser = new User(username, email, encoder.encode(password));
             Set<ERole> roles = adminUser.getRoles();
             roles.add(ERole.ROLE_ADMIN);
@@ -75,11 +70,40 @@ public class AuthService {
             adminUser.setTrialStartDate(null);
             adminUser.setTrialEndDate(null);
 
-            return userRepository.save(adminUser);
+            return insert(adminUser);
+        }
+
+    // Maps a unique-constraint violation back to the messages the signup form already shows. Databases created
+    // before the constraints were named keep Hibernate's generated uk... names, so an unrecognised name falls back
+    // to the column in the driver's message and then to an exists check; the raw SQL error is never returned.
+    private User insert(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String constraint = e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    ? violation.getConstraintName().toLowerCase() : "";
+            String detail = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+            if (constraint.contains(User.EMAIL_CONSTRAINT) || detail.contains(User.EMAIL_CONSTRAINT) || detail.contains("(email)")) {
+                throw new RuntimeException("Error: Email is already in use!");
+            }
+            if (constraint.contains(User.USERNAME_CONSTRAINT) || detail.contains(User.USERNAME_CONSTRAINT) || detail.contains("(username)")) {
+                throw new RuntimeException("Error: Username is already taken!");
+            }
+            if (userRepository.existsByEmail(user.getEmail())) {
+                throw new RuntimeException("Error: Email is already in use!");
+            }
+            if (userRepository.existsByUsername(user.getUsername())) {
+                throw new RuntimeException("Error: Username is already taken!");
+            }
+            System.err.println("Signup for " + user.getUsername() + " failed: " + e.getMostSpecificCause().getMessage());
+            throw new RuntimeException("Error: The account could not be created.");
         }
+    }
 
 
-    public String authenticateUser(String username, String password) {
+    public String authenticateUser(String username, String password, String clientIp) {
+        // Throttled before the password check so rejected attempts never reach BCrypt
+        loginThrottle.acquire(clientIp, username);
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(username, password));
 
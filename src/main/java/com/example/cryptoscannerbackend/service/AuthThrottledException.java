@@ -0,0 +1,16 @@
+package com.example.cryptoscannerbackend.service;
+
+// Thrown when a login or registration is refused because of throttling or a saturated password-hashing pool
+public class AuthThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AuthThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -8,18 +8,26 @@ import lombok.Data;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+/**
+ * Live {@link MarketDataSource}: the Binance USD-M futures REST API at binance.futures.base.url. Successful response
+ * bodies are handed to the {@link MarketDataRecorder}, which keeps them when recording is enabled.
+ */
 @Service
-public class BinanceApiClient {
+public class BinanceApiClient implements MarketDataSource {
 
     @Value("${binance.futures.base.url}")
     private String futuresBaseUrl;
@@ -30,56 +38,34 @@ public class BinanceApiClient {
             .build();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Autowired
+    private ScanMetrics scanMetrics;
+    @Autowired
+    private MarketDataRecorder marketDataRecorder;
+
+    // Binance request weight of the ticker endpoints when called without a symbol
+    private static final int TICKER_24HR_WEIGHT = 40;
+    private static final int TICKER_PRICE_WEIGHT = 2;
+    private static final String USED_WEIGHT_HEADER = "X-MBX-USED-WEIGHT-1M";
+
+    @Override
     public List<CoinData> getTopVolumeFuturesCoins(int limit) throws IOException {
         String url = String.format("%s/fapi/v1/ticker/24hr", futuresBaseUrl);
         System.out.println("Fetching top volume coins from URL: " + url);
         Request request = new Request.Builder().url(url).build();
 
+        long start = System.nanoTime();
         try (Response response = client.newCall(request).execute()) {
+            scanMetrics.recordUpstream("ticker.24hr", TICKER_24HR_WEIGHT, response.header(USED_WEIGHT_HEADER));
             if (!response.isSuccessful()) {
                 String errorBody = response.body() != null ? response.body().string() : "No error body.";
                 System.err.println("Failed to fetch 24hr ticker: " + response.code() + " " + response.message() + " | Body: " + errorBody);
                 throw new IOException("Failed to fetch 24hr ticker: " + response.code() + " " + response.message());
             }
             String responseBody = response.body().string();
+            marketDataRecorder.record("ticker.24hr", "", System.nanoTime() - start, responseBody);
             System.out.println("Raw 24hr Ticker Response (first 500 chars): " + responseBody.substring(0, Math.min(responseBody.length(), 500)) + "...");
-
-            JsonNode rootNode = objectMapper.readTree(responseBody);
-            List<CoinData> highVolumeCoins = new ArrayList<>();
-            int processedCount = 0;
-            for (JsonNode node : rootNode) {
-                try {
-                    String symbol = node.get("symbol").asText();
-                    double volume = node.get("quoteVolume").asDouble();
-                    double currentPrice = node.get("lastPrice").asDouble();
-
-                    boolean isUsdtPair = symbol.endsWith("USDT");
-                    boolean isPerpetualContract = node.has("contractType") && "PERPETUAL".equals(node.get("contractType").asText());
-                    boolean isContractTypeMissing = !node.has("contractType"); // Some older symbols might not have this field
-
-                    if (isUsdtPair && (isPerpetualContract || isContractTypeMissing)) {
-                        CoinData coin = new CoinData();
-                        coin.setId(symbol);
-                        coin.setName(symbol.replace("USDT", ""));
-                        coin.setCurrentPrice(currentPrice);
-                        coin.setVolume(formatVolume(volume));
-                        highVolumeCoins.add(coin);
-                        processedCount++;
-                    } else {
-                        // System.out.println("  DEBUG: Skipping " + symbol + " - isUsdtPair: " + isUsdtPair + ", isPerpetualContract: " + isPerpetualContract + ", isContractTypeMissing: " + isContractTypeMissing);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error parsing ticker data for a symbol: " + node.toString() + " | Error:  " + e.getMessage());
-                }
-            }
-            System.out.println("Finished processing ticker data. Found " + processedCount + " USDT Perpetual Futures symbols before sorting/limiting.");
-
-            return highVolumeCoins.stream()
-                    // Corrected: Explicitly cast 'c' to CoinData
-                    .sorted(Comparator.comparingDouble(c -> parseVolumeString(((CoinData) c).getVolume())).reversed())
-                    .limit(limit)
-                    .collect(Collectors.toList());
-
+            return parseTopVolumeCoins(objectMapper, responseBody, limit);
         } catch (okhttp3.internal.http2.StreamResetException e) {
             System.err.println("StreamResetException: This often indicates a network issue or server side problem. " + e.getMessage());
             throw new IOException("Network connection issue with Binance API.", e);
@@ -89,37 +75,141 @@ public class BinanceApiClient {
         }
     }
 
+    @Override
     public List<Candlestick> getCandlestickData(String symbol, String interval, int limit) throws IOException {
-        String url = String.format("%s/fapi/v1/klines?symbol=%s&interval=%s&limit=%d", futuresBaseUrl, symbol, interval, limit);
-        System.out.println("  Fetching klines for " + symbol + " (" + interval + ") from URL: " + url);
+        String query = String.format("symbol=%s&interval=%s&limit=%d", symbol, interval, limit);
+        System.out.println("  Fetching klines for " + symbol + " (" + interval + ") from URL: " + futuresBaseUrl + "/fapi/v1/klines?" + query);
+        return fetchCandlesticks(symbol, interval, limit, query);
+    }
+
+    // Candles opening at or after startTime; used to top up cached candles (small limits also cost less request weight)
+    @Override
+    public List<Candlestick> getCandlestickData(String symbol, String interval, int limit, long startTime) throws IOException {
+        String query = String.format("symbol=%s&interval=%s&limit=%d&startTime=%d", symbol, interval, limit, startTime);
+        return fetchCandlesticks(symbol, interval, limit, query);
+    }
 
+    // The request (until the body is read) and the parsing are timed as separate scan stages
+    private List<Candlestick> fetchCandlesticks(String symbol, String interval, int limit, String query) throws IOException {
         Request request = new Request.Builder()
-                .url(url)
+                .url(futuresBaseUrl + "/fapi/v1/klines?" + query)
                 .build();
 
+        long start = System.nanoTime();
         try (Response response = client.newCall(request).execute()) {
+            scanMetrics.recordUpstream("klines", ScanMetrics.klinesWeight(limit), response.header(USED_WEIGHT_HEADER));
             if (!response.isSuccessful()) {
                 String errorBody = response.body() != null ? response.body().string() : "No error body.";
                 System.err.println("Failed to fetch klines for " + symbol + ": " + response.code() + " " + response.message() + " | Body: " + errorBody);
                 throw new IOException("Failed to fetch klines for " + symbol + ": " + response.code() + " " + response.message());
             }
             String responseBody = response.body().string();
-            JsonNode rootNode = objectMapper.readTree(responseBody);
-            List<Candlestick> candlesticks = new ArrayList<>();
-            for (JsonNode node : rootNode) {
-                candlesticks.add(new Candlestick(
-                        node.get(0).asLong(),
-                        node.get(1).asDouble(),
-                        node.get(2).asDouble(),
-                        node.get(3).asDouble(),
-                        node.get(4).asDouble(),
-                        node.get(5).asDouble()
-                ));
-            }
+            long fetched = System.nanoTime();
+            scanMetrics.recordStage(ScanMetrics.Stage.KLINES_FETCH, interval, fetched - start);
+            marketDataRecorder.record("klines", query, fetched - start, responseBody);
+            List<Candlestick> candlesticks = parseCandlesticks(objectMapper, responseBody);
+            scanMetrics.recordStage(ScanMetrics.Stage.KLINES_PARSE, interval, System.nanoTime() - fetched);
             return candlesticks;
         }
     }
 
+    // Last price of every futures symbol in one request (weight 2), used for price ticks between scans
+    @Override
+    public Map<String, Double> getTickerPrices() throws IOException {
+        String url = String.format("%s/fapi/v1/ticker/price", futuresBaseUrl);
+        Request request = new Request.Builder().url(url).build();
+
+        long start = System.nanoTime();
+        try (Response response = client.newCall(request).execute()) {
+            scanMetrics.recordUpstream("ticker.price", TICKER_PRICE_WEIGHT, response.header(USED_WEIGHT_HEADER));
+            if (!response.isSuccessful()) {
+                throw new IOException("Failed to fetch ticker prices: " + response.code() + " " + response.message());
+            }
+            String responseBody = response.body().string();
+            marketDataRecorder.record("ticker.price", "", System.nanoTime() - start, responseBody);
+            return parseTickerPrices(objectMapper, responseBody);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("source", "live");
+        stats.put("baseUrl", futuresBaseUrl);
+        stats.put("recording", marketDataRecorder.getStats());
+        return stats;
+    }
+
+    // Response parsing is kept static and separate from the HTTP calls so it can be benchmarked on fixed payloads
+
+    // USDT perpetuals from a /fapi/v1/ticker/24hr payload, highest quote volume first
+    static List<CoinData> parseTopVolumeCoins(ObjectMapper objectMapper, String responseBody, int limit) throws IOException {
+        JsonNode rootNode = objectMapper.readTree(responseBody);
+        List<CoinData> highVolumeCoins = new ArrayList<>();
+        int processedCount = 0;
+        for (JsonNode node : rootNode) {
+            try {
+                String symbol = node.get("symbol").asText();
+                double volume = node.get("quoteVolume").asDouble();
+                double currentPrice = node.get("lastPrice").asDouble();
+
+                boolean isUsdtPair = symbol.endsWith("USDT");
+                boolean isPerpetualContract = node.has("contractType") && "PERPETUAL".equals(node.get("contractType").asText());
+                boolean isContractTypeMissing = !node.has("contractType"); // Some older symbols might not have this field
+
+                if (isUsdtPair && (isPerpetualContract || isContractTypeMissing)) {
+                    CoinData coin = new CoinData();
+                    coin.setId(symbol);
+                    coin.setName(symbol.replace("USDT", ""));
+                    coin.setCurrentPrice(currentPrice);
+                    coin.setVolume(formatVolume(volume));
+                    highVolumeCoins.add(coin);
+                    processedCount++;
+                } else {
+                    // System.out.println("  DEBUG: Skipping " + symbol + " - isUsdtPair: " + isUsdtPair + ", isPerpetualContract: " + isPerpetualContract + ", isContractTypeMissing: " + isContractTypeMissing);
+                }
+            } catch (Exception e) {
+                System.err.println("Error parsing ticker data for a symbol: " + node.toString() + " | Error:  " + e.getMessage());
+            }
+        }
+        System.out.println("Finished processing ticker data. Found " + processedCount + " USDT Perpetual Futures symbols before sorting/limiting.");
+
+        return highVolumeCoins.stream()
+                // Corrected: Explicitly cast 'c' to CoinData
+                .sorted(Comparator.comparingDouble(c -> parseVolumeString(((CoinData) c).getVolume())).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    // Candles from a /fapi/v1/klines payload: [openTime, open, high, low, close, volume, ...] per row
+    static List<Candlestick> parseCandlesticks(ObjectMapper objectMapper, String responseBody) throws IOException {
+        JsonNode rootNode = objectMapper.readTree(responseBody);
+        List<Candlestick> candlesticks = new ArrayList<>();
+        for (JsonNode node : rootNode) {
+            candlesticks.add(new Candlestick(
+                    node.get(0).asLong(),
+                    node.get(1).asDouble(),
+                    node.get(2).asDouble(),
+                    node.get(3).asDouble(),
+                    node.get(4).asDouble(),
+                    node.get(5).asDouble()
+            ));
+        }
+        return candlesticks;
+    }
+
+    // Symbol -> last price from a /fapi/v1/ticker/price payload
+    static Map<String, Double> parseTickerPrices(ObjectMapper objectMapper, String responseBody) throws IOException {
+        JsonNode rootNode = objectMapper.readTree(responseBody);
+        Map<String, Double> prices = new HashMap<>(rootNode.size() * 2);
+        for (JsonNode node : rootNode) {
+            if (node.hasNonNull("symbol") && node.hasNonNull("price")) {
+                prices.put(node.get("symbol").asText(), node.get("price").asDouble());
+            }
+        }
+        return prices;
+    }
+
     private static String formatVolume(double volume) {
         if (volume >= 1_000_000_000) {
             return String.format("%.1fB", volume / 1_000_000_000);
@@ -131,7 +221,7 @@ public class BinanceApiClient {
         return String.format("%.0f", volume);
     }
 
-    private static double parseVolumeString(String volumeStr) {
+    static double parseVolumeString(String volumeStr) {
         volumeStr = volumeStr.toUpperCase();
         if (volumeStr.endsWith("B")) {
             return Double.parseDouble(volumeStr.replace("B", "")) * 1_000_000_000;
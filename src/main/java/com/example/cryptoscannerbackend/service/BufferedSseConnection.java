@@ -0,0 +1,103 @@
+package com.example.cryptoscannerbackend.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An SSE connection with a bounded outbound buffer drained on a shared executor, so producers never
+ * block on a slow client. When the buffer overflows or a send fails the connection is closed and
+ * {@code onClose} runs; clients are expected to reconnect and resync.
+ */
+class BufferedSseConnection {
+
+    // Marker queued behind the last real event by completeAfterDrain()
+    private static final SseEmitter.SseEventBuilder COMPLETE = SseEmitter.event();
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+    private final Executor sendExecutor;
+    private final Runnable onClose;
+    private final String description;
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    BufferedSseConnection(SseEmitter emitter, int bufferSize, Executor sendExecutor, Runnable onClose, String description) {
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.sendExecutor = sendExecutor;
+        this.onClose = onClose;
+        this.description = description;
+        emitter.onCompletion(this::markClosed);
+        emitter.onTimeout(this::markClosed);
+        emitter.onError(e -> markClosed());
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    void enqueue(SseEmitter.SseEventBuilder event) {
+        if (closed.get()) {
+            return;
+        }
+        if (!buffer.offer(event)) {
+            System.out.println("SSE connection " + description + " is too slow (buffer full), disconnecting.");
+            markClosed();
+            emitter.complete();
+            return;
+        }
+        scheduleDrain();
+    }
+
+    // Sends everything already buffered, then completes the emitter
+    void completeAfterDrain() {
+        enqueue(COMPLETE);
+    }
+
+    void close() {
+        markClosed();
+        emitter.complete();
+    }
+
+    private void markClosed() {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            onClose.run();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            sendExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!closed.get() && !buffer.isEmpty()) {
+                SseEmitter.SseEventBuilder event = buffer.poll();
+                if (event == null) {
+                    break; // cleared by a concurrent close
+                }
+                if (event == COMPLETE) {
+                    close();
+                    return;
+                }
+                emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            markClosed();
+            emitter.completeWithError(e);
+        } finally {
+            draining.set(false);
+            if (!closed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
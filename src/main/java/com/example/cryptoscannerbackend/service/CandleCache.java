@@ -0,0 +1,134 @@
+package com.example.cryptoscannerbackend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Last candles per (symbol, interval). A request with cached candles only fetches what is missing: the last
+ * cached candle (it may still have been open) and every candle after it. Series too far behind, or not cached
+ * at all, are fetched in full. The contents can be exported and restored for the warm-start snapshot.
+ */
+@Service
+public class CandleCache {
+
+    @Autowired
+    private MarketDataSource marketDataSource;
+    @Autowired
+    private ScanMetrics scanMetrics;
+
+    @Value("${scan.candles.max-per-series:200}")
+    private int maxPerSeries;
+
+    @Value("${scan.candles.max-series:2000}")
+    private int maxSeries;
+
+    private final ConcurrentMap<String, List<BinanceApiClient.Candlestick>> series = new ConcurrentHashMap<>();
+    private final LongAdder fullFetches = new LongAdder();
+    private final LongAdder incrementalFetches = new LongAdder();
+    private final LongAdder candlesFetched = new LongAdder();
+
+    public List<BinanceApiClient.Candlestick> getCandles(String symbol, String interval, int limit) throws IOException {
+        String key = key(symbol, interval);
+        List<BinanceApiClient.Candlestick> cached = series.get(key);
+        long intervalMs = fixedIntervalMillis(interval);
+        if (cached == null || cached.size() < limit || intervalMs <= 0) {
+            return store(key, fetchFull(symbol, interval, limit), limit);
+        }
+
+        long lastOpen = cached.get(cached.size() - 1).getOpenTime();
+        long missing = (System.currentTimeMillis() - lastOpen) / intervalMs + 1; // the last cached candle is refetched too
+        if (missing >= limit) {
+            return store(key, fetchFull(symbol, interval, limit), limit);
+        }
+        List<BinanceApiClient.Candlestick> fresh = marketDataSource.getCandlestickData(symbol, interval, (int) missing + 1, lastOpen);
+        incrementalFetches.increment();
+        scanMetrics.recordCandleFetch(true, fresh != null ? fresh.size() : 0);
+        if (fresh == null || fresh.isEmpty()) {
+            return cached.subList(cached.size() - limit, cached.size());
+        }
+        candlesFetched.add(fresh.size());
+
+        long firstFresh = fresh.get(0).getOpenTime();
+        List<BinanceApiClient.Candlestick> merged = new ArrayList<>(cached.size() + fresh.size());
+        for (BinanceApiClient.Candlestick candle : cached) {
+            if (candle.getOpenTime() < firstFresh) {
+                merged.add(candle);
+            }
+        }
+        merged.addAll(fresh);
+        return store(key, merged, limit);
+    }
+
+    public Map<String, List<BinanceApiClient.Candlestick>> export() {
+        return Map.copyOf(series);
+    }
+
+    // Restored series only fill gaps; anything fetched since boot is newer and wins
+    public void restore(String symbol, String interval, List<BinanceApiClient.Candlestick> candles) {
+        if (!candles.isEmpty() && series.size() < maxSeries) {
+            series.putIfAbsent(key(symbol, interval), Collections.unmodifiableList(new ArrayList<>(candles)));
+        }
+    }
+
+    public static String symbolOf(String key) {
+        return key.substring(0, key.indexOf('|'));
+    }
+
+    public static String intervalOf(String key) {
+        return key.substring(key.indexOf('|') + 1);
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "series", series.size(),
+                "fullFetches", fullFetches.sum(),
+                "incrementalFetches", incrementalFetches.sum(),
+                "candlesFetched", candlesFetched.sum());
+    }
+
+    private List<BinanceApiClient.Candlestick> fetchFull(String symbol, String interval, int limit) throws IOException {
+        List<BinanceApiClient.Candlestick> candles = marketDataSource.getCandlestickData(symbol, interval, limit);
+        fullFetches.increment();
+        scanMetrics.recordCandleFetch(false, candles != null ? candles.size() : 0);
+        if (candles != null) {
+            candlesFetched.add(candles.size());
+        }
+        return candles;
+    }
+
+    private List<BinanceApiClient.Candlestick> store(String key, List<BinanceApiClient.Candlestick> candles, int limit) {
+        if (candles == null || candles.isEmpty()) {
+            return candles;
+        }
+        int keep = Math.max(limit, maxPerSeries);
+        List<BinanceApiClient.Candlestick> trimmed = Collections.unmodifiableList(
+                new ArrayList<>(candles.subList(Math.max(0, candles.size() - keep), candles.size())));
+        if (series.size() < maxSeries || series.containsKey(key)) {
+            series.put(key, trimmed);
+        }
+        return trimmed.subList(Math.max(0, trimmed.size() - limit), trimmed.size());
+    }
+
+    // Monthly (and unknown) intervals have no fixed length; those series are always fetched in full
+    private static long fixedIntervalMillis(String interval) {
+        try {
+            return ScanResultCache.intervalMillis(interval);
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    private static String key(String symbol, String interval) {
+        return symbol + "|" + interval;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.ERole;
+import com.example.cryptoscannerbackend.model.User;
+import com.example.cryptoscannerbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived in-memory copy of what each user is entitled to (roles, premium flag, trial end), so the JWT
+ * filter and the per-endpoint tier checks don't query the users table on every request. Entries expire after
+ * the TTL and are dropped immediately by {@link #invalidate(String)} whenever {@link UserService} changes a
+ * user's plan. Trial expiry is evaluated at read time, so a cached entry never extends a trial.
+ */
+@Service
+public class EntitlementCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${security.entitlements.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${security.entitlements.max-entries:10000}")
+    private int maxEntries;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped on every invalidation; a load that overlapped one is not kept, so it can't reinstate old data
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** Returns the user's entitlements, loading them from the database on a miss; null if the user doesn't exist. */
+    public Entitlement get(String username) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(username);
+        if (entry != null && now - entry.loadedAt <= ttlMs) {
+            hits.increment();
+            return entry.entitlement;
+        }
+        misses.increment();
+
+        long epoch = invalidations.get();
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            entries.remove(username);
+            return null;
+        }
+        Entitlement entitlement = Entitlement.of(user);
+        Entry loaded = new Entry(entitlement, now);
+        entries.put(username, loaded);
+        if (invalidations.get() != epoch) {
+            entries.remove(username, loaded);
+        }
+        if (entries.size() > maxEntries) {
+            trim(now);
+        }
+        return entitlement;
+    }
+
+    public void invalidate(String username) {
+        invalidations.incrementAndGet();
+        entries.remove(username);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("ttlMs", ttlMs);
+        return stats;
+    }
+
+    // Drop expired entries first; if that isn't enough, drop arbitrary ones down to the bound
+    private void trim(long now) {
+        entries.values().removeIf(entry -> {
+            boolean expired = now - entry.loadedAt > ttlMs;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+        final Entitlement entitlement;
+        final long loadedAt;
+
+        Entry(Entitlement entitlement, long loadedAt) {
+            this.entitlement = entitlement;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /** Immutable snapshot of the fields authorization depends on. */
+    public static final class Entitlement {
+        private final Long id;
+        private final String username;
+        private final String email;
+        private final Set<ERole> roles;
+        private final boolean premium;
+        private final LocalDateTime trialEndDate;
+
+        private Entitlement(Long id, String username, String email, Set<ERole> roles, boolean premium, LocalDateTime trialEndDate) {
+            this.id = id;
+            this.username = username;
+            this.email = email;
+            this.roles = roles;
+            this.premium = premium;
+            this.trialEndDate = trialEndDate;
+        }
+
+        static Entitlement of(User user) {
+            Set<ERole> roles = user.getRoles().isEmpty() ? EnumSet.noneOf(ERole.class) : EnumSet.copyOf(user.getRoles());
+            return new Entitlement(user.getId(), user.getUsername(), user.getEmail(),
+                    Collections.unmodifiableSet(roles), user.isPremium(), user.getTrialEndDate());
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public Set<ERole> getRoles() {
+            return roles;
+        }
+
+        public boolean isPremium() {
+            return premium;
+        }
+
+        public LocalDateTime getTrialEndDate() {
+            return trialEndDate;
+        }
+
+        public boolean isTrialActive() {
+            return trialEndDate != null && trialEndDate.isAfter(LocalDateTime.now());
+        }
+    }
+}
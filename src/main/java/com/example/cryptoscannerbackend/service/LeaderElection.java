@@ -0,0 +1,210 @@
+package com.example.cryptoscannerbackend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lease-based leader election over the shared database, so that with several instances exactly one runs the
+ * precompute cycle (see {@link ScanScheduler}). The leader renews its row in scan_leader_lease every renew interval;
+ * a node that finds the lease expired takes it over with a compare-and-set on the epoch, which also serves as the
+ * fencing token for the leader's writes. Expiry is judged by the database clock, so node clocks don't need to agree.
+ * A leader that can't renew stops acting as leader when its lease runs out, before anyone else can take over; a
+ * follower takes over at most one renew interval after that. With scan.leader.enabled=false (the default) every
+ * node is its own leader.
+ */
+@Service
+public class LeaderElection {
+
+    static final String TABLE = "scan_leader_lease";
+    static final String LEASE = "precompute";
+    private static final int CREATE_ATTEMPTS = 3;
+    private static final long CREATE_RETRY_MS = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${scan.leader.enabled:false}")
+    private boolean enabled;
+
+    @Value("${scan.leader.lease-ms:15000}")
+    private long leaseMs;
+
+    @Value("${scan.leader.node-id:}")
+    private String nodeId;
+
+    // Epoch of the lease while this node holds it, 0 otherwise
+    private volatile long epoch;
+    // Local (monotonic) deadline of the current lease; never later than the expiry the other nodes see
+    private volatile long leaderUntilNanos;
+    private volatile String holder;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder losses = new LongAdder();
+    private final LongAdder renewFailures = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        if (!enabled) {
+            return;
+        }
+        createTableIfMissing(jdbcTemplate, "CREATE TABLE IF NOT EXISTS " + TABLE + " (name VARCHAR(64) PRIMARY KEY,"
+                + " holder VARCHAR(128) NOT NULL, epoch BIGINT NOT NULL, expires_at BIGINT NOT NULL, renewed_at BIGINT NOT NULL)");
+        try {
+            jdbcTemplate.update("INSERT INTO " + TABLE + " (name, holder, epoch, expires_at, renewed_at) VALUES (?, '', 0, 0, 0)", LEASE);
+        } catch (DuplicateKeyException e) {
+            // another node created it first
+        }
+        System.out.println("Leader election enabled for node " + nodeId + " (lease " + leaseMs + " ms).");
+        renew();
+    }
+
+    public boolean isLeader() {
+        return !enabled || (epoch != 0 && System.nanoTime() - leaderUntilNanos < 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Fencing token for writes made as leader; 0 when not leading
+    public long getEpoch() {
+        return isLeader() ? epoch : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${scan.leader.renew-ms:5000}", initialDelayString = "${scan.leader.renew-ms:5000}")
+    public void renew() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            long now = databaseTime();
+            long held = epoch;
+            if (held != 0) {
+                int renewed = jdbcTemplate.update("UPDATE " + TABLE + " SET expires_at = ?, renewed_at = ? WHERE name = ? AND holder = ? AND epoch = ?",
+                        now + leaseMs, now, LEASE, nodeId, held);
+                if (renewed == 1) {
+                    leaderUntilNanos = started + TimeUnit.MILLISECONDS.toNanos(leaseMs);
+                    return;
+                }
+                epoch = 0;
+                losses.increment();
+                System.err.println("Node " + nodeId + " lost the precompute lease (epoch " + held + ").");
+            }
+
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT holder, epoch, expires_at FROM " + TABLE + " WHERE name = ?", LEASE);
+            if (rows.isEmpty()) {
+                return;
+            }
+            Map<String, Object> row = rows.get(0);
+            holder = (String) row.get("holder");
+            long current = ((Number) row.get("epoch")).longValue();
+            if (((Number) row.get("expires_at")).longValue() >= now) {
+                return;
+            }
+            // Expired (or released): only one node can move the epoch on from the value it read
+            int taken = jdbcTemplate.update("UPDATE " + TABLE + " SET holder = ?, epoch = ?, expires_at = ?, renewed_at = ? WHERE name = ? AND epoch = ?",
+                    nodeId, current + 1, now + leaseMs, now, LEASE, current);
+            if (taken == 1) {
+                leaderUntilNanos = started + TimeUnit.MILLISECONDS.toNanos(leaseMs);
+                epoch = current + 1;
+                holder = nodeId;
+                acquisitions.increment();
+                System.out.println("Node " + nodeId + " is now the precompute leader (epoch " + epoch + ").");
+            }
+        } catch (DataAccessException e) {
+            // A leader keeps leading until its local deadline and then steps down on its own
+            renewFailures.increment();
+            System.err.println("Precompute lease renewal failed on node " + nodeId + ": " + e.getMessage());
+        }
+    }
+
+    // Hands the lease over straight away on a clean shutdown instead of letting it run out
+    @PreDestroy
+    public void release() {
+        long held = epoch;
+        if (!enabled || held == 0) {
+            return;
+        }
+        epoch = 0;
+        try {
+            jdbcTemplate.update("UPDATE " + TABLE + " SET expires_at = 0 WHERE name = ? AND holder = ? AND epoch = ?", LEASE, nodeId, held);
+            System.out.println("Node " + nodeId + " released the precompute lease (epoch " + held + ").");
+        } catch (DataAccessException e) {
+            System.err.println("Failed to release the precompute lease: " + e.getMessage());
+        }
+    }
+
+    // Nodes starting together can race on CREATE TABLE/INDEX IF NOT EXISTS: on Postgres the loser fails with a unique
+    // violation (pg_type, pg_class) instead of skipping. By the next attempt the winner's object exists and the DDL
+    // is a no-op. Used for every shared table created at startup.
+    static void createTableIfMissing(JdbcTemplate jdbcTemplate, String ddl) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.execute(ddl);
+                return;
+            } catch (DataAccessException e) {
+                if (attempt >= CREATE_ATTEMPTS) {
+                    throw e;
+                }
+                System.err.println("Creating a shared table failed (attempt " + attempt + "), retrying: " + e.getMessage());
+                try {
+                    Thread.sleep(CREATE_RETRY_MS * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    long databaseTime() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class).getTime();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("nodeId", nodeId);
+        stats.put("leader", isLeader());
+        stats.put("epoch", epoch);
+        stats.put("holder", holder);
+        stats.put("leaseMs", leaseMs);
+        stats.put("acquisitions", acquisitions.sum());
+        stats.put("losses", losses.sum());
+        stats.put("renewFailures", renewFailures.sum());
+        return stats;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+}
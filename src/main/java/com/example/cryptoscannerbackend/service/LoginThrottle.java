@@ -0,0 +1,105 @@
+package com.example.cryptoscannerbackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket throttling of login and registration attempts per client IP and per username. It is checked
+ * before any password is hashed, so a flood from one address or against one account is refused cheaply with
+ * {@link AuthThrottledException} instead of occupying the password-hashing pool.
+ */
+@Service
+public class LoginThrottle {
+
+    @Value("${auth.throttle.per-ip-per-minute:30}")
+    private int perIpPerMinute;
+
+    @Value("${auth.throttle.per-ip-burst:10}")
+    private int perIpBurst;
+
+    @Value("${auth.throttle.per-username-per-minute:10}")
+    private int perUsernamePerMinute;
+
+    @Value("${auth.throttle.per-username-burst:5}")
+    private int perUsernameBurst;
+
+    private final ConcurrentMap<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Bucket> usernameBuckets = new ConcurrentHashMap<>();
+    private final LongAdder throttled = new LongAdder();
+
+    public void acquire(String clientIp, String username) {
+        long now = System.nanoTime();
+        if (clientIp != null) {
+            take(ipBuckets, clientIp, perIpBurst, perIpPerMinute, now);
+        }
+        if (username != null && !username.isBlank()) {
+            take(usernameBuckets, username.toLowerCase(), perUsernameBurst, perUsernamePerMinute, now);
+        }
+    }
+
+    // Buckets that have refilled completely carry no state worth keeping
+    @Scheduled(fixedDelayString = "${auth.throttle.cleanup-ms:300000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        usernameBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedIps", ipBuckets.size());
+        stats.put("trackedUsernames", usernameBuckets.size());
+        stats.put("throttled", throttled.sum());
+        return stats;
+    }
+
+    private void take(ConcurrentMap<String, Bucket> buckets, String key, int burst, int perMinute, long now) {
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(burst, perMinute, now));
+        long waitSeconds = bucket.tryTake(now);
+        if (waitSeconds > 0) {
+            throttled.increment();
+            throw new AuthThrottledException("Too many attempts. Please retry in " + waitSeconds + " seconds.", waitSeconds);
+        }
+    }
+
+    private static final class Bucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(int capacity, int perMinute, long now) {
+            this.capacity = Math.max(1, capacity);
+            this.tokensPerNano = Math.max(1, perMinute) / 60_000_000_000.0;
+            this.tokens = this.capacity;
+            this.lastRefill = now;
+        }
+
+        // Returns 0 when a token was taken, otherwise the whole seconds until the next one is available
+        synchronized long tryTake(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano / 1_000_000_000.0));
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Captures the raw upstream responses the live {@link BinanceApiClient} receives, so a session can be served again
+ * by {@link ReplayMarketDataSource}. Each run writes one gzip-compressed file of JSON lines (arrival time, endpoint,
+ * query, request latency and body). Every record is sync-flushed, so a file cut short by a crash still replays up
+ * to its last complete line. Off unless scan.market-data.record.enabled=true.
+ */
+@Service
+public class MarketDataRecorder {
+
+    static final String FILE_SUFFIX = ".jsonl.gz";
+
+    @Value("${scan.market-data.record.enabled:false}")
+    private boolean enabled;
+
+    @Value("${scan.market-data.record.dir:${java.io.tmpdir}/ccscanner-recordings}")
+    private String dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Writer writer;
+    private Path file;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder bodyBytes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path directory = Paths.get(dir);
+        Files.createDirectories(directory);
+        file = directory.resolve("market-data-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + FILE_SUFFIX);
+        writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024, true), StandardCharsets.UTF_8), 64 * 1024);
+        System.out.println("Recording market data to " + file);
+    }
+
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    // query is the request's query string as sent upstream (empty for the ticker endpoints)
+    public void record(String endpoint, String query, long latencyNanos, String body) {
+        if (writer == null) {
+            return;
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("at", System.currentTimeMillis());
+        line.put("endpoint", endpoint);
+        line.put("query", query);
+        line.put("latencyMicros", latencyNanos / 1_000);
+        line.put("body", body);
+        try {
+            String json = objectMapper.writeValueAsString(line);
+            synchronized (this) {
+                if (writer == null) {
+                    return;
+                }
+                writer.write(json);
+                writer.write('\n');
+                writer.flush();
+            }
+            recorded.increment();
+            bodyBytes.add(body.length());
+        } catch (IOException e) {
+            failures.increment();
+            System.err.println("Failed to record " + endpoint + " response: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+            System.out.println("Recorded " + recorded.sum() + " market data responses to " + file);
+        } catch (IOException e) {
+            System.err.println("Failed to close market data recording " + file + ": " + e.getMessage());
+        }
+        writer = null;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("file", file != null ? file.toString() : null);
+        stats.put("recorded", recorded.sum());
+        stats.put("bodyBytes", bodyBytes.sum());
+        stats.put("compressedBytes", compressedSize());
+        stats.put("failures", failures.sum());
+        return stats;
+    }
+
+    private long compressedSize() {
+        try {
+            return file != null ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
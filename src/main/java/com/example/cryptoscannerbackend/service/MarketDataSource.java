@@ -0,0 +1,29 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.CoinData;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ticker and kline retrieval for the scan pipeline. {@link BinanceApiClient} is the live source (and records what
+ * it receives when scan.market-data.record.enabled is set); {@link ReplayMarketDataSource} serves a recording
+ * instead when scan.market-data.source=replay.
+ */
+public interface MarketDataSource {
+
+    // USDT perpetuals, highest quote volume first
+    List<CoinData> getTopVolumeFuturesCoins(int limit) throws IOException;
+
+    // The last `limit` candles, the newest possibly still open
+    List<BinanceApiClient.Candlestick> getCandlestickData(String symbol, String interval, int limit) throws IOException;
+
+    // At most `limit` candles opening at or after startTime
+    List<BinanceApiClient.Candlestick> getCandlestickData(String symbol, String interval, int limit, long startTime) throws IOException;
+
+    // Symbol -> last price for every futures symbol
+    Map<String, Double> getTickerPrices() throws IOException;
+
+    Map<String, Object> getStats();
+}
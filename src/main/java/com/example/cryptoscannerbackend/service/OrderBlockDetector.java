@@ -38,20 +38,7 @@ public class OrderBlockDetector {
             return defaultResult;
         }
 
-        List<Double> volumes = klines.stream()
-                .mapToDouble(BinanceApiClient.Candlestick::getVolume)
-                .boxed()
-                .sorted()
-                .collect(Collectors.toList());
-        double medianVolume = 0.0;
-        if (!volumes.isEmpty()) {
-            if (volumes.size() % 2 == 1) {
-                medianVolume = volumes.get(volumes.size() / 2);
-            } else {
-                medianVolume = (volumes.get(volumes.size() / 2 - 1) + volumes.get(volumes.size() / 2)) / 2.0;
-            }
-        }
-
+        double medianVolume = medianVolume(klines);
 
         for (int i = klines.size() - 1; i >= WINDOW_SIZE - 1; i--) {
             // C0, C1, C2, C3, C4... (from oldest to newest in the window)
@@ -213,7 +200,25 @@ public class OrderBlockDetector {
         return priceChange > minPriceChange && bodyRatio > minBodyRatio;
     }
 
-    private boolean isUnmitigated(List<BinanceApiClient.Candlestick> klines, int impulsiveCandleIndex, BinanceApiClient.Candlestick obCandidateCandle, boolean isBullish) {
+    // Median volume over the whole series; the OB candidate's volume is compared against it
+    static double medianVolume(List<BinanceApiClient.Candlestick> klines) {
+        List<Double> volumes = klines.stream()
+                .mapToDouble(BinanceApiClient.Candlestick::getVolume)
+                .boxed()
+                .sorted()
+                .collect(Collectors.toList());
+        double medianVolume = 0.0;
+        if (!volumes.isEmpty()) {
+            if (volumes.size() % 2 == 1) {
+                medianVolume = volumes.get(volumes.size() / 2);
+            } else {
+                medianVolume = (volumes.get(volumes.size() / 2 - 1) + volumes.get(volumes.size() / 2)) / 2.0;
+            }
+        }
+        return medianVolume;
+    }
+
+    static boolean isUnmitigated(List<BinanceApiClient.Candlestick> klines, int impulsiveCandleIndex, BinanceApiClient.Candlestick obCandidateCandle, boolean isBullish) {
         double obZoneStart;
         double obZoneEnd;
 
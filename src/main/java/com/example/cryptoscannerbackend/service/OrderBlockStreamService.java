@@ -0,0 +1,174 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fans the result of one precompute cycle out to every SSE subscriber of that interval.
+ * Each connection has its own bounded buffer drained on a shared pool, so a slow client
+ * never holds up the scan thread or the other subscribers; a client whose buffer overflows
+ * is disconnected and gets a fresh snapshot when it reconnects.
+ */
+@Service
+public class OrderBlockStreamService {
+
+    @Value("${scan.stream.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${scan.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    private final ExecutorService sendExecutor = Executors.newFixedThreadPool(4, r -> {
+        Thread t = new Thread(r, "ob-stream-sender");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ConcurrentMap<String, Set<Subscriber>> subscribersByInterval = new ConcurrentHashMap<>();
+
+    // Last published cycle per interval, in volume-rank order, used to compute change sets
+    private final ConcurrentMap<String, List<OrderBlockResult>> lastPublished = new ConcurrentHashMap<>();
+
+    // Every subscribed interval is scanned each precompute cycle, so only Binance intervals are accepted
+    public SseEmitter subscribe(String interval, int coinLimit, String username) {
+        ScanIntervals.requireSupported(interval);
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(interval, coinLimit, username);
+        subscriber.connection = new BufferedSseConnection(emitter, bufferSize, sendExecutor,
+                () -> remove(subscriber), username + " on " + interval);
+
+        Set<Subscriber> subscribers = subscribersByInterval.computeIfAbsent(interval, k -> ConcurrentHashMap.newKeySet());
+        subscribers.add(subscriber);
+
+        List<OrderBlockResult> snapshot = lastPublished.getOrDefault(interval, Collections.emptyList());
+        subscriber.enqueue(SseEmitter.event().name("snapshot").data(limit(snapshot, coinLimit), MediaType.APPLICATION_JSON));
+        System.out.println("SSE subscriber " + username + " connected for " + interval + " (" + subscribers.size() + " on this interval).");
+        return emitter;
+    }
+
+    public Set<String> getSubscribedIntervals() {
+        Set<String> intervals = ConcurrentHashMap.newKeySet();
+        subscribersByInterval.forEach((interval, subscribers) -> {
+            if (!subscribers.isEmpty()) {
+                intervals.add(interval);
+            }
+        });
+        return intervals;
+    }
+
+    /**
+     * Publishes a finished precompute cycle. Only entries whose detected order block changed
+     * since the previous cycle are pushed; trial subscribers only see symbols within their coin limit.
+     */
+    public void publishCycle(String interval, List<OrderBlockResult> results) {
+        List<OrderBlockResult> previous = lastPublished.put(interval, List.copyOf(results));
+        Map<String, OrderBlockResult> previousBySymbol = new HashMap<>();
+        if (previous != null) {
+            for (OrderBlockResult result : previous) {
+                previousBySymbol.put(result.getId(), result);
+            }
+        }
+
+        // Changed entries paired with their volume rank in this cycle
+        List<OrderBlockResult> changed = new ArrayList<>();
+        List<Integer> changedRanks = new ArrayList<>();
+        for (int rank = 0; rank < results.size(); rank++) {
+            OrderBlockResult current = results.get(rank);
+            if (hasChanged(previousBySymbol.get(current.getId()), current)) {
+                changed.add(current);
+                changedRanks.add(rank);
+            }
+        }
+
+        Set<Subscriber> subscribers = subscribersByInterval.get(interval);
+        if (changed.isEmpty() || subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        System.out.println("Publishing " + changed.size() + " changed order blocks for " + interval + " to " + subscribers.size() + " subscribers.");
+
+        // One payload per distinct coin limit, shared by every subscriber with that limit
+        Map<Integer, List<OrderBlockResult>> payloadByLimit = new HashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            List<OrderBlockResult> payload = payloadByLimit.computeIfAbsent(subscriber.coinLimit, limit -> {
+                List<OrderBlockResult> visible = new ArrayList<>();
+                for (int i = 0; i < changed.size(); i++) {
+                    if (changedRanks.get(i) < limit) {
+                        visible.add(changed.get(i));
+                    }
+                }
+                return visible;
+            });
+            if (!payload.isEmpty()) {
+                subscriber.enqueue(SseEmitter.event().name("changes").data(payload, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    // Comment frames keep idle connections alive through proxies and load balancers
+    @Scheduled(fixedRateString = "${scan.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        subscribersByInterval.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> subscriber.enqueue(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribersByInterval.values().forEach(subscribers -> subscribers.forEach(s -> s.connection.close()));
+        sendExecutor.shutdownNow();
+    }
+
+    private static boolean hasChanged(OrderBlockResult previous, OrderBlockResult current) {
+        if (previous == null) {
+            return true;
+        }
+        return !Objects.equals(previous.getOrderBlockType(), current.getOrderBlockType())
+                || !Objects.equals(previous.getOrderBlockPrice(), current.getOrderBlockPrice())
+                || !Objects.equals(previous.getObZoneStart(), current.getObZoneStart())
+                || !Objects.equals(previous.getObZoneEnd(), current.getObZoneEnd());
+    }
+
+    private static List<OrderBlockResult> limit(List<OrderBlockResult> results, int coinLimit) {
+        return results.size() <= coinLimit ? results : results.subList(0, coinLimit);
+    }
+
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> subscribers = subscribersByInterval.get(subscriber.interval);
+        if (subscribers != null && subscribers.remove(subscriber)) {
+            System.out.println("SSE subscriber " + subscriber.username + " disconnected from " + subscriber.interval + ".");
+        }
+    }
+
+    private static class Subscriber {
+        private final String interval;
+        private final int coinLimit;
+        private final String username;
+        private BufferedSseConnection connection;
+
+        Subscriber(String interval, int coinLimit, String username) {
+            this.interval = interval;
+            this.coinLimit = coinLimit;
+            this.username = username;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            connection.enqueue(event);
+        }
+    }
+}
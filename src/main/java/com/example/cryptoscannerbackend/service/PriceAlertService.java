@@ -0,0 +1,458 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.AlertCondition;
+import com.example.cryptoscannerbackend.model.AlertEvent;
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Matches price ticks against the order block zones of published scans and fires user alerts such as
+ * "price within 1% of a bullish 4h zone". Per tick and symbol only the zones within reach of the widest
+ * registered threshold are visited (bullish zones are kept sorted by upper bound, bearish ones by lower
+ * bound), and for each zone the alerts that fire are a suffix of a threshold-sorted array found by binary
+ * search, so the cost does not grow with the number of alerts that stay quiet. Registering or removing an
+ * alert only rebuilds its own group. Each alert fires at most once per zone; zones that price trades through
+ * are marked mitigated and dropped from the index.
+ */
+@Service
+public class PriceAlertService implements PriceTickListener {
+
+    public static final String ANY_TYPE = "any";
+    private static final String ALL_SYMBOLS = "*";
+
+    @Value("${scan.alerts.max-per-user:50}")
+    private int maxAlertsPerUser;
+
+    @Value("${scan.alerts.max-pending-per-user:100}")
+    private int maxPendingPerUser;
+
+    @Value("${scan.alerts.stream-buffer-size:64}")
+    private int streamBufferSize;
+
+    @Value("${scan.alerts.stream-timeout-ms:0}")
+    private long streamTimeoutMs;
+
+    private final AtomicLong alertIds = new AtomicLong();
+    private final ConcurrentMap<Long, AlertCondition> alerts = new ConcurrentHashMap<>();
+    private final Map<String, Integer> alertCounts = new HashMap<>(); // per user, guarded by this
+    private final AlertIndex alertIndex = new AlertIndex();
+
+    private final ConcurrentMap<String, SymbolZones> zonesBySymbol = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Double> lastPrices = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Inbox> inboxes = new ConcurrentHashMap<>();
+
+    private final ExecutorService sendExecutor = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "alert-sender");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Registers a condition and evaluates it against the last known prices. Returns empty when the user
+     * already has the maximum number of alerts; throws IllegalArgumentException for an invalid condition.
+     */
+    public Optional<AlertCondition> register(String username, String symbol, String interval, String zoneType, double withinPct) {
+        String type = zoneType == null ? ANY_TYPE : zoneType.toLowerCase();
+        if (!type.equals("bullish") && !type.equals("bearish") && !type.equals(ANY_TYPE)) {
+            throw new IllegalArgumentException("zoneType must be bullish, bearish or any");
+        }
+        if (!(withinPct >= 0 && withinPct <= 50)) {
+            throw new IllegalArgumentException("withinPct must be between 0 and 50");
+        }
+        ScanIntervals.requireSupported(interval); // an alert on an interval that is never scanned could never fire
+        String normalizedSymbol = symbol == null || symbol.isBlank() ? null : symbol.toUpperCase();
+
+        AlertCondition alert;
+        synchronized (this) {
+            if (alertCounts.getOrDefault(username, 0) >= maxAlertsPerUser) {
+                return Optional.empty();
+            }
+            alert = new AlertCondition(alertIds.incrementAndGet(), username, normalizedSymbol, interval, type, withinPct, System.currentTimeMillis());
+            alerts.put(alert.getId(), alert);
+            alertCounts.merge(username, 1, Integer::sum);
+            alertIndex.add(alert);
+        }
+
+        // A new condition may already hold for the current price
+        Collection<String> symbols = normalizedSymbol != null ? List.of(normalizedSymbol) : zonesBySymbol.keySet();
+        for (String s : symbols) {
+            Double price = lastPrices.get(s);
+            if (price != null) {
+                evaluate(s, price, alertIndex);
+            }
+        }
+        return Optional.of(alert);
+    }
+
+    public List<AlertCondition> list(String username) {
+        return alerts.values().stream()
+                .filter(a -> a.getUsername().equals(username))
+                .sorted(Comparator.comparingLong(AlertCondition::getId))
+                .collect(Collectors.toList());
+    }
+
+    public synchronized boolean remove(String username, long alertId) {
+        AlertCondition alert = alerts.get(alertId);
+        if (alert == null || !alert.getUsername().equals(username)) {
+            return false;
+        }
+        alerts.remove(alertId);
+        alertCounts.computeIfPresent(username, (k, n) -> n > 1 ? n - 1 : null);
+        alertIndex.remove(alert);
+        return true;
+    }
+
+    // Triggered alerts not yet delivered over a stream; each is returned exactly once
+    public List<AlertEvent> drainTriggered(String username) {
+        Inbox inbox = inboxes.get(username);
+        if (inbox == null) {
+            return List.of();
+        }
+        synchronized (inbox) {
+            List<AlertEvent> events = new ArrayList<>(inbox.pending);
+            inbox.pending.clear();
+            return events;
+        }
+    }
+
+    // Pending alerts are flushed to the new stream, later ones are pushed as "alert" events
+    public SseEmitter stream(String username) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Inbox inbox = inboxes.computeIfAbsent(username, k -> new Inbox());
+        BufferedSseConnection[] holder = new BufferedSseConnection[1];
+        holder[0] = new BufferedSseConnection(emitter, streamBufferSize, sendExecutor, () -> {
+            synchronized (inbox) {
+                inbox.connections.remove(holder[0]);
+            }
+        }, username + " on alerts");
+        synchronized (inbox) {
+            for (AlertEvent event : inbox.pending) {
+                holder[0].enqueue(alertEvent(event));
+            }
+            inbox.pending.clear();
+            inbox.connections.add(holder[0]);
+        }
+        return emitter;
+    }
+
+    /**
+     * Replaces the zones contributed by one (interval, preset) scan. A zone found again by a later scan keeps
+     * its identity, so alerts that already fired on it do not fire again.
+     */
+    public void onResultsPublished(String interval, String preset, Collection<OrderBlockResult> results) {
+        String source = interval + "|" + preset;
+        for (OrderBlockResult result : results) {
+            if (result.getId() == null) {
+                continue;
+            }
+            SymbolZones zones = zonesBySymbol.computeIfAbsent(result.getId(), k -> new SymbolZones());
+            synchronized (zones) {
+                Zone zone = Zone.of(result);
+                if (zone == null) {
+                    zones.bySource.remove(source);
+                } else {
+                    Zone existing = zones.find(zone.key);
+                    zones.bySource.put(source, existing != null ? existing : zone);
+                }
+                zones.rebuild();
+            }
+            Double price = lastPrices.get(result.getId());
+            if (price != null) {
+                evaluate(result.getId(), price, alertIndex);
+            }
+        }
+    }
+
+    @Override
+    public void onPriceTicks(Map<String, Double> prices) {
+        prices.forEach((symbol, price) -> {
+            lastPrices.put(symbol, price);
+            if (!alertIndex.isEmpty()) {
+                evaluate(symbol, price, alertIndex);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        inboxes.values().forEach(inbox -> {
+            synchronized (inbox) {
+                new ArrayList<>(inbox.connections).forEach(BufferedSseConnection::close);
+            }
+        });
+        sendExecutor.shutdownNow();
+    }
+
+    private void evaluate(String symbol, double price, AlertIndex idx) {
+        SymbolZones zones = zonesBySymbol.get(symbol);
+        if (zones == null || idx.isEmpty()) {
+            return;
+        }
+        double reach = idx.maxWithinPct / 100.0;
+        boolean mitigatedAny = false;
+
+        // Bullish zones sit below price: only those with upper >= price * (1 - reach) can match, and any zone
+        // price has fallen below is in the same range, so visited zones are either in reach or just mitigated
+        ZoneIndex index = zones.index;
+        for (int i = lowerBound(index.bullishUppers, price * (1 - reach)); i < index.bullishByUpper.length; i++) {
+            mitigatedAny |= match(index.bullishByUpper[i], price, idx);
+        }
+        // Mirror image for bearish zones above price, sorted by lower bound
+        for (int i = 0, end = upperBound(index.bearishLowers, price * (1 + reach)); i < end; i++) {
+            mitigatedAny |= match(index.bearishByLower[i], price, idx);
+        }
+
+        if (mitigatedAny) {
+            synchronized (zones) {
+                zones.rebuild(); // drop mitigated zones so later ticks never visit them
+            }
+        }
+    }
+
+    // Returns true when price has traded through the zone, which mitigates it instead of firing
+    private boolean match(Zone zone, double price, AlertIndex idx) {
+        if (zone.mitigated) {
+            return false;
+        }
+        if (zone.bullish ? price < zone.lower : price > zone.upper) {
+            zone.mitigated = true;
+            return true;
+        }
+        double distance = price > zone.upper ? (price - zone.upper) / price * 100.0
+                : price < zone.lower ? (zone.lower - price) / price * 100.0 : 0.0;
+        for (String groupKey : zone.groupKeys) {
+            AlertGroup group = idx.groups.get(groupKey);
+            if (group != null) {
+                fire(group, zone, price, distance);
+            }
+        }
+        return false;
+    }
+
+    // Every alert whose threshold is at least the distance fires; thresholds are sorted ascending
+    private void fire(AlertGroup group, Zone zone, double price, double distance) {
+        for (int j = lowerBound(group.thresholds, distance); j < group.alerts.length; j++) {
+            AlertCondition alert = group.alerts[j];
+            if (zone.fired.add(alert.getId())) {
+                deliver(alert.getUsername(), new AlertEvent(alert.getId(), zone.symbol, zone.interval, zone.type,
+                        zone.start, zone.end, price, distance, System.currentTimeMillis()));
+            }
+        }
+    }
+
+    private void deliver(String username, AlertEvent event) {
+        Inbox inbox = inboxes.computeIfAbsent(username, k -> new Inbox());
+        synchronized (inbox) {
+            if (!inbox.connections.isEmpty()) {
+                for (BufferedSseConnection connection : inbox.connections) {
+                    connection.enqueue(alertEvent(event));
+                }
+                return;
+            }
+            inbox.pending.addLast(event);
+            while (inbox.pending.size() > maxPendingPerUser) {
+                inbox.pending.pollFirst();
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder alertEvent(AlertEvent event) {
+        return SseEmitter.event().name("alert").data(event, MediaType.APPLICATION_JSON);
+    }
+
+    // Index of the first value strictly greater than the key
+    private static int upperBound(double[] values, double key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Index of the first value greater than or equal to the key
+    private static int lowerBound(double[] values, double key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static String groupKey(String symbol, String interval, String type) {
+        return symbol + "|" + interval + "|" + type;
+    }
+
+    private static final class Zone {
+        final String key;
+        final String symbol;
+        final String interval;
+        final String type;
+        final boolean bullish;
+        final double start;
+        final double end;
+        final double lower;
+        final double upper;
+        final String[] groupKeys; // alert groups that can match this zone, precomputed for the tick path
+        final Set<Long> fired = ConcurrentHashMap.newKeySet();
+        volatile boolean mitigated;
+
+        private Zone(String symbol, String interval, String type, double start, double end) {
+            this.symbol = symbol;
+            this.interval = interval;
+            this.type = type;
+            this.bullish = ScanResultStore.BULLISH.equals(type);
+            this.start = start;
+            this.end = end;
+            this.lower = Math.min(start, end);
+            this.upper = Math.max(start, end);
+            this.key = interval + "|" + type + "|" + lower + "|" + upper;
+            String shortType = bullish ? "bullish" : "bearish";
+            this.groupKeys = new String[]{
+                    groupKey(symbol, interval, shortType), groupKey(symbol, interval, ANY_TYPE),
+                    groupKey(ALL_SYMBOLS, interval, shortType), groupKey(ALL_SYMBOLS, interval, ANY_TYPE)
+            };
+        }
+
+        static Zone of(OrderBlockResult result) {
+            String type = result.getOrderBlockType();
+            boolean zoned = ScanResultStore.BULLISH.equals(type) || ScanResultStore.BEARISH.equals(type);
+            if (!zoned || result.getObZoneStart() == null || result.getObZoneEnd() == null) {
+                return null;
+            }
+            return new Zone(result.getId(), result.getTimeframe(), type, result.getObZoneStart(), result.getObZoneEnd());
+        }
+    }
+
+    private static final class SymbolZones {
+        final Map<String, Zone> bySource = new HashMap<>(); // "interval|preset" -> zone, guarded by this
+        volatile ZoneIndex index = new ZoneIndex(new Zone[0], new Zone[0]);
+
+        Zone find(String key) {
+            for (Zone zone : bySource.values()) {
+                if (zone.key.equals(key)) {
+                    return zone;
+                }
+            }
+            return null;
+        }
+
+        // Called under the lock; readers pick up the new index with one volatile read
+        void rebuild() {
+            Zone[] bull = bySource.values().stream().distinct().filter(z -> z.bullish && !z.mitigated)
+                    .sorted(Comparator.comparingDouble((Zone z) -> z.upper)).toArray(Zone[]::new);
+            Zone[] bear = bySource.values().stream().distinct().filter(z -> !z.bullish && !z.mitigated)
+                    .sorted(Comparator.comparingDouble((Zone z) -> z.lower)).toArray(Zone[]::new);
+            index = new ZoneIndex(bull, bear);
+        }
+    }
+
+    // Unmitigated zones of one symbol with their sort keys, immutable once built
+    private static final class ZoneIndex {
+        final Zone[] bullishByUpper;
+        final double[] bullishUppers;
+        final Zone[] bearishByLower;
+        final double[] bearishLowers;
+
+        ZoneIndex(Zone[] bullishByUpper, Zone[] bearishByLower) {
+            this.bullishByUpper = bullishByUpper;
+            this.bullishUppers = Arrays.stream(bullishByUpper).mapToDouble(z -> z.upper).toArray();
+            this.bearishByLower = bearishByLower;
+            this.bearishLowers = Arrays.stream(bearishByLower).mapToDouble(z -> z.lower).toArray();
+        }
+    }
+
+    // Immutable; adding or removing an alert builds a copy of its group only
+    private static final class AlertGroup {
+        final AlertCondition[] alerts;
+        final double[] thresholds;
+
+        private AlertGroup(AlertCondition[] alerts) {
+            this.alerts = alerts;
+            this.thresholds = Arrays.stream(alerts).mapToDouble(AlertCondition::getWithinPct).toArray();
+        }
+
+        static AlertGroup with(AlertGroup group, AlertCondition alert) {
+            AlertCondition[] current = group != null ? group.alerts : new AlertCondition[0];
+            int at = group != null ? upperBound(group.thresholds, alert.getWithinPct()) : 0;
+            AlertCondition[] next = new AlertCondition[current.length + 1];
+            System.arraycopy(current, 0, next, 0, at);
+            next[at] = alert;
+            System.arraycopy(current, at, next, at + 1, current.length - at);
+            return new AlertGroup(next);
+        }
+
+        // Null when the alert was the last one in the group
+        AlertGroup without(AlertCondition alert) {
+            AlertCondition[] next = Arrays.stream(alerts).filter(a -> a.getId() != alert.getId()).toArray(AlertCondition[]::new);
+            return next.length == 0 ? null : new AlertGroup(next);
+        }
+    }
+
+    // Groups are swapped one at a time; ticks read whichever version of each group is current. Mutated under the service lock.
+    private static final class AlertIndex {
+        final ConcurrentMap<String, AlertGroup> groups = new ConcurrentHashMap<>();
+        final TreeMap<Double, Integer> thresholdCounts = new TreeMap<>();
+        volatile double maxWithinPct;
+
+        boolean isEmpty() {
+            return groups.isEmpty();
+        }
+
+        void add(AlertCondition alert) {
+            thresholdCounts.merge(alert.getWithinPct(), 1, Integer::sum);
+            maxWithinPct = thresholdCounts.lastKey(); // widened before the group is visible
+            groups.compute(key(alert), (k, group) -> AlertGroup.with(group, alert));
+        }
+
+        void remove(AlertCondition alert) {
+            groups.computeIfPresent(key(alert), (k, group) -> group.without(alert));
+            thresholdCounts.computeIfPresent(alert.getWithinPct(), (k, n) -> n > 1 ? n - 1 : null);
+            maxWithinPct = thresholdCounts.isEmpty() ? 0.0 : thresholdCounts.lastKey();
+        }
+
+        private static String key(AlertCondition alert) {
+            String symbol = alert.getSymbol() != null ? alert.getSymbol() : ALL_SYMBOLS;
+            return groupKey(symbol, alert.getInterval(), alert.getZoneType());
+        }
+    }
+
+    private static final class Inbox {
+        final ArrayDeque<AlertEvent> pending = new ArrayDeque<>();
+        final List<BufferedSseConnection> connections = new CopyOnWriteArrayList<>(); // a slow client may close itself mid-delivery
+    }
+}
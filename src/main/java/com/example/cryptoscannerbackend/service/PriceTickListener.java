@@ -0,0 +1,9 @@
+package com.example.cryptoscannerbackend.service;
+
+import java.util.Map;
+
+// Receives each batch of last prices (symbol -> price) published by TickerSnapshotService or a price stream
+public interface PriceTickListener {
+
+    void onPriceTicks(Map<String, Double> prices);
+}
@@ -0,0 +1,254 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.CoinData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Serves market data from recordings made by {@link MarketDataRecorder} instead of calling Binance
+ * (scan.market-data.source=replay). Responses go through the same parsing as live ones. Repeated requests cycle
+ * through every response recorded for them, so ticker polls replay their price sequence. A klines request that
+ * was never recorded as such is answered from the latest full recording of that series. With
+ * scan.market-data.replay.timing=original each response is delayed by the latency it had when it was recorded;
+ * the default (full-speed) answers immediately. The source is chosen by a bean condition, which an AOT-processed build
+ * (-Pfast-start) evaluates at build time: the property has no effect when set only at startup there.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "scan.market-data.source", havingValue = "replay")
+public class ReplayMarketDataSource implements MarketDataSource {
+
+    @Autowired
+    private ScanMetrics scanMetrics;
+
+    // A recording file, or a directory whose recordings are loaded in name (i.e. start time) order
+    @Value("${scan.market-data.replay.path}")
+    private String path;
+
+    @Value("${scan.market-data.replay.timing:full-speed}")
+    private String timing;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // endpoint + "?" + query -> responses in recording order
+    private final Map<String, Responses> responses = new HashMap<>();
+    // symbol|interval -> full klines fetches (no startTime), the fallback for requests that weren't recorded
+    private final Map<String, Responses> series = new HashMap<>();
+    private boolean originalTiming;
+    private int files;
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void load() throws IOException {
+        originalTiming = "original".equals(timing);
+        Path source = Paths.get(path);
+        List<Path> recordings;
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> listing = Files.list(source)) {
+                recordings = listing.filter(p -> p.getFileName().toString().endsWith(MarketDataRecorder.FILE_SUFFIX))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        } else {
+            recordings = List.of(source);
+        }
+        int loaded = 0;
+        for (Path recording : recordings) {
+            loaded += read(recording);
+            files++;
+        }
+        if (loaded == 0) {
+            throw new IllegalStateException("No recorded market data in " + source.toAbsolutePath());
+        }
+        System.out.println("Replaying " + loaded + " recorded market data responses from " + files + " file(s) at " + timing + " timing");
+    }
+
+    private int read(Path recording) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(recording), 64 * 1024), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (IOException e) {
+                    break; // last line cut short
+                }
+                String endpoint = node.get("endpoint").asText();
+                String query = node.get("query").asText();
+                Recorded recorded = new Recorded(node.get("latencyMicros").asLong() * 1_000, node.get("body").asText());
+                responses.computeIfAbsent(endpoint + "?" + query, k -> new Responses()).add(recorded);
+                if ("klines".equals(endpoint)) {
+                    Map<String, String> params = parseQuery(query);
+                    if (!params.containsKey("startTime")) {
+                        series.computeIfAbsent(params.get("symbol") + "|" + params.get("interval"), k -> new Responses()).add(recorded);
+                    }
+                }
+                count++;
+            }
+        } catch (EOFException e) {
+            System.err.println("Recording " + recording + " ends early (not closed cleanly); replaying what was complete");
+        }
+        return count;
+    }
+
+    @Override
+    public List<CoinData> getTopVolumeFuturesCoins(int limit) throws IOException {
+        Recorded recorded = next("ticker.24hr", "");
+        if (recorded == null) {
+            throw new IOException("No recorded 24hr ticker to replay");
+        }
+        return BinanceApiClient.parseTopVolumeCoins(objectMapper, recorded.body, limit);
+    }
+
+    @Override
+    public List<BinanceApiClient.Candlestick> getCandlestickData(String symbol, String interval, int limit) throws IOException {
+        List<BinanceApiClient.Candlestick> candles = candles(symbol, interval,
+                String.format("symbol=%s&interval=%s&limit=%d", symbol, interval, limit));
+        return candles.size() > limit ? new ArrayList<>(candles.subList(candles.size() - limit, candles.size())) : candles;
+    }
+
+    @Override
+    public List<BinanceApiClient.Candlestick> getCandlestickData(String symbol, String interval, int limit, long startTime) throws IOException {
+        List<BinanceApiClient.Candlestick> candles = candles(symbol, interval,
+                String.format("symbol=%s&interval=%s&limit=%d&startTime=%d", symbol, interval, limit, startTime));
+        List<BinanceApiClient.Candlestick> from = new ArrayList<>();
+        for (BinanceApiClient.Candlestick candle : candles) {
+            if (candle.getOpenTime() >= startTime && from.size() < limit) {
+                from.add(candle);
+            }
+        }
+        return from;
+    }
+
+    // A symbol missing from the recording gets no candles (reported as insufficient data), like a delisted one
+    private List<BinanceApiClient.Candlestick> candles(String symbol, String interval, String query) throws IOException {
+        long start = System.nanoTime();
+        Recorded recorded = next("klines", query);
+        if (recorded == null) {
+            Responses full = series.get(symbol + "|" + interval);
+            if (full == null) {
+                misses.increment();
+                return new ArrayList<>();
+            }
+            fallbacks.increment();
+            recorded = full.next();
+            delay(recorded);
+        }
+        long fetched = System.nanoTime();
+        scanMetrics.recordStage(ScanMetrics.Stage.KLINES_FETCH, interval, fetched - start);
+        List<BinanceApiClient.Candlestick> candles = BinanceApiClient.parseCandlesticks(objectMapper, recorded.body);
+        scanMetrics.recordStage(ScanMetrics.Stage.KLINES_PARSE, interval, System.nanoTime() - fetched);
+        return candles;
+    }
+
+    @Override
+    public Map<String, Double> getTickerPrices() throws IOException {
+        Recorded recorded = next("ticker.price", "");
+        if (recorded == null) {
+            throw new IOException("No recorded ticker prices to replay");
+        }
+        return BinanceApiClient.parseTickerPrices(objectMapper, recorded.body);
+    }
+
+    private Recorded next(String endpoint, String query) throws IOException {
+        Responses recorded = responses.get(endpoint + "?" + query);
+        if (recorded == null) {
+            return null;
+        }
+        Recorded response = recorded.next();
+        delay(response);
+        return response;
+    }
+
+    private void delay(Recorded response) throws IOException {
+        served.increment();
+        if (!originalTiming || response.latencyNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(response.latencyNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while replaying", e);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("source", "replay");
+        stats.put("path", path);
+        stats.put("timing", originalTiming ? "original" : "full-speed");
+        stats.put("files", files);
+        stats.put("requests", responses.size());
+        stats.put("served", served.sum());
+        stats.put("klinesFallbacks", fallbacks.sum());
+        stats.put("klinesMisses", misses.sum());
+        return stats;
+    }
+
+    private static final class Recorded {
+        final long latencyNanos;
+        final String body;
+
+        Recorded(long latencyNanos, String body) {
+            this.latencyNanos = latencyNanos;
+            this.body = body;
+        }
+    }
+
+    // Recorded responses to one request, handed out round-robin
+    private static final class Responses {
+        private final List<Recorded> recorded = new ArrayList<>();
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        void add(Recorded response) {
+            recorded.add(response);
+        }
+
+        Recorded next() {
+            return recorded.get(Math.floorMod(cursor.getAndIncrement(), recorded.size()));
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ScanHistoryEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * History of every published scan in the scan_results table. Publishing only offers rows to a bounded in-memory
+ * queue, so the scan path never waits for the database; a scheduled flush drains the queue with JDBC batch inserts.
+ * When the queue is full, rows are dropped and counted instead of blocking. On PostgreSQL the table is range
+ * partitioned by day (UTC) so retention drops whole partitions; other databases (H2 in tests) get a plain table and
+ * retention deletes rows.
+ */
+@Service
+public class ScanHistoryStore {
+
+    private static final String TABLE = "scan_results";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String COLUMNS = "scanned_at, symbol, timeframe, preset, order_block_type, order_block_price,"
+            + " ob_zone_start, ob_zone_end, current_price, volume, candle_time";
+    private static final String INSERT_SQL = "INSERT INTO " + TABLE + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${scan.history.enabled:true}")
+    private boolean enabled;
+
+    @Value("${scan.history.queue-capacity:50000}")
+    private int queueCapacity;
+
+    @Value("${scan.history.batch-size:500}")
+    private int batchSize;
+
+    @Value("${scan.history.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${scan.history.partitions-ahead-days:3}")
+    private int partitionsAheadDays;
+
+    private BlockingQueue<ScanHistoryEntry> queue;
+    private volatile boolean partitioned;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        if (!enabled) {
+            return;
+        }
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        partitioned = "PostgreSQL".equalsIgnoreCase(product);
+        String columns = "scanned_at TIMESTAMP NOT NULL, symbol VARCHAR(32) NOT NULL, timeframe VARCHAR(8) NOT NULL,"
+                + " preset VARCHAR(64) NOT NULL, order_block_type VARCHAR(16), order_block_price DOUBLE PRECISION,"
+                + " ob_zone_start DOUBLE PRECISION, ob_zone_end DOUBLE PRECISION, current_price DOUBLE PRECISION,"
+                + " volume VARCHAR(32), candle_time VARCHAR(64)";
+        if (partitioned) {
+            LeaderElection.createTableIfMissing(jdbcTemplate, "CREATE TABLE IF NOT EXISTS " + TABLE + " (" + columns + ") PARTITION BY RANGE (scanned_at)");
+            // Safety net for rows outside the pre-created days; maintenance keeps today and the next days covered
+            LeaderElection.createTableIfMissing(jdbcTemplate, "CREATE TABLE IF NOT EXISTS " + TABLE + "_default PARTITION OF " + TABLE + " DEFAULT");
+        } else {
+            LeaderElection.createTableIfMissing(jdbcTemplate, "CREATE TABLE IF NOT EXISTS " + TABLE + " (" + columns + ")");
+        }
+        // Serves the history query: one symbol and interval over a time range
+        LeaderElection.createTableIfMissing(jdbcTemplate, "CREATE INDEX IF NOT EXISTS idx_scan_results_symbol_tf_time ON " + TABLE + " (symbol, timeframe, scanned_at)");
+        maintain();
+        System.out.println("Scan history table ready (" + (partitioned ? "partitioned by day" : "unpartitioned") + ", " + product + ").");
+    }
+
+    // Called on publish; never blocks
+    public void record(String interval, String preset, List<OrderBlockResult> results) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (OrderBlockResult result : results) {
+            ScanHistoryEntry entry = new ScanHistoryEntry(now, result.getId(), interval, preset, result.getOrderBlockType(),
+                    result.getOrderBlockPrice(), result.getObZoneStart(), result.getObZoneEnd(), result.getCurrentPrice(),
+                    result.getVolume(), result.getTimestamp());
+            if (queue.offer(entry)) {
+                enqueued.increment();
+            } else {
+                dropped.increment();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scan.history.flush-ms:1000}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        List<ScanHistoryEntry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scan.history.maintenance-ms:3600000}", initialDelayString = "${scan.history.maintenance-ms:3600000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate cutoff = today.minusDays(retentionDays);
+        try {
+            if (partitioned) {
+                for (int day = 0; day <= partitionsAheadDays; day++) {
+                    createPartition(today.plusDays(day));
+                }
+                dropPartitionsBefore(cutoff);
+                jdbcTemplate.update("DELETE FROM " + TABLE + "_default WHERE scanned_at < ?", cutoff.atStartOfDay());
+            } else {
+                int deleted = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE scanned_at < ?", cutoff.atStartOfDay());
+                if (deleted > 0) {
+                    System.out.println("Pruned " + deleted + " scan history rows older than " + cutoff + ".");
+                }
+            }
+        } catch (DataAccessException e) {
+            System.err.println("Scan history maintenance failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rows for one symbol and interval with fromMs <= scannedAt < toMs, newest first.
+     */
+    public List<ScanHistoryEntry> query(String symbol, String interval, long fromMs, long toMs, int limit) {
+        return jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE symbol = ? AND timeframe = ? AND scanned_at >= ? AND scanned_at < ?"
+                        + " ORDER BY scanned_at DESC LIMIT ?",
+                (rs, rowNum) -> new ScanHistoryEntry(
+                        rs.getObject("scanned_at", LocalDateTime.class).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                        rs.getString("symbol"),
+                        rs.getString("timeframe"),
+                        rs.getString("preset"),
+                        rs.getString("order_block_type"),
+                        rs.getObject("order_block_price", Double.class),
+                        rs.getObject("ob_zone_start", Double.class),
+                        rs.getObject("ob_zone_end", Double.class),
+                        rs.getDouble("current_price"),
+                        rs.getString("volume"),
+                        rs.getString("candle_time")),
+                symbol, interval, utc(fromMs), utc(toMs), limit);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("partitioned", partitioned);
+        stats.put("queued", queue.size());
+        stats.put("enqueued", enqueued.sum());
+        stats.put("written", written.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("failedBatches", failedBatches.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<ScanHistoryEntry> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                ps.setObject(1, utc(entry.getScannedAt()));
+                ps.setString(2, entry.getSymbol());
+                ps.setString(3, entry.getTimeframe());
+                ps.setString(4, entry.getPreset());
+                ps.setString(5, entry.getOrderBlockType());
+                ps.setObject(6, entry.getOrderBlockPrice(), Types.DOUBLE);
+                ps.setObject(7, entry.getObZoneStart(), Types.DOUBLE);
+                ps.setObject(8, entry.getObZoneEnd(), Types.DOUBLE);
+                ps.setDouble(9, entry.getCurrentPrice());
+                ps.setString(10, entry.getVolume());
+                ps.setString(11, entry.getCandleTime());
+            });
+            written.add(batch.size());
+        } catch (DataAccessException e) {
+            // History is best effort: a failed batch is counted and dropped rather than retried into a growing backlog
+            failedBatches.increment();
+            System.err.println("Failed to write " + batch.size() + " scan history rows: " + e.getMessage());
+        }
+    }
+
+    private void createPartition(LocalDate day) {
+        String name = PARTITION_PREFIX + PARTITION_DAY.format(day);
+        try {
+            LeaderElection.createTableIfMissing(jdbcTemplate, "CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + day.atStartOfDay() + "') TO ('" + day.plusDays(1).atStartOfDay() + "')");
+        } catch (DataAccessException e) {
+            System.err.println("Could not create scan history partition " + name + ": " + e.getMessage());
+        }
+    }
+
+    private void dropPartitionsBefore(LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent"
+                        + " WHERE p.relname = ?", String.class, TABLE);
+        for (String partition : partitions) {
+            if (!partition.startsWith(PARTITION_PREFIX)) {
+                continue;
+            }
+            LocalDate day;
+            try {
+                day = LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_DAY);
+            } catch (DateTimeParseException e) {
+                continue; // not one of ours
+            }
+            if (day.isBefore(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                System.out.println("Dropped scan history partition " + partition + ".");
+            }
+        }
+    }
+
+    private static LocalDateTime utc(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneOffset.UTC);
+    }
+}
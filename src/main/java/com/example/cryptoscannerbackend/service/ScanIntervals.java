@@ -0,0 +1,26 @@
+package com.example.cryptoscannerbackend.service;
+
+import java.util.Set;
+
+/**
+ * The kline intervals Binance futures accepts. Interval strings from clients end up in scan keys, SSE
+ * subscriptions and metric tags, so anything outside this set is rejected before it reaches them.
+ */
+public final class ScanIntervals {
+
+    public static final Set<String> SUPPORTED = Set.of(
+            "1m", "3m", "5m", "15m", "30m", "1h", "2h", "4h", "6h", "8h", "12h", "1d", "3d", "1w", "1M");
+
+    private ScanIntervals() {
+    }
+
+    public static boolean isSupported(String interval) {
+        return interval != null && SUPPORTED.contains(interval);
+    }
+
+    public static void requireSupported(String interval) {
+        if (!isSupported(interval)) {
+            throw new IllegalArgumentException("Unsupported interval: " + interval);
+        }
+    }
+}
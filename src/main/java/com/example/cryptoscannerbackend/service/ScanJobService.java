@@ -0,0 +1,331 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.CoinData;
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ScanJobView;
+import com.example.cryptoscannerbackend.model.ScanParameters;
+import com.example.cryptoscannerbackend.model.ScanTier;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous scan jobs: results are published per symbol as they complete and can be polled
+ * (with an offset) or streamed over SSE. Finished jobs are retained for a short window, bounded per
+ * user, so a reloaded page can reattach to its job instead of starting a new scan.
+ */
+@Service
+public class ScanJobService {
+
+    @Autowired
+    private ScanService scanService;
+    @Autowired
+    private TieredScanScheduler tieredScanScheduler;
+
+    @Value("${scan.jobs.retention-ms:600000}")
+    private long retentionMs;
+
+    @Value("${scan.jobs.max-retained-per-user:10}")
+    private int maxRetainedPerUser;
+
+    @Value("${scan.jobs.max-active-per-user:2}")
+    private int maxActivePerUser;
+
+    @Value("${scan.jobs.stream-buffer-size:128}")
+    private int streamBufferSize;
+
+    private final ExecutorService sendExecutor = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "scan-job-sender");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ConcurrentMap<String, ScanJob> jobs = new ConcurrentHashMap<>();
+    // Active (queued or running) jobs per user; reserved before a job is created, released when it finishes
+    private final ConcurrentMap<String, Integer> activeByUser = new ConcurrentHashMap<>();
+
+    /**
+     * Queues a job on the tier-aware scheduler and returns its initial view, or empty if the user already has the
+     * maximum number of active jobs. Throws ScanRejectedException when the scheduler sheds the job.
+     */
+    public Optional<ScanJobView> submit(String username, ScanTier tier, int coinLimit, String interval, ScanParameters params) {
+        if (!reserveSlot(username)) {
+            System.out.println("Rejecting scan job for " + username + ": " + maxActivePerUser + " jobs already active.");
+            return Optional.empty();
+        }
+        ScanJob job = new ScanJob(UUID.randomUUID().toString(), username, coinLimit, interval, params);
+        jobs.put(job.id, job);
+        CompletableFuture<Void> future;
+        try {
+            future = tieredScanScheduler.submit(tier, () -> {
+                run(job);
+                return null;
+            });
+        } catch (ScanRejectedException e) {
+            jobs.remove(job.id);
+            releaseSlot(username);
+            throw e;
+        }
+        job.future = future;
+        // run() finishes the job itself; this catches a rejection at dispatch time or an Error thrown by the scan
+        future.whenComplete((ignored, error) -> {
+            if (!job.isFinished() && !job.cancelRequested) {
+                System.err.println("Scan job " + job.id + " ended without finishing: " + error);
+                job.addError(new ScanJobView.SymbolError(null, error != null ? error.getMessage() : "Scan ended unexpectedly"));
+                finish(job, "FAILED");
+            }
+        });
+        System.out.println("Submitted scan job " + job.id + " for " + username + " (" + interval + ", " + coinLimit + " coins).");
+        return Optional.of(job.toView(0, true));
+    }
+
+    public Optional<ScanJobView> getJob(String jobId, String username, int offset) {
+        return findOwned(jobId, username).map(job -> job.toView(offset, true));
+    }
+
+    // Summaries (without results) of the user's jobs, newest first
+    public List<ScanJobView> listJobs(String username) {
+        return jobs.values().stream()
+                .filter(job -> job.username.equals(username))
+                .sorted(Comparator.comparingLong((ScanJob job) -> job.createdAt).reversed())
+                .map(job -> job.toView(0, false))
+                .collect(Collectors.toList());
+    }
+
+    public boolean cancel(String jobId, String username) {
+        Optional<ScanJob> job = findOwned(jobId, username);
+        if (job.isEmpty() || job.get().isFinished()) {
+            return false;
+        }
+        job.get().cancelRequested = true;
+        Future<?> future = job.get().future;
+        if (future != null) {
+            future.cancel(true);
+        }
+        finish(job.get(), "CANCELLED");
+        return true;
+    }
+
+    /**
+     * Streams a job: a "snapshot" event with everything so far, then one "result" or "error" event per symbol,
+     * then "done". Attaching to a finished job replays the snapshot and completes.
+     */
+    public Optional<SseEmitter> stream(String jobId, String username) {
+        Optional<ScanJob> found = findOwned(jobId, username);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        ScanJob job = found.get();
+        SseEmitter emitter = new SseEmitter(0L);
+        BufferedSseConnection[] holder = new BufferedSseConnection[1];
+        holder[0] = new BufferedSseConnection(emitter, streamBufferSize, sendExecutor,
+                () -> job.listeners.remove(holder[0]), username + " on job " + jobId);
+        BufferedSseConnection connection = holder[0];
+        synchronized (job) {
+            connection.enqueue(SseEmitter.event().name("snapshot").data(job.toView(0, true), MediaType.APPLICATION_JSON));
+            if (job.isFinished()) {
+                connection.enqueue(SseEmitter.event().name("done").data(job.toView(0, false), MediaType.APPLICATION_JSON));
+                connection.completeAfterDrain();
+            } else {
+                job.listeners.add(connection);
+            }
+        }
+        return Optional.of(emitter);
+    }
+
+    @Scheduled(fixedDelayString = "${scan.jobs.eviction-interval-ms:60000}")
+    public void evictExpiredJobs() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt < cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.listeners.forEach(BufferedSseConnection::close));
+        sendExecutor.shutdownNow();
+    }
+
+    private void run(ScanJob job) {
+        if (job.cancelRequested) {
+            return; // cancelled while still queued
+        }
+        job.state = "RUNNING";
+        try {
+            List<CoinData> universe = scanService.getUniverse(job.coinLimit);
+            job.total = universe.size();
+            for (CoinData coin : universe) {
+                if (job.cancelRequested) {
+                    scanService.publishResults(job.interval, job.params, job.results);
+                    return;
+                }
+                try {
+                    job.addResult(scanService.scanCoin(coin, job.interval, job.params));
+                } catch (IOException e) {
+                    if (job.cancelRequested) {
+                        scanService.publishResults(job.interval, job.params, job.results);
+                        return;
+                    }
+                    System.err.println("Scan job " + job.id + ": failed to scan " + coin.getId() + ": " + e.getMessage());
+                    job.addError(new ScanJobView.SymbolError(coin.getId(), e.getMessage()));
+                }
+            }
+            scanService.publishResults(job.interval, job.params, job.results);
+            finish(job, "COMPLETED");
+        } catch (IOException e) {
+            System.err.println("Scan job " + job.id + " failed to load the coin universe: " + e.getMessage());
+            job.addError(new ScanJobView.SymbolError(null, "Failed to load top volume coins: " + e.getMessage()));
+            finish(job, "FAILED");
+        } catch (RuntimeException e) {
+            System.err.println("Scan job " + job.id + " failed: " + e.getMessage());
+            e.printStackTrace();
+            job.addError(new ScanJobView.SymbolError(null, e.getMessage()));
+            finish(job, "FAILED");
+        }
+    }
+
+    private void finish(ScanJob job, String finalState) {
+        synchronized (job) {
+            if (job.isFinished()) {
+                return;
+            }
+            job.state = finalState;
+            job.finishedAt = System.currentTimeMillis();
+            releaseSlot(job.username);
+            ScanJobView summary = job.toView(0, false);
+            for (BufferedSseConnection listener : job.listeners) {
+                listener.enqueue(SseEmitter.event().name("done").data(summary, MediaType.APPLICATION_JSON));
+                listener.completeAfterDrain();
+            }
+        }
+        System.out.println("Scan job " + job.id + " " + finalState + ": " + job.completed.get() + "/" + job.total + " symbols, " + job.failed.get() + " errors.");
+        enforceRetentionLimit(job.username);
+    }
+
+    // Check and increment in one step, so concurrent submits can't overshoot the cap
+    private boolean reserveSlot(String username) {
+        boolean[] reserved = new boolean[1];
+        activeByUser.compute(username, (user, active) -> {
+            int current = active == null ? 0 : active;
+            if (current >= maxActivePerUser) {
+                return active;
+            }
+            reserved[0] = true;
+            return current + 1;
+        });
+        return reserved[0];
+    }
+
+    private void releaseSlot(String username) {
+        activeByUser.computeIfPresent(username, (user, active) -> active <= 1 ? null : active - 1);
+    }
+
+    // Drop the user's oldest finished jobs beyond the per-user limit; running jobs and other users' jobs are kept
+    private void enforceRetentionLimit(String username) {
+        List<ScanJob> finished = jobs.values().stream()
+                .filter(job -> job.username.equals(username) && job.isFinished())
+                .sorted(Comparator.comparingLong(job -> job.finishedAt))
+                .collect(Collectors.toList());
+        for (int i = 0; i < finished.size() - maxRetainedPerUser; i++) {
+            jobs.remove(finished.get(i).id);
+        }
+    }
+
+    private Optional<ScanJob> findOwned(String jobId, String username) {
+        ScanJob job = jobs.get(jobId);
+        return job != null && job.username.equals(username) ? Optional.of(job) : Optional.empty();
+    }
+
+    private static class ScanJob {
+        private final String id;
+        private final String username;
+        private final int coinLimit;
+        private final String interval;
+        private final ScanParameters params;
+        private final long createdAt = System.currentTimeMillis();
+        private final List<OrderBlockResult> results = new CopyOnWriteArrayList<>();
+        private final List<ScanJobView.SymbolError> errors = new CopyOnWriteArrayList<>();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Set<BufferedSseConnection> listeners = ConcurrentHashMap.newKeySet();
+        private volatile String state = "QUEUED";
+        private volatile int total;
+        private volatile long finishedAt;
+        private volatile boolean cancelRequested;
+        private volatile Future<?> future;
+
+        ScanJob(String id, String username, int coinLimit, String interval, ScanParameters params) {
+            this.id = id;
+            this.username = username;
+            this.coinLimit = coinLimit;
+            this.interval = interval;
+            this.params = params;
+        }
+
+        boolean isFinished() {
+            return finishedAt != 0;
+        }
+
+        synchronized void addResult(OrderBlockResult result) {
+            if (isFinished()) {
+                return; // cancelled while this symbol was in flight
+            }
+            results.add(result);
+            completed.incrementAndGet();
+            for (BufferedSseConnection listener : listeners) {
+                listener.enqueue(SseEmitter.event().name("result").data(result, MediaType.APPLICATION_JSON));
+            }
+        }
+
+        synchronized void addError(ScanJobView.SymbolError error) {
+            if (isFinished()) {
+                return;
+            }
+            errors.add(error);
+            failed.incrementAndGet();
+            for (BufferedSseConnection listener : listeners) {
+                listener.enqueue(SseEmitter.event().name("error").data(error, MediaType.APPLICATION_JSON));
+            }
+        }
+
+        ScanJobView toView(int offset, boolean includeResults) {
+            ScanJobView view = new ScanJobView();
+            view.setJobId(id);
+            view.setState(state);
+            view.setInterval(interval);
+            view.setTotal(total);
+            view.setCompleted(completed.get());
+            view.setFailed(failed.get());
+            view.setCreatedAt(createdAt);
+            view.setFinishedAt(isFinished() ? finishedAt : null);
+            if (includeResults) {
+                List<OrderBlockResult> snapshot = new ArrayList<>(results);
+                int from = Math.min(Math.max(offset, 0), snapshot.size());
+                view.setResults(snapshot.subList(from, snapshot.size()));
+                view.setNextOffset(snapshot.size());
+                view.setErrors(new ArrayList<>(errors));
+            }
+            return view;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.cryptoscannerbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer timers for each stage of a scan (ticker, kline fetch, kline parsing, detection, serialization) and per
+ * symbol, plus Binance request weight, exported through /actuator/metrics. When a scan is profiled
+ * ({@code ?profile=true}) the same measurements are also added to that scan's {@link ScanProfile}, which is bound
+ * to the scanning thread for the duration of the scan.
+ */
+@Service
+public class ScanMetrics {
+
+    public enum Stage {
+        TICKER("ticker"),
+        KLINES_FETCH("klines.fetch"),
+        KLINES_PARSE("klines.parse"),
+        DETECTION("detection"),
+        SERIALIZATION("serialization");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    private static final String ALL_INTERVALS = "all";
+    private static final String OTHER_INTERVAL = "other";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Meters are looked up once per tag combination; registry lookups on every record would cost more than the record
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> weightCounters = new ConcurrentHashMap<>();
+    private final AtomicLong usedWeight1m = new AtomicLong(-1);
+    private final ThreadLocal<ScanProfile> currentProfile = new ThreadLocal<>();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("binance.used.weight.1m", usedWeight1m, AtomicLong::get)
+                .description("Request weight used in the current minute, as last reported by Binance (-1 until known)")
+                .register(meterRegistry);
+    }
+
+    public void recordStage(Stage stage, String interval, long nanos) {
+        String intervalTag = intervalTag(interval);
+        timers.computeIfAbsent(stage.tag + "|" + intervalTag, k -> Timer.builder("scan.stage")
+                        .description("Time spent in one stage of a scan")
+                        .tag("stage", stage.tag)
+                        .tag("interval", intervalTag)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        ScanProfile profile = currentProfile.get();
+        if (profile != null) {
+            profile.recordStage(stage, nanos);
+        }
+    }
+
+    // Everything spent on one symbol (kline fetch and parsing plus detection); no histogram, one timer per symbol
+    public void recordSymbol(String symbol, String interval, long nanos) {
+        String intervalTag = intervalTag(interval);
+        timers.computeIfAbsent("symbol|" + symbol + "|" + intervalTag, k -> Timer.builder("scan.symbol")
+                        .description("Time spent scanning one symbol")
+                        .tag("symbol", symbol)
+                        .tag("interval", intervalTag)
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        ScanProfile profile = currentProfile.get();
+        if (profile != null) {
+            profile.recordSymbol(symbol, nanos);
+        }
+    }
+
+    // Interval tags are limited to Binance's fixed set, so no caller can create timers from arbitrary request input
+    private static String intervalTag(String interval) {
+        if (interval == null) {
+            return ALL_INTERVALS;
+        }
+        return ScanIntervals.isSupported(interval) ? interval : OTHER_INTERVAL;
+    }
+
+    // One Binance request; usedWeightHeader is the X-MBX-USED-WEIGHT-1M response header (may be null)
+    public void recordUpstream(String endpoint, int weight, String usedWeightHeader) {
+        weightCounters.computeIfAbsent(endpoint, e -> Counter.builder("binance.request.weight")
+                        .description("Request weight spent on Binance")
+                        .tag("endpoint", e)
+                        .register(meterRegistry))
+                .increment(weight);
+        long used = -1;
+        if (usedWeightHeader != null) {
+            try {
+                used = Long.parseLong(usedWeightHeader.trim());
+                usedWeight1m.set(used);
+            } catch (NumberFormatException ignored) {
+                // header missing or malformed; keep the last known value
+            }
+        }
+        ScanProfile profile = currentProfile.get();
+        if (profile != null) {
+            profile.recordUpstream(weight, used);
+        }
+    }
+
+    public void recordCandleFetch(boolean incremental, int candles) {
+        ScanProfile profile = currentProfile.get();
+        if (profile != null) {
+            profile.recordCandleFetch(incremental, candles);
+        }
+    }
+
+    public void bind(ScanProfile profile) {
+        currentProfile.set(profile);
+    }
+
+    public void unbind() {
+        currentProfile.remove();
+    }
+
+    // Binance request weight of GET /fapi/v1/klines by limit
+    public static int klinesWeight(int limit) {
+        if (limit < 100) {
+            return 1;
+        }
+        if (limit < 500) {
+            return 2;
+        }
+        return limit <= 1000 ? 5 : 10;
+    }
+}
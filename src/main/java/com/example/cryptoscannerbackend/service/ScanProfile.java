@@ -0,0 +1,132 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Breakdown of one profiled scan: time per stage, the slowest symbols, Binance requests and weight, and how many
+ * kline series were served incrementally from the candle cache. Filled in through {@link ScanMetrics} while bound to
+ * the scanning thread.
+ */
+public class ScanProfile {
+
+    private final String interval;
+    private final int coinLimit;
+    private final long startNanos = System.nanoTime();
+    private long elapsedNanos = -1;
+
+    // Per stage: {calls, total nanos, max nanos}
+    private final Map<ScanMetrics.Stage, long[]> stages = new EnumMap<>(ScanMetrics.Stage.class);
+    private final Map<String, Long> symbolNanos = new HashMap<>();
+    private int upstreamRequests;
+    private long upstreamWeight;
+    private long usedWeight1m = -1;
+    private int fullFetches;
+    private int incrementalFetches;
+    private long candlesFetched;
+    private List<OrderBlockResult> results = List.of();
+    private String error;
+
+    public ScanProfile(String interval, int coinLimit) {
+        this.interval = interval;
+        this.coinLimit = coinLimit;
+    }
+
+    public synchronized void recordStage(ScanMetrics.Stage stage, long nanos) {
+        long[] totals = stages.computeIfAbsent(stage, s -> new long[3]);
+        totals[0]++;
+        totals[1] += nanos;
+        totals[2] = Math.max(totals[2], nanos);
+    }
+
+    synchronized void recordSymbol(String symbol, long nanos) {
+        symbolNanos.merge(symbol, nanos, Long::sum);
+    }
+
+    synchronized void recordUpstream(int weight, long usedWeight) {
+        upstreamRequests++;
+        upstreamWeight += weight;
+        if (usedWeight >= 0) {
+            usedWeight1m = usedWeight;
+        }
+    }
+
+    synchronized void recordCandleFetch(boolean incremental, int candles) {
+        if (incremental) {
+            incrementalFetches++;
+        } else {
+            fullFetches++;
+        }
+        candlesFetched += candles;
+    }
+
+    synchronized void finish(List<OrderBlockResult> results, String error) {
+        this.elapsedNanos = System.nanoTime() - startNanos;
+        this.results = results;
+        this.error = error;
+    }
+
+    public synchronized List<OrderBlockResult> getResults() {
+        return results;
+    }
+
+    public synchronized boolean isFailed() {
+        return error != null;
+    }
+
+    public synchronized Map<String, Object> toView(int slowestSymbols) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("interval", interval);
+        view.put("coinLimit", coinLimit);
+        view.put("symbols", symbolNanos.size());
+        view.put("totalMs", millis(elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - startNanos));
+        if (error != null) {
+            view.put("error", error);
+        }
+
+        Map<String, Object> stageView = new LinkedHashMap<>();
+        stages.forEach((stage, totals) -> {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("calls", totals[0]);
+            s.put("totalMs", millis(totals[1]));
+            s.put("maxMs", millis(totals[2]));
+            stageView.put(stage.getTag(), s);
+        });
+        view.put("stages", stageView);
+
+        List<Map<String, Object>> slowest = new ArrayList<>();
+        symbolNanos.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(slowestSymbols)
+                .forEach(e -> {
+                    Map<String, Object> s = new LinkedHashMap<>();
+                    s.put("symbol", e.getKey());
+                    s.put("ms", millis(e.getValue()));
+                    slowest.add(s);
+                });
+        view.put("slowestSymbols", slowest);
+
+        Map<String, Object> upstream = new LinkedHashMap<>();
+        upstream.put("requests", upstreamRequests);
+        upstream.put("weight", upstreamWeight);
+        upstream.put("usedWeight1m", usedWeight1m);
+        view.put("upstream", upstream);
+
+        Map<String, Object> candles = new LinkedHashMap<>();
+        candles.put("fullFetches", fullFetches);
+        candles.put("incrementalFetches", incrementalFetches);
+        candles.put("candlesFetched", candlesFetched);
+        view.put("candleCache", candles);
+        return view;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
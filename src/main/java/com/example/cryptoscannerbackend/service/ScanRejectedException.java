@@ -0,0 +1,24 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.ScanTier;
+
+// Thrown when the scan scheduler sheds a scan because the queue for its tier is full
+public class ScanRejectedException extends RuntimeException {
+
+    private final ScanTier tier;
+    private final long retryAfterSeconds;
+
+    public ScanRejectedException(ScanTier tier, long retryAfterSeconds) {
+        super("Scan capacity for " + tier.name().toLowerCase() + " users is exhausted. Retry in " + retryAfterSeconds + " seconds.");
+        this.tier = tier;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ScanTier getTier() {
+        return tier;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
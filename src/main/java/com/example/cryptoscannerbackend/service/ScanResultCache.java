@@ -0,0 +1,229 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ScanParameters;
+import com.example.cryptoscannerbackend.model.ScanTier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of full scan results keyed by the canonical scan parameters (interval, coin limit and
+ * detector options) and the data version of the candles they were computed from. Within one candle an
+ * identical scan is served from memory; once candles roll over (or the entry is older than the fresh TTL)
+ * the previous result is served immediately while a single background refresh recomputes it. Refreshes are
+ * admitted by the {@link TieredScanScheduler} at the requester's tier like any other scan; a shed refresh just
+ * leaves the stale result in place. Entries are {@link ScanSnapshot}s, so each response encoding of a cached scan is serialized only once.
+ */
+@Service
+public class ScanResultCache {
+
+    private static final long MINUTE_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+    // Binance weekly candles open on Monday 00:00 UTC; the epoch was a Thursday
+    private static final long WEEK_OFFSET_MS = 4 * DAY_MS;
+
+    @Autowired
+    private TieredScanScheduler tieredScanScheduler;
+
+    @Value("${scan.cache.max-entries:200}")
+    private int maxEntries;
+
+    @Value("${scan.cache.fresh-ttl-ms:60000}")
+    private long freshTtlMs;
+
+    @Value("${scan.cache.max-stale-ms:900000}")
+    private long maxStaleMs;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshesShed = new LongAdder();
+
+    // Access-ordered so the least recently used entry is evicted first
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final ConcurrentMap<String, CompletableFuture<ScanSnapshot>> inFlight = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    public interface ScanLoader {
+        List<OrderBlockResult> load() throws IOException;
+    }
+
+    public ScanSnapshot get(ScanTier tier, String interval, int coinLimit, ScanParameters params, ScanLoader loader) throws IOException {
+        ScanSnapshot cached = getIfPresent(tier, interval, coinLimit, params, loader);
+        if (cached != null) {
+            return cached;
+        }
+        misses.increment();
+        return loadOnce(canonicalKey(interval, coinLimit, params), dataVersion(interval, System.currentTimeMillis()), loader);
+    }
+
+    /**
+     * Returns the cached result without computing on a miss (null). A stale entry is still returned and
+     * triggers a background refresh with the given loader, scheduled at the given tier.
+     */
+    public ScanSnapshot getIfPresent(ScanTier tier, String interval, int coinLimit, ScanParameters params, ScanLoader loader) {
+        String key = canonicalKey(interval, coinLimit, params);
+        long now = System.currentTimeMillis();
+        long dataVersion = dataVersion(interval, now);
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && now - entry.createdAt > maxStaleMs) {
+                entries.remove(key);
+                evictions.increment();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (entry.dataVersion == dataVersion && now - entry.createdAt <= freshTtlMs) {
+            hits.increment();
+            return entry.snapshot;
+        }
+        staleHits.increment();
+        refreshInBackground(tier, key, dataVersion, loader);
+        return entry.snapshot;
+    }
+
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits.sum());
+        stats.put("staleHits", staleHits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("backgroundRefreshes", refreshes.sum());
+        stats.put("backgroundRefreshesShed", refreshesShed.sum());
+        return stats;
+    }
+
+    // Concurrent identical misses share one computation
+    private ScanSnapshot loadOnce(String key, long dataVersion, ScanLoader loader) throws IOException {
+        CompletableFuture<ScanSnapshot> mine = new CompletableFuture<>();
+        CompletableFuture<ScanSnapshot> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            ScanSnapshot snapshot = new ScanSnapshot(loader.load());
+            store(key, new Entry(snapshot, dataVersion, System.currentTimeMillis()));
+            mine.complete(snapshot);
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void refreshInBackground(ScanTier tier, String key, long dataVersion, ScanLoader loader) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        refreshes.increment();
+        try {
+            tieredScanScheduler.submit(tier, () -> loadOnce(key, dataVersion, loader)).whenComplete((snapshot, error) -> {
+                if (error instanceof ScanRejectedException) {
+                    refreshesShed.increment(); // refused by the executor at dispatch time
+                } else if (error != null) {
+                    System.err.println("Background refresh of cached scan " + key + " failed, keeping stale result: " + error.getMessage());
+                }
+            });
+        } catch (ScanRejectedException e) {
+            refreshesShed.increment();
+            System.err.println("Background refresh of cached scan " + key + " shed, keeping stale result: " + e.getMessage());
+        }
+    }
+
+    private void store(String key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+            while (entries.size() > maxEntries) {
+                String eldest = entries.keySet().iterator().next();
+                entries.remove(eldest);
+                evictions.increment();
+            }
+        }
+    }
+
+    static String canonicalKey(String interval, int coinLimit, ScanParameters params) {
+        return interval + "|" + coinLimit + "|" + params.canonicalForm();
+    }
+
+    // Index of the candle that is currently open for this interval; changes exactly when candles roll over
+    static long dataVersion(String interval, long nowMs) {
+        if ("1M".equals(interval)) {
+            YearMonth month = YearMonth.from(Instant.ofEpochMilli(nowMs).atOffset(ZoneOffset.UTC));
+            return month.getYear() * 12L + month.getMonthValue();
+        }
+        long intervalMs = intervalMillis(interval);
+        if (intervalMs == 7 * DAY_MS) {
+            return Math.floorDiv(nowMs - WEEK_OFFSET_MS, intervalMs);
+        }
+        return Math.floorDiv(nowMs, intervalMs);
+    }
+
+    static long intervalMillis(String interval) {
+        if (interval == null || interval.length() < 2) {
+            throw new IllegalArgumentException("Unsupported interval: " + interval);
+        }
+        long amount = Long.parseLong(interval.substring(0, interval.length() - 1));
+        switch (interval.charAt(interval.length() - 1)) {
+            case 'm':
+                return amount * MINUTE_MS;
+            case 'h':
+                return amount * HOUR_MS;
+            case 'd':
+                return amount * DAY_MS;
+            case 'w':
+                return amount * 7 * DAY_MS;
+            default:
+                throw new IllegalArgumentException("Unsupported interval: " + interval);
+        }
+    }
+
+    private static final class Entry {
+        final ScanSnapshot snapshot;
+        final long dataVersion;
+        final long createdAt;
+
+        Entry(ScanSnapshot snapshot, long dataVersion, long createdAt) {
+            this.snapshot = snapshot;
+            this.dataVersion = dataVersion;
+            this.createdAt = createdAt;
+        }
+    }
+}
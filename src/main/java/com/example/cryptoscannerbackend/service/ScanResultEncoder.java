@@ -0,0 +1,126 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Encodes scan results as JSON, CBOR, Smile or columnar JSON. Columnar JSON writes each field once with an
+ * array of values ({"count":2,"columns":{"id":["BTCUSDT","ETHUSDT"],...}}) instead of repeating every field
+ * name per symbol.
+ */
+@Service
+public class ScanResultEncoder {
+
+    public static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    public static final MediaType COLUMNAR_JSON = MediaType.parseMediaType("application/vnd.ccscanner.columnar+json");
+
+    // Preference order when the client accepts several (or */*)
+    private static final List<MediaType> SUPPORTED = List.of(MediaType.APPLICATION_JSON, CBOR, SMILE, COLUMNAR_JSON);
+
+    private static final Map<String, Function<OrderBlockResult, Object>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", OrderBlockResult::getId);
+        COLUMNS.put("name", OrderBlockResult::getName);
+        COLUMNS.put("currentPrice", OrderBlockResult::getCurrentPrice);
+        COLUMNS.put("volume", OrderBlockResult::getVolume);
+        COLUMNS.put("orderBlockType", OrderBlockResult::getOrderBlockType);
+        COLUMNS.put("orderBlockPrice", OrderBlockResult::getOrderBlockPrice);
+        COLUMNS.put("details", OrderBlockResult::getDetails);
+        COLUMNS.put("timestamp", OrderBlockResult::getTimestamp);
+        COLUMNS.put("timeframe", OrderBlockResult::getTimeframe);
+        COLUMNS.put("obCandleOpen", OrderBlockResult::getObCandleOpen);
+        COLUMNS.put("obCandleHigh", OrderBlockResult::getObCandleHigh);
+        COLUMNS.put("obCandleLow", OrderBlockResult::getObCandleLow);
+        COLUMNS.put("obCandleClose", OrderBlockResult::getObCandleClose);
+        COLUMNS.put("obZoneStart", OrderBlockResult::getObZoneStart);
+        COLUMNS.put("obZoneEnd", OrderBlockResult::getObZoneEnd);
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final SmileMapper smileMapper = new SmileMapper();
+
+    // Best supported type for an Accept header; plain JSON when the header is missing, invalid or matches nothing
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType candidate : accepted) {
+            for (MediaType supported : SUPPORTED) {
+                if (candidate.getQualityValue() > 0 && candidate.includes(supported)) {
+                    return supported;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    public byte[] encode(List<OrderBlockResult> results, MediaType type) {
+        try {
+            if (CBOR.equals(type)) {
+                return cborMapper.writeValueAsBytes(results);
+            }
+            if (SMILE.equals(type)) {
+                return smileMapper.writeValueAsBytes(results);
+            }
+            if (COLUMNAR_JSON.equals(type)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(results.size() * 128 + 64);
+                writeColumnar(results, null, out);
+                return out.toByteArray();
+            }
+            return objectMapper.writeValueAsBytes(results);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void writeColumnar(List<OrderBlockResult> results, String nextCursor, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // the caller owns the stream
+            generator.writeStartObject();
+            generator.writeNumberField("count", results.size());
+            generator.writeObjectFieldStart("columns");
+            for (Map.Entry<String, Function<OrderBlockResult, Object>> column : COLUMNS.entrySet()) {
+                generator.writeArrayFieldStart(column.getKey());
+                for (OrderBlockResult result : results) {
+                    generator.writeObject(column.getValue().apply(result));
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+            if (nextCursor != null) {
+                generator.writeStringField("nextCursor", nextCursor);
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,618 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ResultPage;
+import com.example.cryptoscannerbackend.model.ResultQuery;
+import com.example.cryptoscannerbackend.model.ScanParameters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latest scan results keyed by (symbol, interval, preset), so a 1h scan never overwrites the 4h result and
+ * scans with different parameters are kept apart. Each (interval, preset) pair holds an immutable snapshot
+ * with its secondary indexes (by type, and sorted by volume, zone distance, zone width and symbol) built at
+ * publish time. A finished scan is merged into a copy of the snapshot and swapped in with one volatile write,
+ * so readers never lock and never see a half-applied scan. Entries expire after a TTL and both the number
+ * of symbols per snapshot and the number of custom-parameter snapshots are bounded.
+ */
+@Service
+public class ScanResultStore {
+
+    public static final String BULLISH = "Buying (Bullish)";
+    public static final String BEARISH = "Selling (Bearish)";
+    public static final String NONE = "None";
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String DEFAULT_INTERVAL = "4h";
+
+    @Value("${scan.results.ttl-ms:21600000}")
+    private long ttlMs;
+
+    @Value("${scan.results.max-symbols-per-slot:500}")
+    private int maxSymbolsPerSlot;
+
+    @Value("${scan.results.max-slots:32}")
+    private int maxSlots;
+
+    private final ConcurrentMap<String, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong publishSequence = new AtomicLong(); // orders publishes that land in the same millisecond
+
+    /**
+     * Merges the results of one scan into the (interval, preset) snapshot and publishes the new snapshot.
+     * Symbols not in this scan keep their previous result until they expire.
+     */
+    public void publish(String interval, String preset, Collection<OrderBlockResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, Entry> entries = new HashMap<>();
+        for (OrderBlockResult result : results) {
+            entries.put(result.getId(), Entry.of(result, now));
+        }
+        merge(interval, preset, entries, now);
+    }
+
+    // Every stored result with the time it was stored, for the warm-start snapshot
+    public List<StoredResult> exportStored() {
+        List<StoredResult> stored = new ArrayList<>();
+        for (Slot slot : slots.values()) {
+            for (Entry e : slot.snapshot.bySymbol.values()) {
+                stored.add(new StoredResult(slot.interval, slot.preset, e.result, e.storedAt));
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Puts results from a warm-start snapshot back with their original storage time, so they expire as if the
+     * node had never restarted. A result published since boot is newer and is kept instead.
+     */
+    public void restore(Collection<StoredResult> stored) {
+        long now = System.currentTimeMillis();
+        Map<String, List<StoredResult>> bySlot = new HashMap<>();
+        for (StoredResult s : stored) {
+            if (s.getStoredAt() >= now - ttlMs) {
+                bySlot.computeIfAbsent(slotKey(s.getInterval(), s.getPreset()), k -> new ArrayList<>()).add(s);
+            }
+        }
+        for (List<StoredResult> slotResults : bySlot.values()) {
+            Map<String, Entry> entries = new HashMap<>();
+            for (StoredResult s : slotResults) {
+                entries.put(s.getResult().getId(), Entry.of(s.getResult(), s.getStoredAt()));
+            }
+            StoredResult first = slotResults.get(0);
+            merge(first.getInterval(), first.getPreset(), entries, now);
+        }
+    }
+
+    private void merge(String interval, String preset, Map<String, Entry> entries, long now) {
+        while (true) {
+            Slot slot = slots.computeIfAbsent(slotKey(interval, preset), k -> new Slot(interval, preset));
+            synchronized (slot) {
+                if (slot.removed) {
+                    continue; // evicted between lookup and lock; publish into a fresh slot
+                }
+                Map<String, Entry> merged = new HashMap<>(slot.snapshot.bySymbol);
+                entries.forEach((symbol, entry) -> merged.merge(symbol, entry, (current, incoming) -> incoming.storedAt >= current.storedAt ? incoming : current));
+                merged.values().removeIf(e -> e.storedAt < now - ttlMs);
+                trimToLimit(merged);
+                slot.snapshot = Snapshot.build(merged, publishSequence.incrementAndGet());
+                break;
+            }
+        }
+        enforceSlotLimit();
+    }
+
+    public Optional<OrderBlockResult> get(String symbol, String interval, String preset) {
+        Slot slot = slots.get(slotKey(interval, preset));
+        Entry entry = slot != null ? slot.snapshot.bySymbol.get(symbol) : null;
+        return Optional.ofNullable(entry).map(e -> e.result);
+    }
+
+    public List<OrderBlockResult> getAll(String interval, String preset) {
+        Slot slot = slots.get(slotKey(interval, preset));
+        if (slot == null) {
+            return List.of();
+        }
+        List<OrderBlockResult> results = new ArrayList<>(slot.snapshot.bySymbol.size());
+        slot.snapshot.bySymbol.values().forEach(e -> results.add(e.result));
+        return results;
+    }
+
+    /**
+     * Queries one snapshot: the query's timeframe (default 4h) and preset. Without a preset the scheduled
+     * snapshot is used, or the default-parameter one when there is no scheduled scan for that timeframe;
+     * results of custom parameters are only returned when their preset is asked for.
+     */
+    public ResultPage query(ResultQuery query) {
+        return query(query, 0);
+    }
+
+    /**
+     * Same as {@link #query(ResultQuery)}, restricted to the coinLimit highest-volume symbols of the snapshot when
+     * coinLimit is positive: the universe a scan with that coin limit covers, as trial scans and streams do.
+     */
+    public ResultPage query(ResultQuery query, int coinLimit) {
+        String interval = query.getTimeframe() != null ? query.getTimeframe() : DEFAULT_INTERVAL;
+        Slot slot = query.getPreset() != null ? slots.get(slotKey(interval, query.getPreset())) : defaultSlot(interval);
+        ResultIndex idx = slot != null ? slot.snapshot.index : ResultIndex.EMPTY;
+        Set<String> universe = coinLimit > 0 ? idx.topByVolume(coinLimit) : null;
+
+        SortKey sortKey = SortKey.parse(query.getSort());
+        boolean descending = query.getOrder() != null ? "desc".equalsIgnoreCase(query.getOrder()) : sortKey == SortKey.VOLUME;
+        int limit = Math.max(1, Math.min(query.getLimit(), MAX_PAGE_SIZE));
+        Entry cursor = decodeCursor(query.getCursor());
+        Entry[] sorted = idx.sorted.get(sortKey);
+
+        // Start from the most selective index; fall back to walking the sort index when no filter narrows much
+        Slice candidates = idx.narrowestSlice(query, normalizeType(query.getType()));
+        List<Entry> page = new ArrayList<>(limit + 1);
+        if (candidates == null || candidates.size() * 4 > sorted.length) {
+            walkSortIndex(sorted, sortKey, descending, cursor, query, universe, limit + 1, page);
+        } else {
+            List<Entry> matching = new ArrayList<>();
+            for (int i = candidates.from; i < candidates.to; i++) {
+                Entry e = candidates.array[i];
+                if (!Double.isNaN(sortKey.key(e)) && matches(e, query, universe)) {
+                    matching.add(e);
+                }
+            }
+            Comparator<Entry> order = descending ? sortKey.comparator.reversed() : sortKey.comparator;
+            matching.sort(order);
+            for (Entry e : matching) {
+                if (cursor != null && order.compare(e, cursor) <= 0) {
+                    continue;
+                }
+                page.add(e);
+                if (page.size() > limit) {
+                    break;
+                }
+            }
+        }
+
+        String nextCursor = null;
+        if (page.size() > limit) {
+            page.remove(limit);
+            nextCursor = encodeCursor(page.get(limit - 1), sortKey);
+        }
+        List<OrderBlockResult> items = new ArrayList<>(page.size());
+        page.forEach(e -> items.add(e.result));
+        return new ResultPage(items, nextCursor);
+    }
+
+    // The coinLimit highest-volume symbols of the snapshot queries default to for this interval
+    public Set<String> topSymbols(String interval, int coinLimit) {
+        Slot slot = defaultSlot(interval);
+        return slot != null ? slot.snapshot.index.topByVolume(coinLimit) : Set.of();
+    }
+
+    // Drops expired entries and removes snapshots that became empty
+    @Scheduled(fixedDelayString = "${scan.results.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - ttlMs;
+        for (Slot slot : slots.values()) {
+            synchronized (slot) {
+                if (slot.removed || slot.snapshot.oldestStoredAt >= cutoff) {
+                    continue;
+                }
+                Map<String, Entry> kept = new HashMap<>(slot.snapshot.bySymbol);
+                kept.values().removeIf(e -> e.storedAt < cutoff);
+                if (kept.isEmpty()) {
+                    removeSlot(slot);
+                } else {
+                    slot.snapshot = Snapshot.build(kept, slot.snapshot.sequence);
+                }
+            }
+        }
+    }
+
+    private Slot defaultSlot(String interval) {
+        Slot scheduled = slots.get(slotKey(interval, ScanParameters.SCHEDULED_PRESET));
+        return scheduled != null ? scheduled : slots.get(slotKey(interval, ScanParameters.DEFAULT_PRESET));
+    }
+
+    // Keeps the most recently stored symbols when a snapshot grows past its bound
+    private void trimToLimit(Map<String, Entry> entries) {
+        if (entries.size() <= maxSymbolsPerSlot) {
+            return;
+        }
+        List<Entry> byAge = new ArrayList<>(entries.values());
+        byAge.sort(Comparator.comparingLong((Entry e) -> e.storedAt).thenComparing(e -> e.symbol));
+        for (int i = 0; i < byAge.size() - maxSymbolsPerSlot; i++) {
+            entries.remove(byAge.get(i).symbol);
+        }
+    }
+
+    // Drops the least recently published custom-parameter snapshots beyond the slot limit; the scheduled and
+    // default snapshots answer queries without a preset and are only removed when they expire
+    private void enforceSlotLimit() {
+        while (slots.size() > maxSlots) {
+            Slot oldest = null;
+            for (Slot slot : slots.values()) {
+                if (ScanParameters.isCanonicalPreset(slot.preset)) {
+                    continue;
+                }
+                if (oldest == null || slot.snapshot.sequence < oldest.snapshot.sequence) {
+                    oldest = slot;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            synchronized (oldest) {
+                removeSlot(oldest);
+            }
+        }
+    }
+
+    private void removeSlot(Slot slot) {
+        slot.removed = true;
+        slots.remove(slotKey(slot.interval, slot.preset), slot);
+    }
+
+    private static String slotKey(String interval, String preset) {
+        return interval + "|" + preset;
+    }
+
+    private static void walkSortIndex(Entry[] sorted, SortKey sortKey, boolean descending, Entry cursor,
+                                      ResultQuery query, Set<String> universe, int max, List<Entry> out) {
+        if (descending) {
+            int start = cursor == null ? sorted.length - 1 : firstNotBefore(sorted, cursor, sortKey) - 1;
+            for (int i = start; i >= 0 && out.size() < max; i--) {
+                if (matches(sorted[i], query, universe)) {
+                    out.add(sorted[i]);
+                }
+            }
+        } else {
+            int start = cursor == null ? 0 : firstAfter(sorted, cursor, sortKey);
+            for (int i = start; i < sorted.length && out.size() < max; i++) {
+                if (matches(sorted[i], query, universe)) {
+                    out.add(sorted[i]);
+                }
+            }
+        }
+    }
+
+    private static boolean matches(Entry e, ResultQuery query, Set<String> universe) {
+        if (universe != null && !universe.contains(e.symbol)) {
+            return false;
+        }
+        String type = normalizeType(query.getType());
+        if (type != null && !type.equals(e.result.getOrderBlockType())) {
+            return false;
+        }
+        if (query.getMinVolume() != null && e.volume < query.getMinVolume()) {
+            return false;
+        }
+        if (query.getMaxDistancePct() != null && !(e.distancePct <= query.getMaxDistancePct())) {
+            return false;
+        }
+        return query.getMaxZoneWidthPct() == null || e.zoneWidthPct <= query.getMaxZoneWidthPct();
+    }
+
+    static String normalizeType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        switch (type.toLowerCase()) {
+            case "bullish":
+            case "buying":
+                return BULLISH;
+            case "bearish":
+            case "selling":
+                return BEARISH;
+            case "none":
+                return NONE;
+            default:
+                return type;
+        }
+    }
+
+    // Index of the first entry ordered strictly after the probe
+    private static int firstAfter(Entry[] sorted, Entry probe, SortKey sortKey) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortKey.comparator.compare(sorted[mid], probe) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Index of the first entry ordered at or after the probe
+    private static int firstNotBefore(Entry[] sorted, Entry probe, SortKey sortKey) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortKey.comparator.compare(sorted[mid], probe) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static String encodeCursor(Entry last, SortKey sortKey) {
+        String raw = sortKey.key(last) + "|" + last.symbol;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Entry decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            double key = Double.parseDouble(raw.substring(0, separator));
+            return Entry.probe(key, raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    static double distancePct(OrderBlockResult result) {
+        if (result.getObZoneStart() == null || result.getObZoneEnd() == null || result.getCurrentPrice() <= 0) {
+            return Double.NaN;
+        }
+        double price = result.getCurrentPrice();
+        double lower = Math.min(result.getObZoneStart(), result.getObZoneEnd());
+        double upper = Math.max(result.getObZoneStart(), result.getObZoneEnd());
+        if (price >= lower && price <= upper) {
+            return 0.0;
+        }
+        return Math.min(Math.abs(price - lower), Math.abs(price - upper)) / price * 100.0;
+    }
+
+    static double zoneWidthPct(OrderBlockResult result) {
+        if (result.getObZoneStart() == null || result.getObZoneEnd() == null || result.getCurrentPrice() <= 0) {
+            return Double.NaN;
+        }
+        return Math.abs(result.getObZoneStart() - result.getObZoneEnd()) / result.getCurrentPrice() * 100.0;
+    }
+
+    enum SortKey {
+        VOLUME, DISTANCE, ZONE_WIDTH, SYMBOL;
+
+        final Comparator<Entry> comparator = Comparator.comparingDouble(this::key).thenComparing(e -> e.symbol);
+
+        double key(Entry e) {
+            switch (this) {
+                case VOLUME:
+                    return e.volume;
+                case DISTANCE:
+                    return e.distancePct;
+                case ZONE_WIDTH:
+                    return e.zoneWidthPct;
+                default:
+                    return 0.0;
+            }
+        }
+
+        static SortKey parse(String sort) {
+            if (sort == null) {
+                return VOLUME;
+            }
+            switch (sort.toLowerCase()) {
+                case "distance":
+                    return DISTANCE;
+                case "zonewidth":
+                case "zone_width":
+                    return ZONE_WIDTH;
+                case "symbol":
+                    return SYMBOL;
+                default:
+                    return VOLUME;
+            }
+        }
+    }
+
+    static final class Entry {
+        final OrderBlockResult result;
+        final String symbol;
+        final double volume;
+        final double distancePct;  // NaN when the result has no zone
+        final double zoneWidthPct; // NaN when the result has no zone
+        final long storedAt;
+
+        private Entry(OrderBlockResult result, String symbol, double volume, double distancePct, double zoneWidthPct, long storedAt) {
+            this.result = result;
+            this.symbol = symbol;
+            this.volume = volume;
+            this.distancePct = distancePct;
+            this.zoneWidthPct = zoneWidthPct;
+            this.storedAt = storedAt;
+        }
+
+        static Entry of(OrderBlockResult result, long storedAt) {
+            double volume;
+            try {
+                volume = result.getVolume() != null ? BinanceApiClient.parseVolumeString(result.getVolume()) : 0.0;
+            } catch (NumberFormatException e) {
+                volume = 0.0;
+            }
+            return new Entry(result, result.getId(), volume, distancePct(result), zoneWidthPct(result), storedAt);
+        }
+
+        // Cursor position: the same key is used for every sort column, so one probe serves any index
+        static Entry probe(double key, String symbol) {
+            return new Entry(null, symbol, key, key, key, 0L);
+        }
+    }
+
+    private static final class Slice {
+        final Entry[] array;
+        final int from;
+        final int to;
+
+        Slice(Entry[] array, int from, int to) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+        }
+
+        int size() {
+            return to - from;
+        }
+    }
+
+    public static final class StoredResult {
+        private final String interval;
+        private final String preset;
+        private final OrderBlockResult result;
+        private final long storedAt;
+
+        public StoredResult(String interval, String preset, OrderBlockResult result, long storedAt) {
+            this.interval = interval;
+            this.preset = preset;
+            this.result = result;
+            this.storedAt = storedAt;
+        }
+
+        public String getInterval() {
+            return interval;
+        }
+
+        public String getPreset() {
+            return preset;
+        }
+
+        public OrderBlockResult getResult() {
+            return result;
+        }
+
+        public long getStoredAt() {
+            return storedAt;
+        }
+    }
+
+    // Interval and preset are fixed for a slot; the snapshot is replaced wholesale on every publish
+    private static final class Slot {
+        final String interval;
+        final String preset;
+        volatile Snapshot snapshot = Snapshot.EMPTY;
+        boolean removed; // guarded by this
+
+        Slot(String interval, String preset) {
+            this.interval = interval;
+            this.preset = preset;
+        }
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), ResultIndex.EMPTY, 0L, Long.MAX_VALUE);
+
+        final Map<String, Entry> bySymbol;
+        final ResultIndex index;
+        final long sequence; // higher means published more recently
+        final long oldestStoredAt;
+
+        private Snapshot(Map<String, Entry> bySymbol, ResultIndex index, long sequence, long oldestStoredAt) {
+            this.bySymbol = bySymbol;
+            this.index = index;
+            this.sequence = sequence;
+            this.oldestStoredAt = oldestStoredAt;
+        }
+
+        static Snapshot build(Map<String, Entry> entries, long sequence) {
+            long oldest = Long.MAX_VALUE;
+            for (Entry e : entries.values()) {
+                oldest = Math.min(oldest, e.storedAt);
+            }
+            return new Snapshot(Collections.unmodifiableMap(entries), ResultIndex.build(entries.values()), sequence, oldest);
+        }
+    }
+
+    private static final class ResultIndex {
+        static final ResultIndex EMPTY = build(List.of());
+
+        final Map<String, Entry[]> byType = new HashMap<>();
+        final EnumMap<SortKey, Entry[]> sorted = new EnumMap<>(SortKey.class);
+
+        static ResultIndex build(Collection<Entry> entries) {
+            ResultIndex idx = new ResultIndex();
+
+            Map<String, List<Entry>> types = new HashMap<>();
+            for (Entry e : entries) {
+                types.computeIfAbsent(String.valueOf(e.result.getOrderBlockType()), k -> new ArrayList<>()).add(e);
+            }
+            types.forEach((k, v) -> idx.byType.put(k, v.toArray(new Entry[0])));
+
+            for (SortKey sortKey : SortKey.values()) {
+                Entry[] keyed = entries.stream().filter(e -> !Double.isNaN(sortKey.key(e))).toArray(Entry[]::new);
+                Arrays.sort(keyed, sortKey.comparator);
+                idx.sorted.put(sortKey, keyed);
+            }
+            return idx;
+        }
+
+        Set<String> topByVolume(int n) {
+            Entry[] volumes = sorted.get(SortKey.VOLUME);
+            Set<String> top = new HashSet<>();
+            for (int i = volumes.length - 1; i >= 0 && top.size() < n; i--) {
+                top.add(volumes[i].symbol);
+            }
+            return top;
+        }
+
+        // The smallest candidate set any single filter can provide, or null when no filter is set
+        Slice narrowestSlice(ResultQuery query, String type) {
+            Slice best = null;
+            if (type != null) {
+                best = narrower(best, whole(byType.get(type)));
+            }
+            if (query.getMinVolume() != null) {
+                Entry[] volumes = sorted.get(SortKey.VOLUME);
+                int from = firstNotBefore(volumes, Entry.probe(query.getMinVolume(), ""), SortKey.VOLUME);
+                best = narrower(best, new Slice(volumes, from, volumes.length));
+            }
+            if (query.getMaxDistancePct() != null) {
+                Entry[] distances = sorted.get(SortKey.DISTANCE);
+                int to = firstAfter(distances, Entry.probe(query.getMaxDistancePct(), "\uffff"), SortKey.DISTANCE);
+                best = narrower(best, new Slice(distances, 0, to));
+            }
+            if (query.getMaxZoneWidthPct() != null) {
+                Entry[] widths = sorted.get(SortKey.ZONE_WIDTH);
+                int to = firstAfter(widths, Entry.probe(query.getMaxZoneWidthPct(), "\uffff"), SortKey.ZONE_WIDTH);
+                best = narrower(best, new Slice(widths, 0, to));
+            }
+            return best;
+        }
+
+        private static Slice whole(Entry[] array) {
+            Entry[] safe = array != null ? array : new Entry[0];
+            return new Slice(safe, 0, safe.length);
+        }
+
+        private static Slice narrower(Slice current, Slice candidate) {
+            return current == null || candidate.size() < current.size() ? candidate : current;
+        }
+    }
+}
@@ -1,21 +1,54 @@
 package com.example.cryptoscannerbackend.service;
 
 import com.example.cryptoscannerbackend.controller.CryptoController;
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ScanParameters;
 import org.springframework.beans.factory.annotation.Autowired;
-// import org.springframework.scheduling.annotation.Scheduled; // Remove or comment out this import
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class ScanScheduler {
 
     @Autowired
     private CryptoController cryptoController;
 
+    @Autowired
+    private ScanService scanService;
+
+    @Autowired
+    private OrderBlockStreamService orderBlockStreamService;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private SharedScanSnapshots sharedScanSnapshots;
+
     // Schedule the scan to run every 4 hours (14400000 ms)
-    // This will update the `latestScanResults` in CryptoController periodically.
+    // This will update the latest results in ScanResultStore periodically.
     // @Scheduled(fixedRate = 14400000) // Comment out or remove this line
     public void scheduleFixedRateScan() {
         cryptoController.performScheduledScan();
     }
+
+    // Precompute cycle: one scan per interval that has live SSE subscribers, fanned out to all of them.
+    // Intervals nobody is streaming are skipped so idle nodes spend no upstream weight.
+    // With leader election on, only the leader scans (covering intervals subscribed on any node) and shares
+    // each cycle through the database; the other nodes pick it up in SharedScanSnapshots.
+    @Scheduled(fixedDelayString = "${scan.precompute.fixed-delay-ms:60000}", initialDelayString = "${scan.precompute.initial-delay-ms:60000}")
+    public void precomputeSubscribedIntervals() {
+        if (!leaderElection.isLeader()) {
+            return;
+        }
+        for (String interval : sharedScanSnapshots.getRequestedIntervals()) {
+            List<OrderBlockResult> results = scanService.performScheduledScan(interval);
+            if (!results.isEmpty()) {
+                orderBlockStreamService.publishCycle(interval, results);
+                sharedScanSnapshots.publish(interval, ScanParameters.scheduledDefaults().presetKey(), results);
+            }
+        }
+    }
 }
-    
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.CoinData;
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ScanJobView;
+import com.example.cryptoscannerbackend.model.ScanParameters;
+import com.example.cryptoscannerbackend.model.ScanTier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class ScanService {
+
+    @Autowired
+    private MarketDataSource marketDataSource;
+    @Autowired
+    private OrderBlockDetector orderBlockDetector;
+    @Autowired
+    private ScanResultStore scanResultStore;
+    @Autowired
+    private ScanResultCache scanResultCache;
+    @Autowired
+    private TieredScanScheduler tieredScanScheduler;
+    @Autowired
+    private PriceAlertService priceAlertService;
+    @Autowired
+    private ZoneProximityRanking zoneProximityRanking;
+    @Autowired
+    private ScanHistoryStore scanHistoryStore;
+    @Autowired
+    private CandleCache candleCache;
+    @Autowired
+    private ScanMetrics scanMetrics;
+
+    // Cached results are returned straight away; otherwise the scan is queued on the tier-aware scheduler and
+    // runs on the scan pool so the servlet thread is released while upstream calls are in flight.
+    // Throws ScanRejectedException when the scheduler sheds the scan.
+    public CompletableFuture<ScanSnapshot> scanAsync(ScanTier tier, int coinLimit, String interval, ScanParameters params) {
+        ScanResultCache.ScanLoader loader = () -> scan(coinLimit, interval, params);
+        ScanSnapshot cached = scanResultCache.getIfPresent(tier, interval, coinLimit, params, loader);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return tieredScanScheduler.submit(tier, () -> {
+            try {
+                return scanResultCache.get(tier, interval, coinLimit, params, loader);
+            } catch (IOException e) {
+                System.err.println("Error during one-time scan: " + e.getMessage());
+                e.printStackTrace();
+                return new ScanSnapshot(new ArrayList<>());
+            }
+        });
+    }
+
+    // ?profile=true: always scans (the result cache is bypassed so every stage runs) and returns the results with a
+    // per-stage breakdown. Still goes through the tier-aware scheduler, so it is shed like any other scan.
+    public CompletableFuture<ScanProfile> profileAsync(ScanTier tier, int coinLimit, String interval, ScanParameters params) {
+        return tieredScanScheduler.submit(tier, () -> {
+            ScanProfile profile = new ScanProfile(interval, coinLimit);
+            scanMetrics.bind(profile);
+            try {
+                profile.finish(scan(coinLimit, interval, params), null);
+            } catch (IOException e) {
+                System.err.println("Error during profiled scan: " + e.getMessage());
+                profile.finish(new ArrayList<>(), e.getMessage());
+            } finally {
+                scanMetrics.unbind();
+            }
+            return profile;
+        });
+    }
+
+    // Streaming (NDJSON) scan: admitted, queued and shed by the tier-aware scheduler like any other scan, so a
+    // ScanRejectedException is thrown here, before the response is committed. Each symbol's result (or a
+    // SymbolError) goes to the sink as soon as it is done; cancelling the future stops the scan.
+    public CompletableFuture<Void> streamAsync(ScanTier tier, int coinLimit, String interval, ScanParameters params, LineSink sink) {
+        return tieredScanScheduler.submit(tier, () -> {
+            List<CoinData> universe;
+            try {
+                universe = getUniverse(coinLimit);
+            } catch (IOException e) {
+                System.err.println("Error during streaming scan: " + e.getMessage());
+                sink.accept(new ScanJobView.SymbolError(null, "Failed to load top volume coins: " + e.getMessage()));
+                return null;
+            }
+            List<OrderBlockResult> scanned = new ArrayList<>();
+            try {
+                for (CoinData coin : universe) {
+                    OrderBlockResult result;
+                    try {
+                        result = scanCoin(coin, interval, params);
+                    } catch (IOException e) {
+                        System.err.println("Streaming scan: failed to scan " + coin.getId() + ": " + e.getMessage());
+                        sink.accept(new ScanJobView.SymbolError(coin.getId(), e.getMessage()));
+                        continue;
+                    }
+                    scanned.add(result);
+                    sink.accept(result);
+                }
+            } finally {
+                publishResults(interval, params, scanned);
+            }
+            return null;
+        });
+    }
+
+    public interface LineSink {
+        // Blocks while the client is behind; interrupted when the stream is cancelled
+        void accept(Object line) throws InterruptedException;
+    }
+
+    public List<OrderBlockResult> scan(int coinLimit, String interval, ScanParameters params) throws IOException {
+        List<OrderBlockResult> results = new ArrayList<>();
+        for (CoinData coin : getUniverse(coinLimit)) {
+            results.add(scanCoin(coin, interval, params));
+        }
+        publishResults(interval, params, results);
+        return results;
+    }
+
+    // Makes a finished (or partially finished) scan visible to result queries, price alerts and the
+    // closest-to-zone ranking in one step, and queues it for the persistent history
+    public void publishResults(String interval, ScanParameters params, List<OrderBlockResult> results) {
+        scanResultStore.publish(interval, params.presetKey(), results);
+        priceAlertService.onResultsPublished(interval, params.presetKey(), results);
+        zoneProximityRanking.onResultsPublished(interval, params.presetKey(), results);
+        scanHistoryStore.record(interval, params.presetKey(), results);
+    }
+
+    // Results another node scanned (shared precompute snapshots): visible here like a local scan, but not
+    // recorded to the shared history table a second time
+    public void applySharedResults(String interval, String preset, List<OrderBlockResult> results) {
+        scanResultStore.publish(interval, preset, results);
+        priceAlertService.onResultsPublished(interval, preset, results);
+        zoneProximityRanking.onResultsPublished(interval, preset, results);
+    }
+
+    public List<CoinData> getUniverse(int coinLimit) throws IOException {
+        long start = System.nanoTime();
+        List<CoinData> highVolumeCoins = marketDataSource.getTopVolumeFuturesCoins(coinLimit);
+        scanMetrics.recordStage(ScanMetrics.Stage.TICKER, null, System.nanoTime() - start);
+        System.out.println("Found " + highVolumeCoins.size() + " top volume futures coins.");
+        return highVolumeCoins;
+    }
+
+    // Fetches klines for one symbol and runs detection; callers publish the collected results when the scan ends
+    public OrderBlockResult scanCoin(CoinData coin, String interval, ScanParameters params) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return detect(coin, interval, params);
+        } finally {
+            scanMetrics.recordSymbol(coin.getId(), interval, System.nanoTime() - start);
+        }
+    }
+
+    private OrderBlockResult detect(CoinData coin, String interval, ScanParameters params) throws IOException {
+        List<BinanceApiClient.Candlestick> klines = candleCache.getCandles(coin.getId(), interval, 200);
+        if (klines != null && klines.size() >= OrderBlockDetector.WINDOW_SIZE) {
+            long detectStart = System.nanoTime();
+            OrderBlockResult result = orderBlockDetector.detectOrderBlock(
+                    coin, klines, interval, params.getMinBodyRatio(), params.getMinPriceChange(), params.getVolumeFactor(),
+                    params.isRequireBOS(), params.isRequireC3ClosePastC2(), params.isRequireFVG(), params.isRequireUnmitigated(), params.getMinFvgDepthRatio()
+            );
+            scanMetrics.recordStage(ScanMetrics.Stage.DETECTION, interval, System.nanoTime() - detectStart);
+            System.out.println("Scanned " + coin.getName() + " (" + coin.getId() + "): " + result.getOrderBlockType() + " at " + (result.getOrderBlockPrice() != null ? String.format("$%.2f", result.getOrderBlockPrice()) : "N/A"));
+            return result;
+        }
+        System.out.println("Not enough klines data for " + coin.getId() + " (found " + (klines != null ? klines.size() : 0) + "), skipping order block detection.");
+        OrderBlockResult noDataResult = new OrderBlockResult();
+        noDataResult.setId(coin.getId());
+        noDataResult.setName(coin.getName());
+        noDataResult.setCurrentPrice(coin.getCurrentPrice());
+        noDataResult.setVolume(coin.getVolume());
+        noDataResult.setTimestamp(LocalDateTime.now().atZone(ZoneId.systemDefault()).toLocalTime().toString());
+        noDataResult.setOrderBlockType("None");
+        noDataResult.setDetails("Insufficient candlestick data for analysis in scheduled scan.");
+        noDataResult.setTimeframe(interval);
+        return noDataResult;
+    }
+
+    // Background scan over the full 100-coin universe with the scheduled defaults
+    public List<OrderBlockResult> performScheduledScan(String interval) {
+        System.out.println("Performing scheduled background scan for order blocks on Binance Futures (" + interval + ")...");
+        try {
+            return scan(100, interval, ScanParameters.scheduledDefaults());
+        } catch (IOException e) {
+            System.err.println("Error during scheduled scan: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+}
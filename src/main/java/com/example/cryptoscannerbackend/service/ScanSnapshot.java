@@ -0,0 +1,28 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+// Results of one scan plus their encoded forms; each encoding is produced at most once and then served from memory
+public final class ScanSnapshot {
+
+    private final List<OrderBlockResult> results;
+    private final ConcurrentMap<MediaType, byte[]> encoded = new ConcurrentHashMap<>();
+
+    public ScanSnapshot(List<OrderBlockResult> results) {
+        this.results = List.copyOf(results);
+    }
+
+    public List<OrderBlockResult> getResults() {
+        return results;
+    }
+
+    public byte[] encoded(MediaType type, Function<List<OrderBlockResult>, byte[]> encoder) {
+        return encoded.computeIfAbsent(type, t -> encoder.apply(results));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Precompute results shared between instances through the database when leader election is on. The leader writes
+ * each cycle to scan_shared_snapshots, fenced by its lease epoch so a deposed leader's late write is rejected.
+ * The other nodes poll for versions they haven't applied and publish them locally (result store, alerts, ranking
+ * and their own SSE subscribers) as if they had scanned. Every node also reports the intervals its SSE clients
+ * subscribe to in scan_node_interest, and the leader precomputes the union.
+ */
+@Service
+public class SharedScanSnapshots {
+
+    private static final String TABLE = "scan_shared_snapshots";
+    private static final String INTEREST_TABLE = "scan_node_interest";
+    // The write only goes through while the writer still holds the lease at the epoch it was elected with
+    private static final String FENCE = "EXISTS (SELECT 1 FROM " + LeaderElection.TABLE + " WHERE name = '" + LeaderElection.LEASE + "' AND holder = ? AND epoch = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private LeaderElection leaderElection;
+    @Autowired
+    private ScanService scanService;
+    @Autowired
+    private OrderBlockStreamService orderBlockStreamService;
+
+    @Value("${scan.leader.lease-ms:15000}")
+    private long leaseMs;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // interval -> version applied (or written) by this node
+    private final ConcurrentMap<String, Long> appliedVersions = new ConcurrentHashMap<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder fenced = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (!leaderElection.isEnabled()) {
+            return;
+        }
+        LeaderElection.createTableIfMissing(jdbcTemplate, "CREATE TABLE IF NOT EXISTS " + TABLE + " (timeframe VARCHAR(8) PRIMARY KEY, preset VARCHAR(64) NOT NULL,"
+                + " epoch BIGINT NOT NULL, version BIGINT NOT NULL, published_at BIGINT NOT NULL, result_count INT NOT NULL, payload BYTEA NOT NULL)");
+        LeaderElection.createTableIfMissing(jdbcTemplate, "CREATE TABLE IF NOT EXISTS " + INTEREST_TABLE + " (node_id VARCHAR(128) NOT NULL, timeframe VARCHAR(8) NOT NULL,"
+                + " updated_at BIGINT NOT NULL, PRIMARY KEY (node_id, timeframe))");
+    }
+
+    // Intervals the precompute cycle should cover: subscribed here, or on any node that reported within a lease time
+    public Set<String> getRequestedIntervals() {
+        Set<String> intervals = new HashSet<>(orderBlockStreamService.getSubscribedIntervals());
+        if (!leaderElection.isEnabled()) {
+            return intervals;
+        }
+        try {
+            intervals.addAll(jdbcTemplate.queryForList("SELECT DISTINCT timeframe FROM " + INTEREST_TABLE + " WHERE updated_at >= ?",
+                    String.class, leaderElection.databaseTime() - leaseMs));
+        } catch (DataAccessException e) {
+            failures.increment();
+            System.err.println("Failed to read subscribed intervals of other nodes: " + e.getMessage());
+        }
+        return intervals;
+    }
+
+    // Leader side, after each precompute scan; returns false if the write was fenced off or failed
+    public boolean publish(String interval, String preset, List<OrderBlockResult> results) {
+        if (!leaderElection.isEnabled()) {
+            return true;
+        }
+        long epoch = leaderElection.getEpoch();
+        String nodeId = leaderElection.getNodeId();
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(results);
+            long now = System.currentTimeMillis();
+            int written = jdbcTemplate.update("UPDATE " + TABLE + " SET preset = ?, epoch = ?, version = version + 1, published_at = ?,"
+                            + " result_count = ?, payload = ? WHERE timeframe = ? AND " + FENCE,
+                    preset, epoch, now, results.size(), payload, interval, nodeId, epoch);
+            if (written == 0) {
+                try {
+                    written = jdbcTemplate.update("INSERT INTO " + TABLE + " (timeframe, preset, epoch, version, published_at, result_count, payload)"
+                                    + " SELECT ?, ?, ?, 1, ?, ?, ? FROM " + LeaderElection.TABLE + " WHERE name = ? AND holder = ? AND epoch = ?",
+                            interval, preset, epoch, now, results.size(), payload, LeaderElection.LEASE, nodeId, epoch);
+                } catch (DuplicateKeyException e) {
+                    written = 0; // the row exists, so the update above was fenced
+                }
+            }
+            if (written == 0) {
+                fenced.increment();
+                System.err.println("Shared " + interval + " snapshot from node " + nodeId + " rejected: epoch " + epoch + " no longer holds the lease.");
+                return false;
+            }
+            published.increment();
+            // Not to be applied again if this node turns follower
+            appliedVersions.put(interval, jdbcTemplate.queryForObject("SELECT version FROM " + TABLE + " WHERE timeframe = ?", Long.class, interval));
+            return true;
+        } catch (IOException | DataAccessException e) {
+            failures.increment();
+            System.err.println("Failed to share the " + interval + " snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Follower side: applies snapshots the leader published since the last poll
+    @Scheduled(fixedDelayString = "${scan.leader.poll-ms:5000}", initialDelayString = "${scan.leader.poll-ms:5000}")
+    public void poll() {
+        if (!leaderElection.isEnabled() || leaderElection.isLeader()) {
+            return;
+        }
+        try {
+            for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT timeframe, version FROM " + TABLE)) {
+                String interval = (String) row.get("timeframe");
+                long version = ((Number) row.get("version")).longValue();
+                if (!Long.valueOf(version).equals(appliedVersions.get(interval))) {
+                    apply(interval);
+                }
+            }
+        } catch (IOException | DataAccessException e) {
+            failures.increment();
+            System.err.println("Failed to apply shared scan snapshots: " + e.getMessage());
+        }
+    }
+
+    private void apply(String interval) throws IOException {
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT preset, version, payload FROM " + TABLE + " WHERE timeframe = ?", interval);
+        List<OrderBlockResult> results = objectMapper.readValue((byte[]) row.get("payload"), new TypeReference<List<OrderBlockResult>>() { });
+        scanService.applySharedResults(interval, (String) row.get("preset"), results);
+        if (!results.isEmpty()) {
+            orderBlockStreamService.publishCycle(interval, results);
+        }
+        appliedVersions.put(interval, ((Number) row.get("version")).longValue());
+        applied.increment();
+    }
+
+    // Every node reports what its SSE clients subscribe to; rows it no longer refreshes age out after a lease time
+    @Scheduled(fixedDelayString = "${scan.leader.renew-ms:5000}")
+    public void reportInterest() {
+        if (!leaderElection.isEnabled()) {
+            return;
+        }
+        String nodeId = leaderElection.getNodeId();
+        try {
+            long now = leaderElection.databaseTime();
+            for (String interval : orderBlockStreamService.getSubscribedIntervals()) {
+                if (jdbcTemplate.update("UPDATE " + INTEREST_TABLE + " SET updated_at = ? WHERE node_id = ? AND timeframe = ?", now, nodeId, interval) == 0) {
+                    jdbcTemplate.update("INSERT INTO " + INTEREST_TABLE + " (node_id, timeframe, updated_at) VALUES (?, ?, ?)", nodeId, interval, now);
+                }
+            }
+            jdbcTemplate.update("DELETE FROM " + INTEREST_TABLE + " WHERE (node_id = ? AND updated_at < ?) OR updated_at < ?", nodeId, now, now - 10 * leaseMs);
+        } catch (DataAccessException e) {
+            failures.increment();
+            System.err.println("Failed to report subscribed intervals: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("published", published.sum());
+        stats.put("fenced", fenced.sum());
+        stats.put("applied", applied.sum());
+        stats.put("failures", failures.sum());
+        stats.put("appliedVersions", Map.copyOf(appliedVersions));
+        return stats;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.cryptoscannerbackend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Polls the futures ticker for the last price of every symbol and fans the batch out to all
+ * {@link PriceTickListener}s. Only prices that changed since the previous poll are forwarded.
+ * <p>
+ * Unlike the precompute cycle this runs on every node, leader or not. Each node's listeners (alerts, zone ranking)
+ * need prices within one poll of the market. Relaying them through the database would add a write every poll plus
+ * the followers' poll delay. /ticker/price is a single low-weight request, and Binance limits weight per IP, so
+ * nodes on separate addresses don't share a budget.
+ */
+@Service
+public class TickerSnapshotService {
+
+    @Autowired
+    private MarketDataSource marketDataSource;
+    @Autowired
+    private List<PriceTickListener> listeners;
+
+    private volatile Map<String, Double> lastPrices = Map.of();
+
+    @Scheduled(fixedDelayString = "${scan.ticker.poll-ms:2000}", initialDelayString = "${scan.ticker.initial-delay-ms:5000}")
+    public void pollTicker() {
+        Map<String, Double> prices;
+        try {
+            prices = marketDataSource.getTickerPrices();
+        } catch (IOException e) {
+            System.err.println("Ticker poll failed: " + e.getMessage());
+            return;
+        }
+        publish(prices);
+    }
+
+    // Entry point for pushed prices as well as polled ones
+    public synchronized void publish(Map<String, Double> prices) {
+        Map<String, Double> previous = lastPrices;
+        Map<String, Double> changed = new HashMap<>();
+        prices.forEach((symbol, price) -> {
+            if (!price.equals(previous.get(symbol))) {
+                changed.put(symbol, price);
+            }
+        });
+        if (changed.isEmpty()) {
+            return;
+        }
+        Map<String, Double> merged = new HashMap<>(previous);
+        merged.putAll(changed);
+        lastPrices = merged;
+
+        Map<String, Double> batch = Map.copyOf(changed);
+        for (PriceTickListener listener : listeners) {
+            try {
+                listener.onPriceTicks(batch);
+            } catch (RuntimeException e) {
+                System.err.println("Price tick listener " + listener.getClass().getSimpleName() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Double> getLastPrices() {
+        return lastPrices;
+    }
+
+    public Optional<Double> getLastPrice(String symbol) {
+        return Optional.ofNullable(lastPrices.get(symbol));
+    }
+}
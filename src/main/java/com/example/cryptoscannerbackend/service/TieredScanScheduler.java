@@ -0,0 +1,251 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.ScanTier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for interactive scans. Each tier has a bounded queue and a concurrency cap, and a free
+ * slot always goes to a waiting premium scan before a trial scan. When a tier's queue is full, or the
+ * estimated wait would exceed the configured limit, the scan is shed with a {@link ScanRejectedException}
+ * carrying a retry hint instead of waiting until the request times out.
+ */
+@Service
+public class TieredScanScheduler {
+
+    private static final long MAX_RETRY_AFTER_SECONDS = 300;
+
+    @Autowired
+    @Qualifier("scanExecutor")
+    private AsyncTaskExecutor scanExecutor;
+
+    @Value("${scan.scheduler.max-concurrent:6}")
+    private int maxConcurrent;
+
+    @Value("${scan.scheduler.premium.max-concurrent:6}")
+    private int premiumMaxConcurrent;
+
+    @Value("${scan.scheduler.trial.max-concurrent:2}")
+    private int trialMaxConcurrent;
+
+    @Value("${scan.scheduler.premium.queue-capacity:50}")
+    private int premiumQueueCapacity;
+
+    @Value("${scan.scheduler.trial.queue-capacity:20}")
+    private int trialQueueCapacity;
+
+    @Value("${scan.scheduler.max-estimated-wait-ms:60000}")
+    private long maxEstimatedWaitMs;
+
+    @Value("${scan.scheduler.default-retry-after-seconds:5}")
+    private long defaultRetryAfterSeconds;
+
+    private final Map<ScanTier, TierState> tiers = new EnumMap<>(ScanTier.class);
+    private int running; // guarded by this
+
+    public TieredScanScheduler() {
+        for (ScanTier tier : ScanTier.values()) {
+            tiers.put(tier, new TierState());
+        }
+    }
+
+    /**
+     * Queues the work for its tier and returns a future for its result. Cancelling the future removes a queued
+     * scan or interrupts a running one.
+     */
+    public <T> CompletableFuture<T> submit(ScanTier tier, Callable<T> work) {
+        TierState state = tiers.get(tier);
+        QueuedScan<T> scan = new QueuedScan<>(tier, work);
+        synchronized (this) {
+            boolean queueFull = state.queue.size() >= queueCapacity(tier);
+            boolean mustWait = running >= maxConcurrent || state.running >= maxConcurrent(tier);
+            if (queueFull || (mustWait && estimatedWaitMs(tier, state) > maxEstimatedWaitMs)) {
+                state.shed.increment();
+                long retryAfter = retryAfterSeconds(tier, state);
+                System.out.println("Shedding " + tier + " scan: " + state.queue.size() + " queued, " + state.running + " running. Retry after " + retryAfter + "s.");
+                throw new ScanRejectedException(tier, retryAfter);
+            }
+            state.submitted.increment();
+            state.queue.add(scan);
+        }
+        scan.result.whenComplete((value, error) -> {
+            if (scan.result.isCancelled()) {
+                onCancelled(scan);
+            }
+        });
+        dispatch();
+        return scan.result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("running", running);
+            stats.put("maxConcurrent", maxConcurrent);
+            for (ScanTier tier : ScanTier.values()) {
+                TierState state = tiers.get(tier);
+                Map<String, Object> tierStats = new LinkedHashMap<>();
+                tierStats.put("running", state.running);
+                tierStats.put("queued", state.queue.size());
+                tierStats.put("maxConcurrent", maxConcurrent(tier));
+                tierStats.put("queueCapacity", queueCapacity(tier));
+                tierStats.put("submitted", state.submitted.sum());
+                tierStats.put("shed", state.shed.sum());
+                long started = state.started.sum();
+                tierStats.put("avgQueueWaitMs", started == 0 ? 0 : state.totalQueueWaitMs.sum() / started);
+                tierStats.put("maxQueueWaitMs", state.maxQueueWaitMs);
+                tierStats.put("avgRunMs", Math.round(state.avgRunMs));
+                stats.put(tier.name().toLowerCase(), tierStats);
+            }
+        }
+        return stats;
+    }
+
+    // Starts queued scans while there are free slots; tiers are polled in priority order (declaration order of ScanTier)
+    private void dispatch() {
+        List<QueuedScan<?>> ready = new ArrayList<>();
+        synchronized (this) {
+            while (running < maxConcurrent) {
+                QueuedScan<?> next = pollNext();
+                if (next == null) {
+                    break;
+                }
+                running++;
+                tiers.get(next.tier).running++;
+                ready.add(next);
+            }
+        }
+        for (QueuedScan<?> scan : ready) {
+            start(scan);
+        }
+    }
+
+    private QueuedScan<?> pollNext() {
+        for (ScanTier tier : ScanTier.values()) {
+            TierState state = tiers.get(tier);
+            if (!state.queue.isEmpty() && state.running < maxConcurrent(tier)) {
+                return state.queue.poll();
+            }
+        }
+        return null;
+    }
+
+    private <T> void start(QueuedScan<T> scan) {
+        long waitMs = System.currentTimeMillis() - scan.enqueuedAt;
+        TierState state = tiers.get(scan.tier);
+        state.started.increment();
+        state.totalQueueWaitMs.add(waitMs);
+        synchronized (this) {
+            state.maxQueueWaitMs = Math.max(state.maxQueueWaitMs, waitMs);
+        }
+        try {
+            scanExecutor.execute(() -> run(scan));
+        } catch (TaskRejectedException e) {
+            release(scan.tier, -1);
+            scan.result.completeExceptionally(new ScanRejectedException(scan.tier, defaultRetryAfterSeconds));
+        }
+    }
+
+    private <T> void run(QueuedScan<T> scan) {
+        long startedAt = System.currentTimeMillis();
+        try {
+            synchronized (scan) {
+                if (scan.result.isDone()) {
+                    return; // cancelled between dispatch and execution
+                }
+                scan.thread = Thread.currentThread();
+            }
+            scan.result.complete(scan.work.call());
+        } catch (Throwable e) {
+            scan.result.completeExceptionally(e);
+        } finally {
+            synchronized (scan) {
+                scan.thread = null;
+            }
+            Thread.interrupted(); // do not leak a cancellation interrupt into the next pooled task
+            release(scan.tier, System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    private void release(ScanTier tier, long runMs) {
+        synchronized (this) {
+            running--;
+            TierState state = tiers.get(tier);
+            state.running--;
+            if (runMs >= 0) {
+                state.avgRunMs = state.avgRunMs == 0 ? runMs : state.avgRunMs * 0.8 + runMs * 0.2;
+            }
+        }
+        dispatch();
+    }
+
+    private void onCancelled(QueuedScan<?> scan) {
+        synchronized (this) {
+            tiers.get(scan.tier).queue.remove(scan);
+        }
+        synchronized (scan) {
+            if (scan.thread != null) {
+                scan.thread.interrupt();
+            }
+        }
+    }
+
+    // Time until a newly queued scan of this tier would start, from the recent average run time
+    private long estimatedWaitMs(ScanTier tier, TierState state) {
+        return Math.round(state.avgRunMs * (state.queue.size() + 1) / Math.max(1, Math.min(maxConcurrent, maxConcurrent(tier))));
+    }
+
+    private long retryAfterSeconds(ScanTier tier, TierState state) {
+        if (state.avgRunMs == 0) {
+            return defaultRetryAfterSeconds;
+        }
+        long seconds = (estimatedWaitMs(tier, state) + 999) / 1000;
+        return Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS, seconds));
+    }
+
+    private int maxConcurrent(ScanTier tier) {
+        return tier == ScanTier.PREMIUM ? premiumMaxConcurrent : trialMaxConcurrent;
+    }
+
+    private int queueCapacity(ScanTier tier) {
+        return tier == ScanTier.PREMIUM ? premiumQueueCapacity : trialQueueCapacity;
+    }
+
+    private static final class TierState {
+        final ArrayDeque<QueuedScan<?>> queue = new ArrayDeque<>();
+        final LongAdder submitted = new LongAdder();
+        final LongAdder started = new LongAdder();
+        final LongAdder shed = new LongAdder();
+        final LongAdder totalQueueWaitMs = new LongAdder();
+        int running;          // guarded by the scheduler
+        long maxQueueWaitMs;  // guarded by the scheduler
+        double avgRunMs;      // exponentially weighted, guarded by the scheduler
+    }
+
+    private static final class QueuedScan<T> {
+        final ScanTier tier;
+        final Callable<T> work;
+        final long enqueuedAt = System.currentTimeMillis();
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        Thread thread; // guarded by this
+
+        QueuedScan(ScanTier tier, Callable<T> work) {
+            this.tier = tier;
+            this.work = work;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.cryptoscannerbackend.service;
 
 import com.example.cryptoscannerbackend.model.ERole;
+import com.example.cryptoscannerbackend.model.EntitlementChange;
 import com.example.cryptoscannerbackend.model.User;
+import com.example.cryptoscannerbackend.model.UserSummary;
 import com.example.cryptoscannerbackend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List; // Import List
 import java.util.Map;
@@ -20,17 +26,19 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntitlementCache entitlementCache;
+
     public Map<String, Object> getUserStatus(String username) {
-        Optional<User> userOptional = userRepository.findByUsername(username);
-        if (userOptional.isPresent()) {
-            User user = userOptional.get();
+        // Served from the entitlement cache; plan changes below invalidate it
+        EntitlementCache.Entitlement entitlement = entitlementCache.get(username);
+        if (entitlement != null) {
             Map<String, Object> status = new HashMap<>();
-            status.put("username", user.getUsername());
-            status.put("isPremium", user.isPremium());
-            boolean trialActive = user.getTrialEndDate() != null && user.getTrialEndDate().isAfter(LocalDateTime.now());
-            status.put("trialActive", trialActive);
-            status.put("trialExpiryDate", user.getTrialEndDate() != null ? user.getTrialEndDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null);
-            status.put("roles", user.getRoles());
+            status.put("username", entitlement.getUsername());
+            status.put("isPremium", entitlement.isPremium());
+            status.put("trialActive", entitlement.isTrialActive());
+            status.put("trialExpiryDate", entitlement.getTrialEndDate() != null ? entitlement.getTrialEndDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null);
+            status.put("roles", entitlement.getRoles());
             return status;
         }
         return new HashMap<>();
@@ -51,6 +59,7 @@ public class UserService {
             user.setRoles(roles);
 
             userRepository.save(user);
+            entitlementCache.invalidate(username);
             System.out.println("Granted premium access to user: " + username);
             return true;
         }
@@ -71,6 +80,7 @@ public class UserService {
             user.setRoles(roles);
 
             userRepository.save(user);
+            entitlementCache.invalidate(username);
             System.out.println("Revoked premium access from user: " + username);
             return true;
         }
@@ -92,12 +102,45 @@ public class UserService {
             user.setRoles(roles);
 
             userRepository.save(user);
+            entitlementCache.invalidate(username);
             System.out.println("Activated " + trialDays + "-day trial for user: " + username);
             return true;
         }
         return false;
     }
 
+    // Keyset page for the admin listing: users after the cursor id, roles included, no password hashes
+    public List<UserSummary> getUserPage(String tier, LocalDateTime trialExpiresBefore, Long afterId, int limit) {
+        return userRepository.findSummaries(tier, trialExpiresBefore, afterId, limit, LocalDateTime.now());
+    }
+
+    public Map<String, Long> getTierCounts() {
+        return userRepository.countByTier(LocalDateTime.now());
+    }
+
+    /**
+     * Applies one entitlement change to every user matching the usernames and/or filters in a single transaction of
+     * set-based statements. Cached entitlements of the affected users are dropped once the transaction has committed,
+     * so a concurrent request can't re-cache the old plan. Returns the usernames that were changed.
+     */
+    @Transactional
+    public Collection<String> bulkUpdateEntitlements(Collection<String> usernames, String tier, LocalDateTime trialExpiresBefore, EntitlementChange change) {
+        Map<Long, String> targets = userRepository.findIdsByFilter(usernames, tier, trialExpiresBefore, LocalDateTime.now());
+        if (targets.isEmpty()) {
+            return List.of();
+        }
+        userRepository.applyEntitlementChange(targets.keySet(), change);
+
+        Collection<String> changed = List.copyOf(targets.values());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changed.forEach(entitlementCache::invalidate);
+            }
+        });
+        return changed;
+    }
+
     // NEW METHOD: Get all users from the repository
     public List<User> getAllUsers() {
         return userRepository.findAll(); // JpaRepository provides findAll()
@@ -0,0 +1,305 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the node's in-memory market state (cached candles, last ticker prices and the latest scan results) to a
+ * compact binary file at shutdown and periodically, and maps it back in at startup. A restored node answers from
+ * warm caches immediately; candles are then only topped up with what was missed while it was down (see
+ * {@link CandleCache}). Snapshots older than the configured age are ignored.
+ */
+@Service
+public class WarmStartSnapshotService {
+
+    private static final int MAGIC = 0x43435331; // "CCS1"
+    private static final int VERSION = 1;
+
+    @Autowired
+    private CandleCache candleCache;
+    @Autowired
+    private TickerSnapshotService tickerSnapshotService;
+    @Autowired
+    private ScanResultStore scanResultStore;
+    @Autowired
+    private PriceAlertService priceAlertService;
+    @Autowired
+    private ZoneProximityRanking zoneProximityRanking;
+
+    @Value("${scan.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${scan.snapshot.path:${java.io.tmpdir}/ccscanner-warm-start.bin}")
+    private String path;
+
+    @Value("${scan.snapshot.max-age-ms:21600000}")
+    private long maxAgeMs;
+
+    private volatile long lastWrittenAt;
+    private volatile long lastRestoredAt;
+    private volatile String lastRestoreSummary = "none";
+
+    @PostConstruct
+    public void restoreOnStartup() {
+        if (enabled) {
+            restore();
+        }
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        if (enabled) {
+            write();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scan.snapshot.interval-ms:300000}", initialDelayString = "${scan.snapshot.interval-ms:300000}")
+    public void writePeriodically() {
+        if (enabled) {
+            write();
+        }
+    }
+
+    // Written to a temporary file and moved into place, so a crash mid-write never leaves a torn snapshot
+    public synchronized boolean write() {
+        Path target = Paths.get(path);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long start = System.currentTimeMillis();
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            Map<String, List<BinanceApiClient.Candlestick>> candles = candleCache.export();
+            Map<String, Double> prices = tickerSnapshotService.getLastPrices();
+            List<ScanResultStore.StoredResult> results = scanResultStore.exportStored();
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(start);
+
+                out.writeInt(candles.size());
+                for (Map.Entry<String, List<BinanceApiClient.Candlestick>> series : candles.entrySet()) {
+                    writeString(out, CandleCache.symbolOf(series.getKey()));
+                    writeString(out, CandleCache.intervalOf(series.getKey()));
+                    out.writeInt(series.getValue().size());
+                    for (BinanceApiClient.Candlestick c : series.getValue()) {
+                        out.writeLong(c.getOpenTime());
+                        out.writeDouble(c.getOpen());
+                        out.writeDouble(c.getHigh());
+                        out.writeDouble(c.getLow());
+                        out.writeDouble(c.getClose());
+                        out.writeDouble(c.getVolume());
+                    }
+                }
+
+                out.writeInt(prices.size());
+                for (Map.Entry<String, Double> price : prices.entrySet()) {
+                    writeString(out, price.getKey());
+                    out.writeDouble(price.getValue());
+                }
+
+                out.writeInt(results.size());
+                for (ScanResultStore.StoredResult stored : results) {
+                    writeString(out, stored.getInterval());
+                    writeString(out, stored.getPreset());
+                    out.writeLong(stored.getStoredAt());
+                    writeResult(out, stored.getResult());
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastWrittenAt = start;
+            System.out.println("Warm-start snapshot written: " + candles.size() + " candle series, " + prices.size() + " prices, "
+                    + results.size() + " results in " + (System.currentTimeMillis() - start) + " ms (" + Files.size(target) + " bytes).");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to write warm-start snapshot to " + target + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // best effort
+            }
+            return false;
+        }
+    }
+
+    // Maps the file read-only and restores whatever it contains; a missing, stale or corrupt file is skipped
+    public synchronized boolean restore() {
+        Path source = Paths.get(path);
+        if (!Files.isRegularFile(source)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 16 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                System.err.println("Ignoring warm-start snapshot " + source + ": unknown format.");
+                return false;
+            }
+            long writtenAt = buffer.getLong();
+            long age = start - writtenAt;
+            if (age > maxAgeMs || age < 0) {
+                System.out.println("Ignoring warm-start snapshot " + source + ": " + age / 1000 + " s old.");
+                return false;
+            }
+
+            int seriesCount = buffer.getInt();
+            for (int i = 0; i < seriesCount; i++) {
+                String symbol = readString(buffer);
+                String interval = readString(buffer);
+                int n = buffer.getInt();
+                List<BinanceApiClient.Candlestick> candles = new ArrayList<>(n);
+                for (int j = 0; j < n; j++) {
+                    candles.add(new BinanceApiClient.Candlestick(buffer.getLong(), buffer.getDouble(), buffer.getDouble(),
+                            buffer.getDouble(), buffer.getDouble(), buffer.getDouble()));
+                }
+                candleCache.restore(symbol, interval, candles);
+            }
+
+            int priceCount = buffer.getInt();
+            Map<String, Double> prices = new HashMap<>(priceCount * 2);
+            for (int i = 0; i < priceCount; i++) {
+                prices.put(readString(buffer), buffer.getDouble());
+            }
+
+            int resultCount = buffer.getInt();
+            List<ScanResultStore.StoredResult> stored = new ArrayList<>(resultCount);
+            for (int i = 0; i < resultCount; i++) {
+                String interval = readString(buffer);
+                String preset = readString(buffer);
+                long storedAt = buffer.getLong();
+                stored.add(new ScanResultStore.StoredResult(interval, preset, readResult(buffer), storedAt));
+            }
+
+            // Results first so alerts and the ranking have zones when the restored prices arrive
+            scanResultStore.restore(stored);
+            Map<String, List<OrderBlockResult>> bySlot = new LinkedHashMap<>();
+            for (ScanResultStore.StoredResult s : stored) {
+                bySlot.computeIfAbsent(s.getInterval() + "|" + s.getPreset(), k -> new ArrayList<>()).add(s.getResult());
+            }
+            bySlot.forEach((slot, results) -> {
+                String interval = slot.substring(0, slot.indexOf('|'));
+                String preset = slot.substring(slot.indexOf('|') + 1);
+                priceAlertService.onResultsPublished(interval, preset, results);
+                zoneProximityRanking.onResultsPublished(interval, preset, results);
+            });
+            if (!prices.isEmpty()) {
+                tickerSnapshotService.publish(prices);
+            }
+
+            lastRestoredAt = start;
+            lastRestoreSummary = seriesCount + " candle series, " + priceCount + " prices, " + resultCount + " results from a snapshot "
+                    + age / 1000 + " s old";
+            System.out.println("Warm-start snapshot restored in " + (System.currentTimeMillis() - start) + " ms: " + lastRestoreSummary + ".");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to restore warm-start snapshot from " + source + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("path", path);
+        stats.put("lastWrittenAt", lastWrittenAt);
+        stats.put("lastRestoredAt", lastRestoredAt);
+        stats.put("lastRestore", lastRestoreSummary);
+        stats.put("candles", candleCache.getStats());
+        return stats;
+    }
+
+    // Strings are length-prefixed UTF-8 (length -1 for null) so they can be read straight off the mapped buffer
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeNullableDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static Double readNullableDouble(ByteBuffer buffer) {
+        return buffer.get() != 0 ? buffer.getDouble() : null;
+    }
+
+    private static void writeResult(DataOutputStream out, OrderBlockResult result) throws IOException {
+        writeString(out, result.getId());
+        writeString(out, result.getName());
+        out.writeDouble(result.getCurrentPrice());
+        writeString(out, result.getVolume());
+        writeString(out, result.getOrderBlockType());
+        writeNullableDouble(out, result.getOrderBlockPrice());
+        writeString(out, result.getDetails());
+        writeString(out, result.getTimestamp());
+        writeString(out, result.getTimeframe());
+        writeNullableDouble(out, result.getObCandleOpen());
+        writeNullableDouble(out, result.getObCandleHigh());
+        writeNullableDouble(out, result.getObCandleLow());
+        writeNullableDouble(out, result.getObCandleClose());
+        writeNullableDouble(out, result.getObZoneStart());
+        writeNullableDouble(out, result.getObZoneEnd());
+    }
+
+    private static OrderBlockResult readResult(ByteBuffer buffer) {
+        OrderBlockResult result = new OrderBlockResult();
+        result.setId(readString(buffer));
+        result.setName(readString(buffer));
+        result.setCurrentPrice(buffer.getDouble());
+        result.setVolume(readString(buffer));
+        result.setOrderBlockType(readString(buffer));
+        result.setOrderBlockPrice(readNullableDouble(buffer));
+        result.setDetails(readString(buffer));
+        result.setTimestamp(readString(buffer));
+        result.setTimeframe(readString(buffer));
+        result.setObCandleOpen(readNullableDouble(buffer));
+        result.setObCandleHigh(readNullableDouble(buffer));
+        result.setObCandleLow(readNullableDouble(buffer));
+        result.setObCandleClose(readNullableDouble(buffer));
+        result.setObZoneStart(readNullableDouble(buffer));
+        result.setObZoneEnd(readNullableDouble(buffer));
+        return result;
+    }
+}
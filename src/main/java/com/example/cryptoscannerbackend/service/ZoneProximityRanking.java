@@ -0,0 +1,199 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ScanParameters;
+import com.example.cryptoscannerbackend.model.ZoneDistance;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Continuously maintained ranking of symbols by how close the current price is to their order block zone,
+ * per interval and zone type. Only the scheduled and default presets are ranked, each on its own, and reads use
+ * the scheduled one when it exists, as result queries without a preset do; custom-parameter scans never reach
+ * the shared ranking. Entries live in skip lists ordered by (distance, symbol) and are moved
+ * individually when a price tick or a newly published result changes one symbol, so a top-N read walks
+ * only N entries and never sorts. Zones price has traded through drop out of the ranking.
+ */
+@Service
+public class ZoneProximityRanking implements PriceTickListener {
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final Comparator<Ranked> ORDER = Comparator.comparingDouble((Ranked r) -> r.distancePct).thenComparing(r -> r.symbol);
+
+    private final ConcurrentMap<String, IntervalRanking> byIntervalAndPreset = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Double> lastPrices = new ConcurrentHashMap<>();
+
+    public void onResultsPublished(String interval, String preset, Collection<OrderBlockResult> results) {
+        if (!ScanParameters.isCanonicalPreset(preset)) {
+            return;
+        }
+        IntervalRanking ranking = byIntervalAndPreset.computeIfAbsent(interval + "|" + preset, k -> new IntervalRanking());
+        for (OrderBlockResult result : results) {
+            if (result.getId() == null) {
+                continue;
+            }
+            Double tickPrice = lastPrices.get(result.getId());
+            ranking.replaceZone(result, tickPrice != null ? tickPrice : result.getCurrentPrice(), interval);
+        }
+    }
+
+    @Override
+    public void onPriceTicks(Map<String, Double> prices) {
+        prices.forEach((symbol, price) -> {
+            lastPrices.put(symbol, price);
+            for (IntervalRanking ranking : byIntervalAndPreset.values()) {
+                ranking.reprice(symbol, price);
+            }
+        });
+    }
+
+    /**
+     * The closest zones for an interval; type is "bullish", "bearish" or null/"any" for both.
+     */
+    public List<ZoneDistance> top(String interval, String type, int limit) {
+        return top(interval, type, limit, null);
+    }
+
+    // Same, counting only the given symbols (null for all), e.g. the universe a trial user may see
+    public List<ZoneDistance> top(String interval, String type, int limit, Set<String> symbols) {
+        IntervalRanking ranking = byIntervalAndPreset.get(interval + "|" + ScanParameters.SCHEDULED_PRESET);
+        if (ranking == null) {
+            ranking = byIntervalAndPreset.get(interval + "|" + ScanParameters.DEFAULT_PRESET);
+        }
+        int n = Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (ranking == null) {
+            return List.of();
+        }
+        String normalized = ScanResultStore.normalizeType(type);
+        List<ZoneDistance> top = new ArrayList<>(n);
+        if (ScanResultStore.BULLISH.equals(normalized)) {
+            ranking.collect(ranking.bullish.iterator(), null, symbols, n, top);
+        } else if (ScanResultStore.BEARISH.equals(normalized)) {
+            ranking.collect(ranking.bearish.iterator(), null, symbols, n, top);
+        } else {
+            ranking.collect(ranking.bullish.iterator(), ranking.bearish.iterator(), symbols, n, top);
+        }
+        return top;
+    }
+
+    private static final class IntervalRanking {
+        final ConcurrentMap<String, Ranked> current = new ConcurrentHashMap<>();
+        final ConcurrentSkipListSet<Ranked> bullish = new ConcurrentSkipListSet<>(ORDER);
+        final ConcurrentSkipListSet<Ranked> bearish = new ConcurrentSkipListSet<>(ORDER);
+
+        synchronized void replaceZone(OrderBlockResult result, double price, String interval) {
+            String type = result.getOrderBlockType();
+            boolean zoned = (ScanResultStore.BULLISH.equals(type) || ScanResultStore.BEARISH.equals(type))
+                    && result.getObZoneStart() != null && result.getObZoneEnd() != null;
+            Ranked next = zoned ? Ranked.of(result.getId(), interval, type, result.getObZoneStart(), result.getObZoneEnd(), price) : null;
+            swap(result.getId(), next);
+        }
+
+        synchronized void reprice(String symbol, double price) {
+            Ranked previous = current.get(symbol);
+            if (previous != null && previous.price != price) {
+                swap(symbol, previous.withPrice(price));
+            }
+        }
+
+        // Called under the lock. The old entry goes first because an entry with the same distance and symbol
+        // compares equal and would not be added; readers skip entries that are no longer current.
+        private void swap(String symbol, Ranked next) {
+            if (next != null && next.traded()) {
+                next = null;
+            }
+            Ranked previous = next != null ? current.put(symbol, next) : current.remove(symbol);
+            if (previous != null) {
+                setFor(previous).remove(previous);
+            }
+            if (next != null) {
+                setFor(next).add(next);
+            }
+        }
+
+        private ConcurrentSkipListSet<Ranked> setFor(Ranked ranked) {
+            return ranked.bullish ? bullish : bearish;
+        }
+
+        // Merges up to two ordered iterators, skipping entries that were replaced while iterating
+        void collect(Iterator<Ranked> first, Iterator<Ranked> second, Set<String> symbols, int limit, List<ZoneDistance> out) {
+            Ranked a = nextLive(first, symbols);
+            Ranked b = second != null ? nextLive(second, symbols) : null;
+            while (out.size() < limit && (a != null || b != null)) {
+                if (b == null || (a != null && ORDER.compare(a, b) <= 0)) {
+                    out.add(a.toView());
+                    a = nextLive(first, symbols);
+                } else {
+                    out.add(b.toView());
+                    b = nextLive(second, symbols);
+                }
+            }
+        }
+
+        private Ranked nextLive(Iterator<Ranked> it, Set<String> symbols) {
+            while (it.hasNext()) {
+                Ranked r = it.next();
+                if (current.get(r.symbol) == r && (symbols == null || symbols.contains(r.symbol))) {
+                    return r;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Ranked {
+        final String symbol;
+        final String interval;
+        final String type;
+        final boolean bullish;
+        final double zoneStart;
+        final double zoneEnd;
+        final double lower;
+        final double upper;
+        final double price;
+        final double distancePct;
+
+        private Ranked(String symbol, String interval, String type, double zoneStart, double zoneEnd, double price) {
+            this.symbol = symbol;
+            this.interval = interval;
+            this.type = type;
+            this.bullish = ScanResultStore.BULLISH.equals(type);
+            this.zoneStart = zoneStart;
+            this.zoneEnd = zoneEnd;
+            this.lower = Math.min(zoneStart, zoneEnd);
+            this.upper = Math.max(zoneStart, zoneEnd);
+            this.price = price;
+            this.distancePct = price <= 0 ? Double.MAX_VALUE
+                    : price > upper ? (price - upper) / price * 100.0
+                    : price < lower ? (lower - price) / price * 100.0 : 0.0;
+        }
+
+        static Ranked of(String symbol, String interval, String type, double zoneStart, double zoneEnd, double price) {
+            return new Ranked(symbol, interval, type, zoneStart, zoneEnd, price);
+        }
+
+        Ranked withPrice(double newPrice) {
+            return new Ranked(symbol, interval, type, zoneStart, zoneEnd, newPrice);
+        }
+
+        // Price beyond the far side of the zone: a bullish zone broken downwards or a bearish one upwards
+        boolean traded() {
+            return bullish ? price < lower : price > upper;
+        }
+
+        ZoneDistance toView() {
+            return new ZoneDistance(symbol, interval, type, zoneStart, zoneEnd, price, distancePct);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.cryptoscannerbackend.controller;
+
+import com.example.cryptoscannerbackend.model.CoinData;
+import com.example.cryptoscannerbackend.model.ERole;
+import com.example.cryptoscannerbackend.model.User;
+import com.example.cryptoscannerbackend.repository.UserRepository;
+import com.example.cryptoscannerbackend.security.jwt.JwtUtils;
+import com.example.cryptoscannerbackend.security.services.UserDetailsImpl;
+import com.example.cryptoscannerbackend.service.BinanceApiClient;
+import com.example.cryptoscannerbackend.service.TieredScanScheduler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+// Tomcat is capped at 10 workers; 50 in-flight scans must not starve the health check
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=10",
+        "scan.executor.core-size=16"
+})
+class CryptoControllerAsyncTest {
+
+    private static final int CONCURRENT_SCANS = 50;
+    private static final int SCAN_POOL_THREADS = 16; // scan.executor.core-size above
+    private static final long UPSTREAM_LATENCY_MS = 1000;
+    private static final int PREMIUM_MAX_CONCURRENT = 6; // scan.scheduler.premium.max-concurrent default
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TieredScanScheduler tieredScanScheduler;
+
+    @MockBean
+    private BinanceApiClient binanceApiClient;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        User user = userRepository.findByUsername("async-premium").orElseGet(() -> {
+            User premium = new User("async-premium", "async-premium@example.com", "unused");
+            premium.setPremium(true);
+            premium.getRoles().add(ERole.ROLE_PREMIUM);
+            return userRepository.save(premium);
+        });
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+
+        when(binanceApiClient.getTopVolumeFuturesCoins(anyInt())).thenReturn(List.of(
+                new CoinData("BTCUSDT", "BTC", 65000.0, "1.0B"),
+                new CoinData("ETHUSDT", "ETH", 3200.0, "500.0M")));
+        when(binanceApiClient.getCandlestickData(anyString(), anyString(), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(UPSTREAM_LATENCY_MS);
+            return candles();
+        });
+    }
+
+    @Test
+    void healthCheckIsServedWhileScansAreInFlight() throws Exception {
+        // Upstream calls block until released, so every scan is provably still running or queued while probing
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> upstreamThreads = ConcurrentHashMap.newKeySet();
+        when(binanceApiClient.getCandlestickData(anyString(), anyString(), anyInt())).thenAnswer(invocation -> {
+            upstreamThreads.add(Thread.currentThread().getName());
+            release.await(60, TimeUnit.SECONDS);
+            return candles();
+        });
+
+        List<CompletableFuture<HttpResponse<String>>> scans = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_SCANS; i++) {
+                HttpRequest scan = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/scan-order-blocks?interval=2h"))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofSeconds(60))
+                        .build();
+                scans.add(httpClient.sendAsync(scan, HttpResponse.BodyHandlers.ofString()));
+            }
+            // Identical scans share one upstream load, so count them at the scheduler: all running or queued
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (premiumStat("running") + premiumStat("queued") < CONCURRENT_SCANS && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(PREMIUM_MAX_CONCURRENT, premiumStat("running"));
+            assertEquals(CONCURRENT_SCANS - PREMIUM_MAX_CONCURRENT, premiumStat("queued"));
+
+            // More scans in flight than Tomcat has workers, yet every probe is answered
+            for (int i = 0; i < 20; i++) {
+                HttpResponse<String> health = httpClient.send(
+                        HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/health")).timeout(Duration.ofSeconds(10)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(200, health.statusCode());
+            }
+            assertTrue(scans.stream().noneMatch(CompletableFuture::isDone), "a scan finished before the probes");
+        } finally {
+            release.countDown();
+        }
+
+        for (CompletableFuture<HttpResponse<String>> scan : scans) {
+            HttpResponse<String> response = scan.get();
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("BTCUSDT"));
+        }
+        assertTrue(upstreamThreads.stream().allMatch(name -> name.startsWith("scan-")), "upstream called from " + upstreamThreads);
+    }
+
+    @Test
+    void profiledScanReturnsStageBreakdown() throws Exception {
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/scan-order-blocks?interval=4h&profile=true"))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofSeconds(30))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        JsonNode body = new ObjectMapper().readTree(response.body());
+        JsonNode profile = body.get("profile");
+        assertEquals(2, profile.get("symbols").asInt());
+        assertEquals(2, profile.get("stages").get("detection").get("calls").asInt());
+        assertEquals(1, profile.get("stages").get("serialization").get("calls").asInt());
+        assertEquals(2, profile.get("candleCache").get("fullFetches").asInt());
+        assertTrue(profile.get("slowestSymbols").get(0).get("ms").asDouble() >= UPSTREAM_LATENCY_MS);
+        assertEquals(2, body.get("results").size());
+
+        // Stage timers are exported through Actuator, which only admins may read
+        HttpResponse<String> metrics = httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/metrics/scan.stage"))
+                        .header("Authorization", "Bearer " + token).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(403, metrics.statusCode());
+    }
+
+    @Test
+    void ndjsonScanIsAdmittedThroughTheTieredScheduler() throws Exception {
+        long submitted = premiumSubmitted();
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/scan-order-blocks?interval=1h&format=ndjson"))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofSeconds(30))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        List<String> lines = response.body().lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("BTCUSDT"));
+        assertTrue(lines.get(1).contains("ETHUSDT"));
+        assertEquals(submitted + 1, premiumSubmitted());
+    }
+
+    @Test
+    void ndjsonWritersDoNotHoldScanThreads() throws Exception {
+        // Twice as many open streams as scan threads: if writers ran on the scan pool, they would fill it while the
+        // scans they wait for sit in its queue
+        List<CompletableFuture<HttpResponse<String>>> streams = new ArrayList<>();
+        for (int i = 0; i < SCAN_POOL_THREADS * 2 + 8; i++) {
+            streams.add(httpClient.sendAsync(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/scan-order-blocks?interval=1h&format=ndjson"))
+                            .header("Authorization", "Bearer " + token)
+                            .timeout(Duration.ofSeconds(60))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> stream : streams) {
+            HttpResponse<String> response = stream.get();
+            assertEquals(200, response.statusCode());
+            assertEquals(2, response.body().lines().count(), response.body());
+        }
+    }
+
+    @Test
+    void unknownIntervalIsRejectedBeforeScanning() throws Exception {
+        long submitted = premiumSubmitted();
+        for (String query : List.of("interval=abc", "interval=7m&profile=true", "interval=abc&format=ndjson")) {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/scan-order-blocks?" + query))
+                            .header("Authorization", "Bearer " + token)
+                            .timeout(Duration.ofSeconds(30))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, response.statusCode(), query);
+        }
+        assertEquals(submitted, premiumSubmitted());
+    }
+
+    @SuppressWarnings("unchecked")
+    private long premiumSubmitted() {
+        return (long) ((Map<String, Object>) tieredScanScheduler.getStats().get("premium")).get("submitted");
+    }
+
+    @SuppressWarnings("unchecked")
+    private int premiumStat(String name) {
+        return (int) ((Map<String, Object>) tieredScanScheduler.getStats().get("premium")).get(name);
+    }
+
+    private static List<BinanceApiClient.Candlestick> candles() {
+        List<BinanceApiClient.Candlestick> candles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            candles.add(new BinanceApiClient.Candlestick(i * 60_000L, 100 + i, 101 + i, 99 + i, 100.5 + i, 1000));
+        }
+        return candles;
+    }
+}
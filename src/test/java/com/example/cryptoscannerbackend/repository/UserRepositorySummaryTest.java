@@ -0,0 +1,92 @@
+package com.example.cryptoscannerbackend.repository;
+
+import com.example.cryptoscannerbackend.model.ERole;
+import com.example.cryptoscannerbackend.model.User;
+import com.example.cryptoscannerbackend.model.UserSummary;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositorySummaryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 30; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", "hash");
+            if (i % 3 == 0) {
+                user.setPremium(true);
+                user.getRoles().add(ERole.ROLE_PREMIUM);
+            } else if (i % 3 == 1) {
+                user.setTrialEndDate(now.plusDays(i)); // trials ending on day 1, 4, 7, ...
+                user.getRoles().add(ERole.ROLE_TRIAL);
+            }
+            userRepository.save(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void keysetPagesCoverEveryUserOnceWithRolesInOneQueryEach() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<UserSummary> all = new ArrayList<>();
+        Long after = null;
+        int pages = 0;
+        while (true) {
+            List<UserSummary> page = userRepository.findSummaries(null, null, after, 7, now);
+            pages++;
+            all.addAll(page);
+            if (page.size() < 7) {
+                break;
+            }
+            after = page.get(page.size() - 1).getId();
+        }
+
+        assertEquals(30, all.size());
+        assertEquals(30, all.stream().map(UserSummary::getId).distinct().count());
+        assertEquals(Set.of(ERole.ROLE_USER, ERole.ROLE_PREMIUM), all.get(0).getRoles());
+        assertEquals(pages, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void filtersByTierAndTrialExpiry() {
+        assertEquals(10, userRepository.findSummaries("premium", null, null, 100, now).size());
+        assertEquals(10, userRepository.findSummaries("trial", null, null, 100, now).size());
+        assertEquals(10, userRepository.findSummaries("free", null, null, 100, now).size());
+
+        List<UserSummary> expiringSoon = userRepository.findSummaries("trial", now.plusDays(5), null, 100, now);
+        assertEquals(List.of("user1", "user4"), expiringSoon.stream().map(UserSummary::getUsername).toList());
+        assertTrue(expiringSoon.stream().allMatch(user -> user.getRoles().contains(ERole.ROLE_TRIAL)));
+    }
+
+    @Test
+    void countsTiersInOneGroupedQuery() {
+        Map<String, Long> counts = userRepository.countByTier(now);
+        assertEquals(Map.of("premium", 10L, "trial", 10L, "free", 10L), counts);
+    }
+}
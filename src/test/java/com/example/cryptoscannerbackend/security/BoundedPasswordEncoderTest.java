@@ -0,0 +1,88 @@
+package com.example.cryptoscannerbackend.security;
+
+import com.example.cryptoscannerbackend.service.AuthThrottledException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    private final ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+    private final ExecutorService clients = Executors.newFixedThreadPool(64);
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        pool.shutdown();
+    }
+
+    @Test
+    void delegatesHashingAndVerification() {
+        BoundedPasswordEncoder encoder = encoder(2, 8);
+        String hash = encoder.encode("secret");
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+    }
+
+    @Test
+    void loginStormIsBoundedAndOverflowIsRejected() throws Exception {
+        BoundedPasswordEncoder encoder = encoder(2, 8);
+        String hash = new BCryptPasswordEncoder(8).encode("secret");
+
+        int logins = 200;
+        List<Long> latenciesMs = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(logins);
+        for (int i = 0; i < logins; i++) {
+            clients.execute(() -> {
+                try {
+                    start.await();
+                    long begin = System.nanoTime();
+                    encoder.matches("secret", hash);
+                    latenciesMs.add((System.nanoTime() - begin) / 1_000_000);
+                } catch (AuthThrottledException e) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+
+        List<Long> sorted = new ArrayList<>(latenciesMs);
+        Collections.sort(sorted);
+        long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+
+        assertEquals(logins, sorted.size() + rejected.get());
+        assertTrue(sorted.size() >= 2 + 8, "only " + sorted.size() + " logins accepted with 2 threads and a queue of 8");
+        assertTrue(p99 < 10_000, "accepted logins should finish within the timeout, p99 " + p99 + " ms");
+        assertTrue(rejected.get() > 0, "overflow beyond the queue should be shed");
+        assertTrue(pool.getActiveCount() <= 2);
+    }
+
+    private BoundedPasswordEncoder encoder(int threads, int queueCapacity) {
+        pool.setCorePoolSize(threads);
+        pool.setMaxPoolSize(threads);
+        pool.setQueueCapacity(queueCapacity);
+        pool.initialize();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(8), pool, 10_000, 2);
+    }
+}
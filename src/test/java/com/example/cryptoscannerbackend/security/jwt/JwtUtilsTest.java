@@ -0,0 +1,69 @@
+package com.example.cryptoscannerbackend.security.jwt;
+
+import com.example.cryptoscannerbackend.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60_000);
+        ReflectionTestUtils.setField(jwtUtils, "cacheMaxEntries", 2);
+        jwtUtils.init();
+    }
+
+    @Test
+    void verifiedTokenIsParsedOnceAndServedFromCache() {
+        String token = token("alice", 60_000);
+
+        Claims first = jwtUtils.parseVerifiedClaims(token);
+        Claims second = jwtUtils.parseVerifiedClaims(token);
+
+        assertEquals("alice", first.getSubject());
+        assertEquals(List.of("ROLE_PREMIUM"), first.get("roles", List.class));
+        assertSame(first, second);
+        assertEquals(1L, jwtUtils.getCacheStats().get("hits"));
+        assertEquals(1L, jwtUtils.getCacheStats().get("misses"));
+    }
+
+    @Test
+    void tamperedAndExpiredTokensAreRejected() {
+        String token = token("alice", 60_000);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(jwtUtils.parseVerifiedClaims(tampered));
+        assertFalse(jwtUtils.validateJwtToken(token("bob", -1_000)));
+        assertNull(jwtUtils.parseVerifiedClaims(""));
+    }
+
+    @Test
+    void cacheIsBounded() {
+        jwtUtils.parseVerifiedClaims(token("a", 60_000));
+        jwtUtils.parseVerifiedClaims(token("b", 60_000));
+        jwtUtils.parseVerifiedClaims(token("c", 60_000));
+        assertEquals(2, jwtUtils.getCacheStats().get("entries"));
+    }
+
+    private String token(String username, int expirationMs) {
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", expirationMs);
+        UserDetailsImpl principal = new UserDetailsImpl(1L, username, username + "@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_PREMIUM")));
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.ERole;
+import com.example.cryptoscannerbackend.model.User;
+import com.example.cryptoscannerbackend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class AuthServiceRegistrationTest {
+
+    private static final int ATTEMPTS = 8;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void trialSignupIsOneInsertWithFinalRolesAndDates() {
+        User user = authService.registerUser("trialuser", "trial@example.com", "secret", "trial", null);
+
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getQueryExecutionCount());
+        // the users row plus its single role row
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        User stored = userRepository.findByUsername("trialuser").orElseThrow();
+        assertEquals(user.getId(), stored.getId());
+        assertEquals(Set.of(ERole.ROLE_TRIAL), stored.getRoles());
+        assertNotNull(stored.getTrialEndDate());
+    }
+
+    @Test
+    void concurrentDuplicateSignupsInsertOnceAndReportTheExistingMessages() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(ATTEMPTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> outcomes = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            int attempt = i;
+            Callable<String> signup = () -> {
+                start.await();
+                try {
+                    authService.registerUser("racer", "racer" + attempt + "@example.com", "secret", "trial", null);
+                    return "ok";
+                } catch (RuntimeException e) {
+                    return e.getMessage();
+                }
+            };
+            outcomes.add(pool.submit(signup));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<String> outcome : outcomes) {
+            String result = outcome.get();
+            if ("ok".equals(result)) {
+                succeeded++;
+            } else {
+                assertEquals("Error: Username is already taken!", result);
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(1, succeeded);
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getQueryExecutionCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        // one insert per losing attempt, plus the role row of the winner
+        assertEquals(ATTEMPTS + 1, statistics.getPrepareStatementCount());
+
+        String winnerEmail = userRepository.findByUsername("racer").orElseThrow().getEmail();
+        RuntimeException duplicateEmail = assertThrows(RuntimeException.class,
+                () -> authService.registerUser("someoneelse", winnerEmail, "secret", null, null));
+        assertEquals("Error: Email is already in use!", duplicateEmail.getMessage());
+    }
+
+    @Test
+    void legacyConstraintNamesStillMapToTheSignupMessages() {
+        UserRepository legacy = mock(UserRepository.class);
+        AuthService service = new AuthService();
+        ReflectionTestUtils.setField(service, "userRepository", legacy);
+        ReflectionTestUtils.setField(service, "encoder", new BCryptPasswordEncoder(4));
+        ReflectionTestUtils.setField(service, "loginThrottle", mock(LoginThrottle.class));
+
+        // Postgres names the violated column in the detail line
+        when(legacy.saveAndFlush(any())).thenThrow(duplicate("uk6dv9ojcvpbqdbvchxwrp2gttt",
+                "ERROR: duplicate key value violates unique constraint \"uk6dv9ojcvpbqdbvchxwrp2gttt\" Detail: Key (email)=(a@example.com) already exists."));
+        assertEquals("Error: Email is already in use!", assertThrows(RuntimeException.class,
+                () -> service.registerUser("a", "a@example.com", "secret", null, null)).getMessage());
+
+        // No column in the message: the existing row is looked up instead
+        reset(legacy);
+        when(legacy.saveAndFlush(any())).thenThrow(duplicate("ukr43af9ap4edm43mmtq01oddj6", "unique violation"));
+        when(legacy.existsByEmail("b@example.com")).thenReturn(false);
+        when(legacy.existsByUsername("b")).thenReturn(true);
+        assertEquals("Error: Username is already taken!", assertThrows(RuntimeException.class,
+                () -> service.registerUser("b", "b@example.com", "secret", null, null)).getMessage());
+
+        when(legacy.existsByUsername("b")).thenReturn(false);
+        RuntimeException unknown = assertThrows(RuntimeException.class, () -> service.registerUser("b", "b@example.com", "secret", null, null));
+        assertEquals("Error: The account could not be created.", unknown.getMessage());
+    }
+
+    private static DataIntegrityViolationException duplicate(String constraint, String message) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException(message, new SQLException(message, "23505"), constraint));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.cryptoscannerbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CandleCacheTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private CandleCache cache;
+    private MarketDataSource marketDataSource;
+
+    @BeforeEach
+    void setUp() {
+        marketDataSource = mock(MarketDataSource.class);
+        cache = new CandleCache();
+        ScanMetrics scanMetrics = new ScanMetrics();
+        ReflectionTestUtils.setField(scanMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "marketDataSource", marketDataSource);
+        ReflectionTestUtils.setField(cache, "scanMetrics", scanMetrics);
+        ReflectionTestUtils.setField(cache, "maxPerSeries", 10);
+        ReflectionTestUtils.setField(cache, "maxSeries", 100);
+    }
+
+    @Test
+    void cachedSeriesIsToppedUpFromTheLastCandle() throws Exception {
+        long currentOpen = System.currentTimeMillis() / HOUR * HOUR;
+        // Cached through two hours ago: the last cached candle plus two newer ones are missing
+        cache.restore("BTCUSDT", "1h", candles(currentOpen - 11 * HOUR, 10, 1.0));
+        long lastCached = currentOpen - 2 * HOUR;
+        when(marketDataSource.getCandlestickData(eq("BTCUSDT"), eq("1h"), anyInt(), eq(lastCached)))
+                .thenReturn(candles(lastCached, 3, 2.0));
+
+        List<BinanceApiClient.Candlestick> result = cache.getCandles("BTCUSDT", "1h", 10);
+
+        verify(marketDataSource, never()).getCandlestickData(anyString(), anyString(), anyInt());
+        assertEquals(10, result.size());
+        assertEquals(currentOpen, result.get(9).getOpenTime());
+        assertEquals(2.0, result.get(7).getClose()); // the refetched candle replaced the cached one
+        assertEquals(1.0, result.get(6).getClose());
+        assertEquals(currentOpen - 9 * HOUR, result.get(0).getOpenTime());
+        assertEquals(1L, cache.getStats().get("incrementalFetches"));
+        assertEquals(0L, cache.getStats().get("fullFetches"));
+    }
+
+    @Test
+    void uncachedOrLongStaleSeriesIsFetchedInFull() throws Exception {
+        long currentOpen = System.currentTimeMillis() / HOUR * HOUR;
+        cache.restore("ETHUSDT", "1h", candles(currentOpen - 100 * HOUR, 10, 1.0));
+        when(marketDataSource.getCandlestickData(anyString(), eq("1h"), eq(10)))
+                .thenReturn(candles(currentOpen - 9 * HOUR, 10, 3.0));
+
+        cache.getCandles("ETHUSDT", "1h", 10);
+        cache.getCandles("SOLUSDT", "1h", 10);
+
+        verify(marketDataSource, never()).getCandlestickData(anyString(), anyString(), anyInt(), anyLong());
+        assertEquals(2L, cache.getStats().get("fullFetches"));
+        assertEquals(2, cache.export().size());
+    }
+
+    private static List<BinanceApiClient.Candlestick> candles(long firstOpen, int count, double close) {
+        List<BinanceApiClient.Candlestick> candles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            candles.add(new BinanceApiClient.Candlestick(firstOpen + i * HOUR, 1, 2, 0.5, close, 100));
+        }
+        return candles;
+    }
+}
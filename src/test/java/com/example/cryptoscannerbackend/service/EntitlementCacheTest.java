@@ -0,0 +1,82 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.ERole;
+import com.example.cryptoscannerbackend.model.User;
+import com.example.cryptoscannerbackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EntitlementCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final User alice = new User("alice", "alice@example.com", "hash");
+    private EntitlementCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EntitlementCache();
+        ReflectionTestUtils.setField(cache, "userRepository", userRepository);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+    }
+
+    @Test
+    void repeatedLookupsHitTheDatabaseOnce() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals("alice", cache.get("alice").getUsername());
+        }
+        verify(userRepository, times(1)).findByUsername("alice");
+        assertEquals(9L, cache.getStats().get("hits"));
+    }
+
+    @Test
+    void invalidationPicksUpPlanChangesImmediately() {
+        assertFalse(cache.get("alice").isPremium());
+
+        alice.setPremium(true);
+        alice.getRoles().add(ERole.ROLE_PREMIUM);
+        assertFalse(cache.get("alice").isPremium()); // still cached
+
+        cache.invalidate("alice");
+        assertTrue(cache.get("alice").isPremium());
+        assertTrue(cache.get("alice").getRoles().contains(ERole.ROLE_PREMIUM));
+    }
+
+    @Test
+    void trialExpiryIsEvaluatedAtReadTime() {
+        alice.setTrialEndDate(LocalDateTime.now().minusSeconds(1));
+        assertFalse(cache.get("alice").isTrialActive());
+        alice.setTrialEndDate(LocalDateTime.now().plusDays(1));
+        cache.invalidate("alice");
+        assertTrue(cache.get("alice").isTrialActive());
+    }
+
+    @Test
+    void unknownUsersAreNotCachedAndSizeIsBounded() {
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(new User("bob", "bob@example.com", "hash")));
+        when(userRepository.findByUsername("carol")).thenReturn(Optional.of(new User("carol", "carol@example.com", "hash")));
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertNull(cache.get("ghost"));
+        cache.get("alice");
+        cache.get("bob");
+        cache.get("carol");
+
+        assertEquals(2, cache.getStats().get("entries"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.cryptoscannerbackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LeaderElectionTest {
+
+    private static final long LEASE_MS = 300;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:leader;DB_CLOSE_DELAY=-1", "sa", ""));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + LeaderElection.TABLE);
+    }
+
+    @Test
+    void exactlyOneNodeLeads() {
+        LeaderElection a = node("a");
+        LeaderElection b = node("b");
+        a.renew();
+        b.renew();
+
+        assertTrue(a.isLeader());
+        assertFalse(b.isLeader());
+        assertEquals(1L, a.getEpoch());
+        assertEquals(0L, b.getEpoch());
+        assertEquals("a", b.getStats().get("holder"));
+    }
+
+    @Test
+    void crashedLeaderIsReplacedOnceItsLeaseRunsOut() throws Exception {
+        LeaderElection a = node("a");
+        LeaderElection b = node("b");
+        assertTrue(a.isLeader());
+
+        // a stops renewing (crashed or partitioned from the database); b can't take over while the lease runs
+        b.renew();
+        assertFalse(b.isLeader());
+
+        long crashed = System.nanoTime();
+        while (!b.isLeader()) {
+            Thread.sleep(LEASE_MS / 10);
+            b.renew();
+        }
+        long failoverMs = (System.nanoTime() - crashed) / 1_000_000;
+        assertTrue(failoverMs <= LEASE_MS + LEASE_MS / 2, "failover took " + failoverMs + " ms");
+        // By then the old leader has stepped down on its own, without reaching the database
+        assertFalse(a.isLeader());
+        assertEquals(2L, b.getEpoch());
+
+        // When it comes back it finds the lease taken and stays a follower
+        a.renew();
+        assertFalse(a.isLeader());
+        assertEquals(1L, a.getStats().get("losses"));
+    }
+
+    @Test
+    void releasedLeaseIsTakenOverImmediately() {
+        LeaderElection a = node("a");
+        LeaderElection b = node("b");
+        a.release();
+        b.renew();
+
+        assertFalse(a.isLeader());
+        assertTrue(b.isLeader());
+    }
+
+    @Test
+    void everyNodeLeadsWhenDisabled() {
+        LeaderElection node = new LeaderElection();
+        ReflectionTestUtils.setField(node, "jdbcTemplate", jdbcTemplate);
+        node.init();
+
+        assertTrue(node.isLeader());
+    }
+
+    @Test
+    void lostCreateTableRaceIsRetried() {
+        // What the second of two nodes creating the table at once gets from Postgres
+        JdbcTemplate racing = spy(jdbcTemplate);
+        doThrow(new DuplicateKeyException("duplicate key value violates unique constraint \"pg_type_typname_nsp_index\""))
+                .doCallRealMethod().when(racing).execute(startsWith("CREATE TABLE"));
+        jdbcTemplate = racing;
+
+        LeaderElection node = node("a");
+
+        verify(racing, times(2)).execute(startsWith("CREATE TABLE"));
+        assertTrue(node.isLeader());
+    }
+
+    private LeaderElection node(String id) {
+        LeaderElection node = new LeaderElection();
+        ReflectionTestUtils.setField(node, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(node, "enabled", true);
+        ReflectionTestUtils.setField(node, "leaseMs", LEASE_MS);
+        ReflectionTestUtils.setField(node, "nodeId", id);
+        node.init();
+        return node;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.cryptoscannerbackend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTest {
+
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new LoginThrottle();
+        ReflectionTestUtils.setField(throttle, "perIpPerMinute", 6);
+        ReflectionTestUtils.setField(throttle, "perIpBurst", 4);
+        ReflectionTestUtils.setField(throttle, "perUsernamePerMinute", 2);
+        ReflectionTestUtils.setField(throttle, "perUsernameBurst", 2);
+    }
+
+    @Test
+    void usernameBucketLimitsAttemptsAgainstOneAccountAcrossIps() {
+        throttle.acquire("10.0.0.1", "alice");
+        throttle.acquire("10.0.0.2", "Alice");
+        AuthThrottledException e = assertThrows(AuthThrottledException.class, () -> throttle.acquire("10.0.0.3", "alice"));
+        assertTrue(e.getRetryAfterSeconds() >= 1 && e.getRetryAfterSeconds() <= 30);
+
+        throttle.acquire("10.0.0.3", "bob"); // other accounts are unaffected
+    }
+
+    @Test
+    void ipBucketLimitsOneClientAcrossUsernames() {
+        for (int i = 0; i < 4; i++) {
+            throttle.acquire("10.0.0.1", "user" + i);
+        }
+        assertThrows(AuthThrottledException.class, () -> throttle.acquire("10.0.0.1", "user9"));
+        throttle.acquire("10.0.0.2", "user9");
+        assertEquals(1L, throttle.getStats().get("throttled"));
+    }
+}
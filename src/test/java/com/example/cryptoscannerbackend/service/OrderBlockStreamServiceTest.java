@@ -0,0 +1,39 @@
+package com.example.cryptoscannerbackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBlockStreamServiceTest {
+
+    private OrderBlockStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderBlockStreamService();
+        ReflectionTestUtils.setField(service, "bufferSize", 8);
+        ReflectionTestUtils.setField(service, "emitterTimeoutMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void unknownIntervalsNeverBecomeSubscribedIntervals() {
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe("7h", 100, "premium"));
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe("abc", 100, "premium"));
+        assertTrue(service.getSubscribedIntervals().isEmpty());
+
+        service.subscribe("1h", 100, "premium");
+        assertEquals(Set.of("1h"), service.getSubscribedIntervals());
+    }
+}
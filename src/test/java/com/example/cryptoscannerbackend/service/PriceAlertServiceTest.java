@@ -0,0 +1,181 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.AlertCondition;
+import com.example.cryptoscannerbackend.model.AlertEvent;
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceAlertServiceTest {
+
+    private PriceAlertService alerts;
+
+    @BeforeEach
+    void setUp() {
+        alerts = new PriceAlertService();
+        ReflectionTestUtils.setField(alerts, "maxAlertsPerUser", 50);
+        ReflectionTestUtils.setField(alerts, "maxPendingPerUser", 100);
+        // bullish zone 95-97 and bearish zone 110-112 on 4h
+        alerts.onResultsPublished("4h", "default", List.of(
+                result("BTCUSDT", ScanResultStore.BULLISH, 97.0, 95.0),
+                result("ETHUSDT", ScanResultStore.BEARISH, 110.0, 112.0)));
+    }
+
+    @Test
+    void firesOncePerZoneWhenPriceComesWithinThreshold() {
+        alerts.register("alice", null, "4h", "bullish", 1.0);
+        alerts.register("bob", "BTCUSDT", "4h", "any", 3.0);
+
+        alerts.onPriceTicks(Map.of("BTCUSDT", 100.0)); // 3% above the zone
+        assertEquals(0, alerts.drainTriggered("alice").size());
+        List<AlertEvent> bob = alerts.drainTriggered("bob");
+        assertEquals(1, bob.size());
+        assertEquals("BTCUSDT", bob.get(0).getSymbol());
+
+        alerts.onPriceTicks(Map.of("BTCUSDT", 97.5)); // within 1%
+        alerts.onPriceTicks(Map.of("BTCUSDT", 97.4));
+        assertEquals(1, alerts.drainTriggered("alice").size());
+        assertEquals(0, alerts.drainTriggered("bob").size());
+    }
+
+    @Test
+    void ignoresOtherTypesIntervalsAndMitigatedZones() {
+        alerts.register("alice", null, "1h", "any", 5.0);
+        alerts.register("bob", null, "4h", "bearish", 5.0);
+        alerts.register("carol", null, "4h", "bullish", 5.0);
+
+        alerts.onPriceTicks(Map.of("BTCUSDT", 90.0)); // below the bullish zone: traded through it
+        alerts.onPriceTicks(Map.of("BTCUSDT", 97.0));
+        alerts.onPriceTicks(Map.of("ETHUSDT", 108.0));
+
+        assertTrue(alerts.drainTriggered("alice").isEmpty());
+        assertEquals("ETHUSDT", alerts.drainTriggered("bob").get(0).getSymbol());
+        assertTrue(alerts.drainTriggered("carol").isEmpty());
+    }
+
+    @Test
+    void newAlertIsCheckedAgainstTheLastPrice() {
+        alerts.onPriceTicks(Map.of("ETHUSDT", 111.0));
+        alerts.register("alice", "ETHUSDT", "4h", "bearish", 0.0);
+        AlertEvent event = alerts.drainTriggered("alice").get(0);
+        assertEquals(0.0, event.getDistancePct());
+    }
+
+    @Test
+    void matchesTicksNearManyZonesAgainstManyAlerts() {
+        ReflectionTestUtils.setField(alerts, "maxPendingPerUser", 10_000);
+        int symbolCount = 2_000;
+        String[] symbols = new String[symbolCount];
+        List<OrderBlockResult> results = new ArrayList<>();
+        for (int s = 0; s < symbolCount; s++) {
+            symbols[s] = "S" + s;
+            // bullish zones for even symbols, bearish for odd, between 89 and 96
+            results.add(result(symbols[s], s % 2 == 0 ? ScanResultStore.BULLISH : ScanResultStore.BEARISH, 90.0 + s % 7, 89.0 + s % 7));
+        }
+        for (String preset : List.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j")) {
+            alerts.onResultsPublished("4h", preset, results); // identical zones across presets collapse into one
+        }
+
+        // Mostly single-symbol alerts, every 50th one on all symbols; thresholds 0.10% to 0.56%
+        List<AlertCondition> registered = new ArrayList<>();
+        long registerStart = System.nanoTime();
+        for (int i = 0; i < 5_000; i++) {
+            String symbol = i % 50 == 0 ? null : symbols[i % symbolCount];
+            registered.add(alerts.register("user" + i, symbol, "4h", i % 2 == 0 ? "bullish" : "any", 0.1 + (i % 47) / 100.0).orElseThrow());
+        }
+        long registerMs = (System.nanoTime() - registerStart) / 1_000_000;
+        assertTrue(registerMs < 2_000, "registering 5000 alerts took " + registerMs + " ms");
+
+        // Each round every symbol moves closer to the near edge of its zone without trading through it
+        double[] closest = new double[symbolCount];
+        Arrays.fill(closest, Double.MAX_VALUE);
+        long tickStart = System.nanoTime();
+        for (int round = 0; round < 50; round++) {
+            Map<String, Double> prices = new HashMap<>();
+            for (int s = 0; s < symbolCount; s++) {
+                double awayPct = (s % 100) * 0.05 + (49 - round) * 0.01;
+                double price;
+                double distance;
+                if (s % 2 == 0) {
+                    double upper = 90.0 + s % 7;
+                    price = upper * (1 + awayPct / 100);
+                    distance = (price - upper) / price * 100.0;
+                } else {
+                    double lower = 89.0 + s % 7;
+                    price = lower * (1 - awayPct / 100);
+                    distance = (lower - price) / price * 100.0;
+                }
+                closest[s] = Math.min(closest[s], distance);
+                prices.put(symbols[s], price);
+            }
+            alerts.onPriceTicks(prices);
+        }
+        long tickMs = (System.nanoTime() - tickStart) / 1_000_000;
+        assertTrue(tickMs < 5_000, "100000 ticks took " + tickMs + " ms");
+
+        // Each alert fires once on every zone of its type it came within reach of
+        long delivered = 0;
+        for (AlertCondition alert : registered) {
+            int expected = 0;
+            for (int s = 0; s < symbolCount; s++) {
+                boolean symbolMatches = alert.getSymbol() == null || alert.getSymbol().equals(symbols[s]);
+                boolean typeMatches = alert.getZoneType().equals("any") || s % 2 == 0;
+                if (symbolMatches && typeMatches && closest[s] <= alert.getWithinPct()) {
+                    expected++;
+                }
+            }
+            List<AlertEvent> events = alerts.drainTriggered(alert.getUsername());
+            assertEquals(expected, events.size(), "alert " + alert);
+            for (AlertEvent event : events) {
+                assertEquals(alert.getId(), event.getAlertId());
+                assertTrue(event.getDistancePct() <= alert.getWithinPct());
+            }
+            delivered += events.size();
+        }
+        assertTrue(delivered > 1_000, "only " + delivered + " alerts fired");
+    }
+
+    @Test
+    void removedAlertsStopFiringAndFreeTheUsersQuota() {
+        ReflectionTestUtils.setField(alerts, "maxAlertsPerUser", 2);
+        AlertCondition first = alerts.register("alice", "BTCUSDT", "4h", "bullish", 5.0).orElseThrow();
+        alerts.register("alice", null, "4h", "bearish", 1.0).orElseThrow();
+        assertTrue(alerts.register("alice", null, "4h", "any", 1.0).isEmpty());
+
+        assertTrue(alerts.remove("alice", first.getId()));
+        alerts.onPriceTicks(Map.of("BTCUSDT", 99.0)); // within 5% of the bullish zone
+        assertTrue(alerts.drainTriggered("alice").isEmpty());
+        assertTrue(alerts.register("alice", null, "4h", "any", 1.0).isPresent());
+    }
+
+    @Test
+    void unsupportedIntervalIsRejectedWithoutUsingASlot() {
+        ReflectionTestUtils.setField(alerts, "maxAlertsPerUser", 1);
+        assertThrows(IllegalArgumentException.class, () -> alerts.register("alice", null, "foo", "any", 1.0));
+        assertThrows(IllegalArgumentException.class, () -> alerts.register("alice", null, null, "any", 1.0));
+        assertTrue(alerts.list("alice").isEmpty());
+        assertTrue(alerts.register("alice", null, "4h", "any", 1.0).isPresent());
+    }
+
+    private static OrderBlockResult result(String symbol, String type, double zoneStart, double zoneEnd) {
+        OrderBlockResult result = new OrderBlockResult();
+        result.setId(symbol);
+        result.setName(symbol);
+        result.setTimeframe("4h");
+        result.setOrderBlockType(type);
+        result.setObZoneStart(zoneStart);
+        result.setObZoneEnd(zoneEnd);
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.cryptoscannerbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayMarketDataSourceTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void record() throws Exception {
+        MarketDataRecorder recorder = new MarketDataRecorder();
+        ReflectionTestUtils.setField(recorder, "enabled", true);
+        ReflectionTestUtils.setField(recorder, "dir", dir.toString());
+        recorder.open();
+        recorder.record("ticker.24hr", "", 1_000_000, "["
+                + "{\"symbol\":\"ETHUSDT\",\"quoteVolume\":\"500000000\",\"lastPrice\":\"3200\",\"contractType\":\"PERPETUAL\"},"
+                + "{\"symbol\":\"BTCUSDT\",\"quoteVolume\":\"2000000000\",\"lastPrice\":\"65000\",\"contractType\":\"PERPETUAL\"}]");
+        recorder.record("klines", "symbol=BTCUSDT&interval=1h&limit=5", 60_000_000, klines(5));
+        recorder.record("ticker.price", "", 1_000_000, "[{\"symbol\":\"BTCUSDT\",\"price\":\"65000\"}]");
+        recorder.record("ticker.price", "", 1_000_000, "[{\"symbol\":\"BTCUSDT\",\"price\":\"65100\"}]");
+        recorder.close();
+    }
+
+    @Test
+    void replaysRecordedResponsesThroughTheLiveParsing() throws Exception {
+        ReplayMarketDataSource replay = replay("full-speed");
+
+        assertEquals(List.of("BTCUSDT", "ETHUSDT"), replay.getTopVolumeFuturesCoins(10).stream().map(c -> c.getId()).toList());
+        assertEquals(5, replay.getCandlestickData("BTCUSDT", "1h", 5).size());
+        // Ticker polls cycle through the recorded sequence
+        assertEquals(65000.0, replay.getTickerPrices().get("BTCUSDT"));
+        assertEquals(65100.0, replay.getTickerPrices().get("BTCUSDT"));
+        assertEquals(65000.0, replay.getTickerPrices().get("BTCUSDT"));
+    }
+
+    @Test
+    void unrecordedKlinesRequestsAreServedFromTheRecordedSeries() throws Exception {
+        ReplayMarketDataSource replay = replay("full-speed");
+
+        List<BinanceApiClient.Candlestick> last = replay.getCandlestickData("BTCUSDT", "1h", 3);
+        assertEquals(List.of(2 * HOUR, 3 * HOUR, 4 * HOUR), last.stream().map(BinanceApiClient.Candlestick::getOpenTime).toList());
+        List<BinanceApiClient.Candlestick> from = replay.getCandlestickData("BTCUSDT", "1h", 2, 3 * HOUR);
+        assertEquals(List.of(3 * HOUR, 4 * HOUR), from.stream().map(BinanceApiClient.Candlestick::getOpenTime).toList());
+        assertTrue(replay.getCandlestickData("SOLUSDT", "1h", 5).isEmpty());
+        assertEquals(1L, replay.getStats().get("klinesMisses"));
+    }
+
+    @Test
+    void originalTimingReproducesRecordedLatency() throws Exception {
+        ReplayMarketDataSource replay = replay("original");
+
+        long start = System.nanoTime();
+        replay.getCandlestickData("BTCUSDT", "1h", 5);
+        assertTrue(System.nanoTime() - start >= 60_000_000L);
+    }
+
+    private ReplayMarketDataSource replay(String timing) throws Exception {
+        ScanMetrics scanMetrics = new ScanMetrics();
+        ReflectionTestUtils.setField(scanMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReplayMarketDataSource replay = new ReplayMarketDataSource();
+        ReflectionTestUtils.setField(replay, "scanMetrics", scanMetrics);
+        ReflectionTestUtils.setField(replay, "path", dir.toString());
+        ReflectionTestUtils.setField(replay, "timing", timing);
+        replay.load();
+        return replay;
+    }
+
+    private static String klines(int count) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            body.append(i == 0 ? "" : ",").append(String.format("[%d,\"100\",\"101\",\"99\",\"100.5\",\"1000\"]", i * HOUR));
+        }
+        return body.append("]").toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ScanHistoryEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScanHistoryStoreTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ScanHistoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:history;DB_CLOSE_DELAY=-1", "sa", ""));
+        store = new ScanHistoryStore();
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "queueCapacity", 1_000);
+        ReflectionTestUtils.setField(store, "batchSize", 100);
+        ReflectionTestUtils.setField(store, "retentionDays", 30);
+        store.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE scan_results");
+    }
+
+    @Test
+    void publishedScansAreWrittenInBatchesAndQueryableByRange() {
+        long before = System.currentTimeMillis();
+        store.record("4h", "default", results(250));
+        store.record("1h", "default", results(10));
+        assertEquals(0, count()); // nothing is written on the publish path
+
+        store.flush();
+        assertEquals(260, count());
+        assertEquals(260L, store.getStats().get("written"));
+
+        List<ScanHistoryEntry> btc = store.query("S7USDT", "4h", before - 1, System.currentTimeMillis() + 1, 10);
+        assertEquals(1, btc.size());
+        assertEquals(107.0, btc.get(0).getCurrentPrice());
+        assertEquals(95.0, btc.get(0).getObZoneStart());
+        assertEquals(0, store.query("S7USDT", "4h", before - 60_000, before - 1, 10).size());
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlocking() {
+        store.record("4h", "default", results(1_200));
+        assertEquals(200L, store.getStats().get("dropped"));
+        store.flush();
+        assertEquals(1_000, count());
+    }
+
+    @Test
+    void retentionPrunesOldRows() {
+        store.record("4h", "default", results(5));
+        store.flush();
+        jdbcTemplate.update("UPDATE scan_results SET scanned_at = ? WHERE symbol IN ('S0USDT', 'S1USDT')",
+                LocalDateTime.now(ZoneOffset.UTC).minusDays(40));
+
+        store.maintain();
+        assertEquals(3, count());
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM scan_results", Integer.class);
+    }
+
+    private static List<OrderBlockResult> results(int n) {
+        List<OrderBlockResult> results = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            OrderBlockResult result = new OrderBlockResult();
+            result.setId("S" + i + "USDT");
+            result.setCurrentPrice(100 + i);
+            result.setOrderBlockType(ScanResultStore.BULLISH);
+            result.setObZoneStart(95.0);
+            result.setObZoneEnd(97.0);
+            results.add(result);
+        }
+        return results;
+    }
+}
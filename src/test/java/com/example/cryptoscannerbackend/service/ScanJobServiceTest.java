@@ -0,0 +1,270 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.CoinData;
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ScanJobView;
+import com.example.cryptoscannerbackend.model.ScanParameters;
+import com.example.cryptoscannerbackend.model.ScanTier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScanJobServiceTest {
+
+    private ScanJobService service;
+    private ScanService scanService;
+    private ExecutorService scanPool;
+
+    @BeforeEach
+    void setUp() {
+        scanService = mock(ScanService.class);
+        scanPool = Executors.newCachedThreadPool();
+        // Runs jobs straight on a pool; admission and priority are covered by TieredScanSchedulerTest
+        TieredScanScheduler scheduler = mock(TieredScanScheduler.class);
+        when(scheduler.submit(any(ScanTier.class), any())).thenAnswer(invocation -> {
+            Callable<?> work = invocation.getArgument(1);
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            Future<?> running = scanPool.submit(() -> {
+                try {
+                    result.complete(work.call());
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    running.cancel(true);
+                }
+            });
+            return result;
+        });
+
+        service = new ScanJobService();
+        ReflectionTestUtils.setField(service, "scanService", scanService);
+        ReflectionTestUtils.setField(service, "tieredScanScheduler", scheduler);
+        ReflectionTestUtils.setField(service, "retentionMs", 600_000L);
+        ReflectionTestUtils.setField(service, "maxRetainedPerUser", 2);
+        ReflectionTestUtils.setField(service, "maxActivePerUser", 2);
+        ReflectionTestUtils.setField(service, "streamBufferSize", 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        scanPool.shutdownNow();
+    }
+
+    @Test
+    void resultsArePublishedPerSymbolAndPolledByOffset() throws Exception {
+        when(scanService.getUniverse(anyInt())).thenReturn(coins(3));
+        when(scanService.scanCoin(any(), eq("1h"), any())).thenAnswer(invocation -> result(invocation.getArgument(0)));
+        when(scanService.scanCoin(eq(coins(3).get(1)), eq("1h"), any())).thenThrow(new IOException("429"));
+
+        String jobId = submit("alice").getJobId();
+        ScanJobView done = awaitFinished(jobId, "alice");
+
+        assertEquals("COMPLETED", done.getState());
+        assertEquals(3, done.getTotal());
+        assertEquals(2, done.getCompleted());
+        assertEquals(1, done.getFailed());
+        assertEquals("S1USDT", done.getErrors().get(0).getSymbol());
+        assertEquals(2, done.getNextOffset());
+
+        ScanJobView tail = service.getJob(jobId, "alice", 1).orElseThrow();
+        assertEquals(List.of("S2USDT"), tail.getResults().stream().map(OrderBlockResult::getId).toList());
+        assertTrue(service.getJob(jobId, "bob", 0).isEmpty()); // jobs are private to their owner
+        verify(scanService, times(1)).publishResults(eq("1h"), any(), anyList());
+    }
+
+    @Test
+    void activeJobCapHoldsUnderConcurrentSubmits() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(scanService.getUniverse(anyInt())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return coins(1);
+        });
+        when(scanService.scanCoin(any(), anyString(), any())).thenAnswer(invocation -> result(invocation.getArgument(0)));
+
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService submitters = Executors.newFixedThreadPool(threads);
+        List<Future<Optional<ScanJobView>>> submits = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            submits.add(submitters.submit(() -> {
+                start.await();
+                return service.submit("alice", ScanTier.PREMIUM, 1, "1h", ScanParameters.scheduledDefaults());
+            }));
+        }
+        start.countDown();
+        List<String> accepted = new ArrayList<>();
+        for (Future<Optional<ScanJobView>> submit : submits) {
+            submit.get(10, TimeUnit.SECONDS).ifPresent(view -> accepted.add(view.getJobId()));
+        }
+        submitters.shutdown();
+        assertEquals(2, accepted.size());
+
+        release.countDown();
+        for (String jobId : accepted) {
+            awaitFinished(jobId, "alice");
+        }
+        // Finished jobs free their slots
+        assertTrue(service.submit("alice", ScanTier.PREMIUM, 1, "1h", ScanParameters.scheduledDefaults()).isPresent());
+    }
+
+    @Test
+    void cancelStopsARunningJobAndFreesItsSlot() throws Exception {
+        CountDownLatch scanning = new CountDownLatch(1);
+        when(scanService.getUniverse(anyInt())).thenReturn(coins(5));
+        when(scanService.scanCoin(any(), anyString(), any())).thenAnswer(invocation -> {
+            scanning.countDown();
+            Thread.sleep(10_000); // interrupted by the cancel
+            return result(invocation.getArgument(0));
+        });
+
+        String first = submit("alice").getJobId();
+        submit("alice");
+        assertTrue(scanning.await(5, TimeUnit.SECONDS));
+        assertTrue(service.submit("alice", ScanTier.PREMIUM, 5, "1h", ScanParameters.scheduledDefaults()).isEmpty());
+
+        assertTrue(service.cancel(first, "alice"));
+        assertEquals("CANCELLED", service.getJob(first, "alice", 0).orElseThrow().getState());
+        assertFalse(service.cancel(first, "alice"));
+        assertTrue(service.submit("alice", ScanTier.PREMIUM, 5, "1h", ScanParameters.scheduledDefaults()).isPresent());
+    }
+
+    @Test
+    void finishedJobsAreRetainedPerUser() throws Exception {
+        when(scanService.getUniverse(anyInt())).thenReturn(coins(1));
+        when(scanService.scanCoin(any(), anyString(), any())).thenAnswer(invocation -> result(invocation.getArgument(0)));
+
+        String bobsJob = submit("bob").getJobId();
+        awaitFinished(bobsJob, "bob");
+        for (int i = 0; i < 4; i++) {
+            awaitFinished(submit("alice").getJobId(), "alice");
+        }
+
+        assertEquals(2, service.listJobs("alice").size());
+        assertTrue(service.getJob(bobsJob, "bob", 0).isPresent());
+
+        ReflectionTestUtils.setField(service, "retentionMs", 0L);
+        Thread.sleep(5);
+        service.evictExpiredJobs();
+        assertTrue(service.listJobs("alice").isEmpty());
+        assertTrue(service.listJobs("bob").isEmpty());
+    }
+
+    @Test
+    void slowStreamIsDroppedWithoutHoldingUpTheJob() throws Exception {
+        // Nothing drains the SSE buffers, as with a client that stopped reading
+        ReflectionTestUtils.setField(service, "sendExecutor", mock(ExecutorService.class));
+        ReflectionTestUtils.setField(service, "streamBufferSize", 3);
+        CountDownLatch attached = new CountDownLatch(1);
+        when(scanService.getUniverse(anyInt())).thenAnswer(invocation -> {
+            attached.await(5, TimeUnit.SECONDS);
+            return coins(10);
+        });
+        when(scanService.scanCoin(any(), anyString(), any())).thenAnswer(invocation -> result(invocation.getArgument(0)));
+
+        String jobId = submit("alice").getJobId();
+        assertTrue(service.stream(jobId, "alice").isPresent());
+        assertTrue(service.stream(jobId, "bob").isEmpty());
+        assertEquals(1, listeners(jobId).size());
+        attached.countDown();
+
+        ScanJobView done = awaitFinished(jobId, "alice");
+        assertEquals(10, done.getCompleted());
+        assertTrue(listeners(jobId).isEmpty());
+    }
+
+    @Test
+    void jobsRejectedAtDispatchFailAndFreeTheirSlots() throws Exception {
+        // Accepted into the scheduler queue, then refused by the executor when a slot frees up
+        TieredScanScheduler scheduler = mock(TieredScanScheduler.class);
+        List<CompletableFuture<Object>> queued = new ArrayList<>();
+        when(scheduler.submit(any(ScanTier.class), any())).thenAnswer(invocation -> {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            queued.add(result);
+            return result;
+        });
+        ReflectionTestUtils.setField(service, "tieredScanScheduler", scheduler);
+
+        String first = submit("alice").getJobId();
+        String second = submit("alice").getJobId();
+        assertTrue(service.submit("alice", ScanTier.PREMIUM, 5, "1h", ScanParameters.scheduledDefaults()).isEmpty());
+
+        queued.get(0).completeExceptionally(new ScanRejectedException(ScanTier.PREMIUM, 5));
+        queued.get(1).completeExceptionally(new StackOverflowError());
+
+        ScanJobView rejected = service.getJob(first, "alice", 0).orElseThrow();
+        assertEquals("FAILED", rejected.getState());
+        assertEquals(1, rejected.getErrors().size());
+        assertEquals("FAILED", service.getJob(second, "alice", 0).orElseThrow().getState());
+        assertTrue(service.submit("alice", ScanTier.PREMIUM, 5, "1h", ScanParameters.scheduledDefaults()).isPresent());
+    }
+
+    private ScanJobView submit(String username) {
+        return service.submit(username, ScanTier.PREMIUM, 5, "1h", ScanParameters.scheduledDefaults()).orElseThrow();
+    }
+
+    private ScanJobView awaitFinished(String jobId, String username) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            ScanJobView view = service.getJob(jobId, username, 0).orElseThrow();
+            if (view.getFinishedAt() != null) {
+                return view;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("job " + jobId + " did not finish");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<?> listeners(String jobId) {
+        Object job = ((Map<String, ?>) ReflectionTestUtils.getField(service, "jobs")).get(jobId);
+        return (Set<?>) ReflectionTestUtils.getField(job, "listeners");
+    }
+
+    private static List<CoinData> coins(int count) {
+        List<CoinData> coins = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            coins.add(new CoinData("S" + i + "USDT", "S" + i, 100.0 + i, "1.0M"));
+        }
+        return coins;
+    }
+
+    private static OrderBlockResult result(CoinData coin) {
+        OrderBlockResult result = new OrderBlockResult();
+        result.setId(coin.getId());
+        result.setName(coin.getName());
+        result.setOrderBlockType(ScanResultStore.NONE);
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.cryptoscannerbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScanMetricsTest {
+
+    private static final long MS = 1_000_000L;
+
+    private ScanMetrics metrics;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ScanMetrics();
+        ReflectionTestUtils.setField(metrics, "meterRegistry", registry);
+        metrics.init();
+    }
+
+    @Test
+    void stagesAreTimedPerInterval() {
+        metrics.recordStage(ScanMetrics.Stage.DETECTION, "4h", 2 * MS);
+        metrics.recordStage(ScanMetrics.Stage.DETECTION, "4h", 4 * MS);
+        metrics.recordStage(ScanMetrics.Stage.DETECTION, "1h", 1 * MS);
+        metrics.recordStage(ScanMetrics.Stage.TICKER, null, 3 * MS);
+
+        assertEquals(2, registry.get("scan.stage").tags("stage", "detection", "interval", "4h").timer().count());
+        assertEquals(6.0, registry.get("scan.stage").tags("stage", "detection", "interval", "4h").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, registry.get("scan.stage").tags("stage", "ticker", "interval", "all").timer().count());
+    }
+
+    @Test
+    void unknownIntervalsShareOneTag() {
+        metrics.recordStage(ScanMetrics.Stage.SERIALIZATION, "abc", MS);
+        metrics.recordStage(ScanMetrics.Stage.SERIALIZATION, "7m", MS);
+        metrics.recordSymbol("BTCUSDT", "xyz", MS);
+
+        assertEquals(2, registry.get("scan.stage").tags("stage", "serialization", "interval", "other").timer().count());
+        assertEquals(1, registry.get("scan.stage").timers().size());
+        assertEquals(1, registry.get("scan.symbol").tags("symbol", "BTCUSDT", "interval", "other").timer().count());
+    }
+
+    @Test
+    void upstreamWeightIsCountedAndUsedWeightHeaderKept() {
+        metrics.recordUpstream("klines", ScanMetrics.klinesWeight(200), "120");
+        metrics.recordUpstream("klines", ScanMetrics.klinesWeight(3), null);
+
+        assertEquals(3.0, registry.get("binance.request.weight").tag("endpoint", "klines").counter().count());
+        assertEquals(120.0, registry.get("binance.used.weight.1m").gauge().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void boundProfileCollectsTheBreakdownOnlyOnItsThread() throws Exception {
+        ScanProfile profile = new ScanProfile("4h", 2);
+        metrics.bind(profile);
+        try {
+            metrics.recordStage(ScanMetrics.Stage.KLINES_FETCH, "4h", 5 * MS);
+            metrics.recordSymbol("BTCUSDT", "4h", 9 * MS);
+            metrics.recordSymbol("ETHUSDT", "4h", 3 * MS);
+            metrics.recordUpstream("klines", 2, "42");
+            metrics.recordCandleFetch(true, 2);
+            // Scans on other threads are not part of this profile
+            Thread other = new Thread(() -> metrics.recordSymbol("SOLUSDT", "4h", 50 * MS));
+            other.start();
+            other.join();
+        } finally {
+            metrics.unbind();
+        }
+        metrics.recordSymbol("XRPUSDT", "4h", 70 * MS);
+        profile.finish(List.of(), null);
+
+        Map<String, Object> view = profile.toView(1);
+        assertEquals(2, view.get("symbols"));
+        List<Map<String, Object>> slowest = (List<Map<String, Object>>) view.get("slowestSymbols");
+        assertEquals(1, slowest.size());
+        assertEquals("BTCUSDT", slowest.get(0).get("symbol"));
+        assertEquals(9.0, slowest.get(0).get("ms"));
+        Map<String, Object> fetch = (Map<String, Object>) ((Map<String, Object>) view.get("stages")).get("klines.fetch");
+        assertEquals(1L, fetch.get("calls"));
+        assertEquals(5.0, fetch.get("totalMs"));
+        Map<String, Object> upstream = (Map<String, Object>) view.get("upstream");
+        assertEquals(1, upstream.get("requests"));
+        assertEquals(2L, upstream.get("weight"));
+        assertEquals(42L, upstream.get("usedWeight1m"));
+        assertEquals(1, ((Map<String, Object>) view.get("candleCache")).get("incrementalFetches"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ScanParameters;
+import com.example.cryptoscannerbackend.model.ScanTier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScanResultCacheTest {
+
+    private ScanResultCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ScanResultCache();
+        TieredScanScheduler scheduler = new TieredScanScheduler();
+        ReflectionTestUtils.setField(scheduler, "scanExecutor", new SimpleAsyncTaskExecutor());
+        ReflectionTestUtils.setField(scheduler, "maxConcurrent", 4);
+        ReflectionTestUtils.setField(scheduler, "premiumMaxConcurrent", 4);
+        ReflectionTestUtils.setField(scheduler, "trialMaxConcurrent", 4);
+        ReflectionTestUtils.setField(scheduler, "premiumQueueCapacity", 10);
+        ReflectionTestUtils.setField(scheduler, "trialQueueCapacity", 10);
+        ReflectionTestUtils.setField(scheduler, "maxEstimatedWaitMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "tieredScanScheduler", scheduler);
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        ReflectionTestUtils.setField(cache, "freshTtlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxStaleMs", 900_000L);
+    }
+
+    @Test
+    void identicalScansWithinOneCandleHitTheCache() throws Exception {
+        assertEquals("scan-1", load("4h", 100, new ScanParameters()));
+        assertEquals("scan-1", load("4h", 100, new ScanParameters()));
+        assertEquals("scan-2", load("4h", 20, new ScanParameters()));
+
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(2L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void staleEntryIsServedWhileRefreshingInBackground() throws Exception {
+        ReflectionTestUtils.setField(cache, "freshTtlMs", 0L);
+        load("1h", 100, new ScanParameters());
+        Thread.sleep(5);
+
+        assertEquals("scan-1", load("1h", 100, new ScanParameters()));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (loads.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals(1L, cache.getStats().get("staleHits"));
+        assertEquals("scan-2", load("1h", 100, new ScanParameters()));
+    }
+
+    @Test
+    void shedRefreshStillServesTheStaleEntry() throws Exception {
+        ReflectionTestUtils.setField(cache, "freshTtlMs", 0L);
+        load("1h", 100, new ScanParameters());
+        Thread.sleep(5);
+
+        TieredScanScheduler full = mock(TieredScanScheduler.class);
+        when(full.submit(any(ScanTier.class), any())).thenThrow(new ScanRejectedException(ScanTier.PREMIUM, 5));
+        ReflectionTestUtils.setField(cache, "tieredScanScheduler", full);
+
+        assertEquals("scan-1", load("1h", 100, new ScanParameters()));
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getStats().get("backgroundRefreshesShed"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() throws Exception {
+        load("1h", 100, new ScanParameters());
+        load("4h", 100, new ScanParameters());
+        load("1h", 100, new ScanParameters()); // touch 1h so 4h is the eldest
+        load("1d", 100, new ScanParameters());
+
+        assertEquals(1L, cache.getStats().get("evictions"));
+        assertEquals("scan-1", load("1h", 100, new ScanParameters()));
+        assertEquals("scan-4", load("4h", 100, new ScanParameters()));
+    }
+
+    @Test
+    void dataVersionFollowsCandleBoundaries() {
+        long monday = 1_704_672_000_000L; // 2024-01-08T00:00:00Z
+        assertEquals(ScanResultCache.dataVersion("1w", monday - 1) + 1, ScanResultCache.dataVersion("1w", monday));
+        assertEquals(ScanResultCache.dataVersion("4h", monday), ScanResultCache.dataVersion("4h", monday + 4 * 3_600_000L - 1));
+    }
+
+    private String load(String interval, int coinLimit, ScanParameters params) throws Exception {
+        List<OrderBlockResult> results = cache.get(ScanTier.PREMIUM, interval, coinLimit, params, () -> {
+            OrderBlockResult result = new OrderBlockResult();
+            result.setId("scan-" + loads.incrementAndGet());
+            return List.of(result);
+        }).getResults();
+        return results.get(0).getId();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScanResultEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ScanResultEncoder encoder;
+    private List<OrderBlockResult> results;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new ScanResultEncoder();
+        ReflectionTestUtils.setField(encoder, "objectMapper", objectMapper);
+        results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            OrderBlockResult result = new OrderBlockResult();
+            result.setId("COIN" + i + "USDT");
+            result.setName("COIN" + i);
+            result.setCurrentPrice(100 + i);
+            result.setVolume(i + ".0M");
+            result.setOrderBlockType(i % 2 == 0 ? ScanResultStore.BULLISH : ScanResultStore.NONE);
+            result.setDetails("Bullish order block detected: bearish candle followed by an impulsive bullish candle with a fair value gap.");
+            result.setTimeframe("4h");
+            results.add(result);
+        }
+    }
+
+    @Test
+    void negotiatesByAcceptHeader() {
+        assertEquals(MediaType.APPLICATION_JSON, encoder.negotiate(null));
+        assertEquals(MediaType.APPLICATION_JSON, encoder.negotiate("*/*"));
+        assertEquals(ScanResultEncoder.CBOR, encoder.negotiate("application/cbor, application/json;q=0.5"));
+        assertEquals(ScanResultEncoder.SMILE, encoder.negotiate("application/json;q=0.1, application/x-jackson-smile"));
+        assertEquals(ScanResultEncoder.COLUMNAR_JSON, encoder.negotiate("application/vnd.ccscanner.columnar+json"));
+        assertEquals(MediaType.APPLICATION_JSON, encoder.negotiate("text/html"));
+    }
+
+    @Test
+    void compactEncodingsAreSmallerAndRoundTrip() throws Exception {
+        byte[] json = encoder.encode(results, MediaType.APPLICATION_JSON);
+        byte[] cbor = encoder.encode(results, ScanResultEncoder.CBOR);
+        byte[] smile = encoder.encode(results, ScanResultEncoder.SMILE);
+        byte[] columnar = encoder.encode(results, ScanResultEncoder.COLUMNAR_JSON);
+
+        assertTrue(cbor.length < json.length, "cbor " + cbor.length + " vs json " + json.length);
+        assertTrue(smile.length < json.length, "smile " + smile.length + " vs json " + json.length);
+        assertTrue(columnar.length < json.length, "columnar " + columnar.length + " vs json " + json.length);
+        assertEquals("COIN7USDT", new CBORMapper().readTree(cbor).get(7).get("id").asText());
+
+        JsonNode table = objectMapper.readTree(columnar);
+        assertEquals(100, table.get("count").asInt());
+        assertEquals("COIN7USDT", table.get("columns").get("id").get(7).asText());
+        assertTrue(table.get("columns").get("obZoneStart").get(0).isNull());
+    }
+
+    @Test
+    void snapshotEncodesEachTypeOnce() {
+        ScanSnapshot snapshot = new ScanSnapshot(results);
+        byte[] first = snapshot.encoded(ScanResultEncoder.CBOR, r -> encoder.encode(r, ScanResultEncoder.CBOR));
+        byte[] second = snapshot.encoded(ScanResultEncoder.CBOR, r -> {
+            throw new AssertionError("re-encoded a cached snapshot");
+        });
+        assertSame(first, second);
+    }
+}
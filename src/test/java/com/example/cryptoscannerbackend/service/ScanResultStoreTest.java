@@ -0,0 +1,172 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ResultPage;
+import com.example.cryptoscannerbackend.model.ResultQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScanResultStoreTest {
+
+    private ScanResultStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ScanResultStore();
+        ReflectionTestUtils.setField(store, "ttlMs", 3_600_000L);
+        ReflectionTestUtils.setField(store, "maxSymbolsPerSlot", 500);
+        ReflectionTestUtils.setField(store, "maxSlots", 4);
+        List<OrderBlockResult> scan = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            String type = i % 3 == 0 ? ScanResultStore.BULLISH : i % 3 == 1 ? ScanResultStore.BEARISH : ScanResultStore.NONE;
+            // price 100; zones sit i/10 percent away from price and are (i % 5 + 1) percent wide
+            double edge = 100 - i / 10.0;
+            double width = i % 5 + 1;
+            scan.add(result("C" + (char) ('A' + i / 26) + (char) ('A' + i % 26), type, (i + 1) + ".0M", edge, edge - width));
+        }
+        store.publish("4h", "default", scan);
+    }
+
+    @Test
+    void filtersByTypeAndSortsByDistance() {
+        ResultQuery query = new ResultQuery();
+        query.setType("bullish");
+        query.setSort("distance");
+        ResultPage page = store.query(query);
+
+        assertEquals(10, page.getItems().size());
+        assertEquals("CAA", page.getItems().get(0).getId());
+        assertEquals(ScanResultStore.BULLISH, page.getItems().get(9).getOrderBlockType());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void cursorPagesThroughEveryResultExactlyOnce() {
+        ResultQuery query = new ResultQuery();
+        query.setLimit(7);
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            query.setCursor(cursor);
+            ResultPage page = store.query(query);
+            seen.addAll(page.getItems().stream().map(OrderBlockResult::getId).collect(Collectors.toList()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(30, seen.size());
+        assertEquals(30, seen.stream().distinct().count());
+        assertEquals("CBD", seen.get(0)); // volume descending by default: 30.0M first
+    }
+
+    @Test
+    void rangeFiltersUseZoneMetrics() {
+        ResultQuery query = new ResultQuery();
+        query.setMaxDistancePct(1.0);
+        query.setMaxZoneWidthPct(2.0);
+        query.setMinVolume(5_000_000.0);
+        query.setSort("symbol");
+        ResultPage page = store.query(query);
+
+        // zoned (not None), within 1% of price, at most 2% wide, volume >= 5M
+        List<String> ids = page.getItems().stream().map(OrderBlockResult::getId).collect(Collectors.toList());
+        assertEquals(List.of("CAG", "CAK"), ids);
+    }
+
+    @Test
+    void coinLimitRestrictsQueriesToTheTopSymbolsByVolume() {
+        ResultQuery query = new ResultQuery();
+        query.setSort("symbol");
+        query.setLimit(200);
+        List<String> ids = store.query(query, 5).getItems().stream().map(OrderBlockResult::getId).collect(Collectors.toList());
+
+        // volumes are 1.0M..30.0M, so the top five are the last five symbols
+        assertEquals(List.of("CAZ", "CBA", "CBB", "CBC", "CBD"), ids);
+        assertEquals(Set.copyOf(ids), store.topSymbols("4h", 5));
+        assertEquals(30, store.query(query, 0).getItems().size());
+    }
+
+    @Test
+    void publishMergesIntoTheSnapshotAndRebuildsIndexes() {
+        ResultQuery query = new ResultQuery();
+        query.setType("bearish");
+        assertEquals(10, store.query(query).getItems().size());
+
+        store.publish("4h", "default", List.of(result("CAB", ScanResultStore.NONE, "2.0M", null, null)));
+        assertEquals(9, store.query(query).getItems().size());
+        assertEquals(30, store.getAll("4h", "default").size());
+    }
+
+    @Test
+    void intervalsAndPresetsAreKeptApart() {
+        store.publish("1h", "default", List.of(result("CAA", ScanResultStore.BEARISH, "1.0M", 101.0, 102.0)));
+        store.publish("4h", "scheduled", List.of(result("CAA", ScanResultStore.NONE, "1.0M", null, null)));
+
+        assertEquals(ScanResultStore.BULLISH, store.get("CAA", "4h", "default").orElseThrow().getOrderBlockType());
+        assertEquals(ScanResultStore.BEARISH, store.get("CAA", "1h", "default").orElseThrow().getOrderBlockType());
+
+        ResultQuery query = new ResultQuery();
+        query.setTimeframe("4h");
+        query.setPreset("default");
+        assertEquals(30, store.query(query).getItems().size());
+        query.setPreset(null); // the scheduled preset wins over default
+        assertEquals(List.of("CAA"), store.query(query).getItems().stream().map(OrderBlockResult::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void customPresetIsNeverTheDefaultAnswer() {
+        store.publish("4h", "custom-1a2b", List.of(result("ZZZ", ScanResultStore.BULLISH, "99.0M", 99.0, 98.0)));
+
+        ResultQuery query = new ResultQuery();
+        assertEquals(30, store.query(query).getItems().size());
+        assertTrue(store.query(query).getItems().stream().noneMatch(r -> r.getId().equals("ZZZ")));
+        assertTrue(store.topSymbols("4h", 5).stream().noneMatch("ZZZ"::equals));
+
+        query.setPreset("custom-1a2b");
+        assertEquals(List.of("ZZZ"), store.query(query).getItems().stream().map(OrderBlockResult::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void expiredEntriesAndExcessSlotsAreEvicted() {
+        ReflectionTestUtils.setField(store, "ttlMs", -1L);
+        store.evictExpired();
+        assertTrue(store.getAll("4h", "default").isEmpty());
+
+        ReflectionTestUtils.setField(store, "ttlMs", 3_600_000L);
+        store.publish("4h", "scheduled", List.of(result("CAA", ScanResultStore.NONE, "1.0M", null, null)));
+        store.publish("1h", "default", List.of(result("CAA", ScanResultStore.NONE, "1.0M", null, null)));
+        for (String preset : List.of("custom-1", "custom-2", "custom-3", "custom-4")) {
+            store.publish("4h", preset, List.of(result("CAA", ScanResultStore.NONE, "1.0M", null, null)));
+        }
+        // the oldest custom presets go; the scheduled and default snapshots are older but kept
+        assertTrue(store.get("CAA", "4h", "custom-1").isEmpty());
+        assertTrue(store.get("CAA", "4h", "custom-2").isEmpty());
+        assertTrue(store.get("CAA", "4h", "custom-4").isPresent());
+        assertTrue(store.get("CAA", "4h", "scheduled").isPresent());
+        assertTrue(store.get("CAA", "1h", "default").isPresent());
+    }
+
+    private static OrderBlockResult result(String id, String type, String volume, Double zoneStart, Double zoneEnd) {
+        OrderBlockResult result = new OrderBlockResult();
+        result.setId(id);
+        result.setName(id);
+        result.setCurrentPrice(100.0);
+        result.setVolume(volume);
+        result.setTimeframe("4h");
+        result.setOrderBlockType(type);
+        if (!ScanResultStore.NONE.equals(type)) {
+            result.setObZoneStart(zoneStart);
+            result.setObZoneEnd(zoneEnd);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SharedScanSnapshotsTest {
+
+    private static final long LEASE_MS = 200;
+
+    private JdbcTemplate jdbcTemplate;
+    private LeaderElection leaderA;
+    private LeaderElection leaderB;
+    private SharedScanSnapshots nodeA;
+    private SharedScanSnapshots nodeB;
+    private ScanService scanServiceB;
+    private OrderBlockStreamService streamA;
+    private OrderBlockStreamService streamB;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:shared;DB_CLOSE_DELAY=-1", "sa", ""));
+        leaderA = election("a");
+        leaderB = election("b");
+        streamA = mock(OrderBlockStreamService.class);
+        streamB = mock(OrderBlockStreamService.class);
+        scanServiceB = mock(ScanService.class);
+        nodeA = snapshots(leaderA, mock(ScanService.class), streamA);
+        nodeB = snapshots(leaderB, scanServiceB, streamB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS scan_shared_snapshots");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS scan_node_interest");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + LeaderElection.TABLE);
+    }
+
+    @Test
+    void followersApplyEachPublishedCycleOnce() {
+        assertTrue(leaderA.isLeader());
+        assertTrue(nodeA.publish("4h", "scheduled", results(3, 100.0)));
+
+        nodeB.poll();
+        nodeB.poll();
+        verify(scanServiceB, times(1)).applySharedResults(eq("4h"), eq("scheduled"), anyList());
+        verify(streamB, times(1)).publishCycle(eq("4h"), anyList());
+
+        assertTrue(nodeA.publish("4h", "scheduled", results(3, 101.0)));
+        nodeB.poll();
+        verify(scanServiceB, times(2)).applySharedResults(eq("4h"), eq("scheduled"), anyList());
+        assertEquals(2L, nodeB.getStats().get("applied"));
+    }
+
+    @Test
+    void deposedLeadersWritesAreFencedOff() throws Exception {
+        Thread.sleep(LEASE_MS + 50);
+        leaderB.renew();
+        assertTrue(leaderB.isLeader());
+
+        // a finishes a scan it started while it still led; it must not overwrite b's cycle
+        ReflectionTestUtils.setField(leaderA, "leaderUntilNanos", System.nanoTime() + 1_000_000_000L);
+        assertFalse(nodeA.publish("1h", "scheduled", results(2, 50.0)));
+        assertEquals(1L, nodeA.getStats().get("fenced"));
+
+        nodeA.poll(); // a counts as leader locally here, so applies nothing
+        assertTrue(nodeB.publish("1h", "scheduled", results(2, 51.0)));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT epoch FROM scan_shared_snapshots WHERE timeframe = '1h'", Long.class));
+        verify(scanServiceB, never()).applySharedResults(anyString(), anyString(), anyList());
+    }
+
+    @Test
+    void leaderPrecomputesIntervalsSubscribedOnAnyNode() {
+        when(streamA.getSubscribedIntervals()).thenReturn(Set.of("4h"));
+        when(streamB.getSubscribedIntervals()).thenReturn(Set.of("15m", "1h"));
+        nodeB.reportInterest();
+
+        assertEquals(Set.of("15m", "1h", "4h"), nodeA.getRequestedIntervals());
+    }
+
+    private LeaderElection election(String id) {
+        LeaderElection election = new LeaderElection();
+        ReflectionTestUtils.setField(election, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(election, "enabled", true);
+        ReflectionTestUtils.setField(election, "leaseMs", LEASE_MS);
+        ReflectionTestUtils.setField(election, "nodeId", id);
+        election.init();
+        return election;
+    }
+
+    private SharedScanSnapshots snapshots(LeaderElection election, ScanService scanService, OrderBlockStreamService stream) {
+        SharedScanSnapshots snapshots = new SharedScanSnapshots();
+        ReflectionTestUtils.setField(snapshots, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(snapshots, "leaderElection", election);
+        ReflectionTestUtils.setField(snapshots, "scanService", scanService);
+        ReflectionTestUtils.setField(snapshots, "orderBlockStreamService", stream);
+        ReflectionTestUtils.setField(snapshots, "leaseMs", LEASE_MS);
+        snapshots.init();
+        return snapshots;
+    }
+
+    private static List<OrderBlockResult> results(int count, double price) {
+        List<OrderBlockResult> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            OrderBlockResult result = new OrderBlockResult();
+            result.setId("S" + i + "USDT");
+            result.setName("S" + i);
+            result.setCurrentPrice(price + i);
+            result.setOrderBlockType(ScanResultStore.BULLISH);
+            result.setTimeframe("4h");
+            results.add(result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.ScanTier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TieredScanSchedulerTest {
+
+    private TieredScanScheduler scheduler;
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final List<String> startOrder = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new TieredScanScheduler();
+        ReflectionTestUtils.setField(scheduler, "scanExecutor", new SimpleAsyncTaskExecutor());
+        ReflectionTestUtils.setField(scheduler, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(scheduler, "premiumMaxConcurrent", 1);
+        ReflectionTestUtils.setField(scheduler, "trialMaxConcurrent", 1);
+        ReflectionTestUtils.setField(scheduler, "premiumQueueCapacity", 5);
+        ReflectionTestUtils.setField(scheduler, "trialQueueCapacity", 2);
+        ReflectionTestUtils.setField(scheduler, "maxEstimatedWaitMs", 60_000L);
+        ReflectionTestUtils.setField(scheduler, "defaultRetryAfterSeconds", 5L);
+    }
+
+    @Test
+    void premiumScansAreDispatchedAheadOfQueuedTrialScans() throws Exception {
+        CompletableFuture<String> blocker = scheduler.submit(ScanTier.TRIAL, () -> {
+            gate.await(5, TimeUnit.SECONDS);
+            return "blocker";
+        });
+        CompletableFuture<String> trial = scheduler.submit(ScanTier.TRIAL, () -> record("trial"));
+        CompletableFuture<String> premium = scheduler.submit(ScanTier.PREMIUM, () -> record("premium"));
+
+        gate.countDown();
+        CompletableFuture.allOf(blocker, trial, premium).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("premium", "trial"), startOrder);
+    }
+
+    @Test
+    void shedsWhenTierQueueIsFullWithRetryHint() throws Exception {
+        scheduler.submit(ScanTier.TRIAL, () -> gate.await(5, TimeUnit.SECONDS));
+        scheduler.submit(ScanTier.TRIAL, () -> record("queued-1"));
+        scheduler.submit(ScanTier.TRIAL, () -> record("queued-2"));
+
+        ScanRejectedException rejected = assertThrows(ScanRejectedException.class,
+                () -> scheduler.submit(ScanTier.TRIAL, () -> record("shed")));
+        assertEquals(5L, rejected.getRetryAfterSeconds());
+
+        // premium has its own queue and is still admitted
+        CompletableFuture<String> premium = scheduler.submit(ScanTier.PREMIUM, () -> record("premium"));
+        gate.countDown();
+        premium.get(5, TimeUnit.SECONDS);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> trialStats = (Map<String, Object>) scheduler.getStats().get("trial");
+        assertEquals(1L, trialStats.get("shed"));
+        assertEquals(3L, trialStats.get("submitted"));
+    }
+
+    @Test
+    void cancellingQueuedScanFreesItsQueueSlot() throws Exception {
+        scheduler.submit(ScanTier.TRIAL, () -> gate.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = scheduler.submit(ScanTier.TRIAL, () -> record("cancelled"));
+        queued.cancel(true);
+        gate.countDown();
+
+        scheduler.submit(ScanTier.TRIAL, () -> record("after")).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("after"), startOrder);
+    }
+
+    private String record(String name) {
+        startOrder.add(name);
+        return name;
+    }
+}
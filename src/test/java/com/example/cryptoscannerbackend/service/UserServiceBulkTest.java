@@ -0,0 +1,82 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.ERole;
+import com.example.cryptoscannerbackend.model.EntitlementChange;
+import com.example.cryptoscannerbackend.model.User;
+import com.example.cryptoscannerbackend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Same properties as AuthServiceRegistrationTest so the application context is shared
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class UserServiceBulkTest {
+
+    private static final int USERS = 40;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntitlementCache entitlementCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkChangesAreSetBasedAndInvalidateCachedEntitlements() {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("bulk" + i, "bulk" + i + "@example.com", "hash");
+            user.setTrialEndDate(LocalDateTime.now().plusDays(1));
+            user.getRoles().remove(ERole.ROLE_USER);
+            user.getRoles().add(ERole.ROLE_TRIAL);
+            userRepository.save(user);
+            usernames.add(user.getUsername());
+            assertTrue(entitlementCache.get(user.getUsername()).isTrialActive()); // warm the cache
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Collection<String> promoted = userService.bulkUpdateEntitlements(usernames, null, null, EntitlementChange.grantPremium());
+
+        assertEquals(USERS, promoted.size());
+        // target lookup, UPDATE users, DELETE roles, INSERT roles: independent of the number of users
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        EntitlementCache.Entitlement cached = entitlementCache.get("bulk7");
+        assertTrue(cached.isPremium());
+        assertEquals(Set.of(ERole.ROLE_PREMIUM), cached.getRoles());
+        assertNull(cached.getTrialEndDate());
+
+        userService.bulkUpdateEntitlements(List.of("bulk1", "bulk2"), null, null, EntitlementChange.activateTrial(LocalDateTime.now(), 2));
+        Collection<String> ended = userService.bulkUpdateEntitlements(List.of("bulk1", "bulk2", "bulk3"), "trial", null,
+                EntitlementChange.endTrial(LocalDateTime.now()));
+
+        assertEquals(Set.of("bulk1", "bulk2"), Set.copyOf(ended));
+        assertFalse(entitlementCache.get("bulk1").isTrialActive());
+        assertEquals(Set.of(ERole.ROLE_USER), entitlementCache.get("bulk1").getRoles());
+        assertTrue(entitlementCache.get("bulk3").isPremium());
+    }
+}
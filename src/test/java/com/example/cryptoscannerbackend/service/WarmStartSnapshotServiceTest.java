@@ -0,0 +1,133 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WarmStartSnapshotServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("snapshot.bin");
+    }
+
+    @Test
+    void roundTripsCandlesPricesAndResults() {
+        Node source = new Node(file);
+        source.candleCache.restore("BTCUSDT", "4h", List.of(
+                new BinanceApiClient.Candlestick(1_000L, 1, 2, 0.5, 1.5, 10),
+                new BinanceApiClient.Candlestick(2_000L, 1.5, 2.5, 1, 2, 20)));
+        when(source.ticker.getLastPrices()).thenReturn(Map.of("BTCUSDT", 64_000.5));
+        source.results.publish("4h", "default", List.of(result("BTCUSDT", 42.0), result("ETHUSDT", null)));
+
+        assertTrue(source.snapshots.write());
+        assertTrue(Files.exists(file));
+
+        Node target = new Node(file);
+        assertTrue(target.snapshots.restore());
+
+        List<BinanceApiClient.Candlestick> candles = target.candleCache.export().get("BTCUSDT|4h");
+        assertEquals(2, candles.size());
+        assertEquals(2_000L, candles.get(1).getOpenTime());
+        assertEquals(20, candles.get(1).getVolume());
+
+        OrderBlockResult btc = target.results.get("BTCUSDT", "4h", "default").orElseThrow();
+        assertEquals(42.0, btc.getOrderBlockPrice());
+        assertEquals("Buying (Bullish)", btc.getOrderBlockType());
+        assertNull(target.results.get("ETHUSDT", "4h", "default").orElseThrow().getOrderBlockPrice());
+        assertEquals(source.results.exportStored().get(0).getStoredAt(), target.results.exportStored().get(0).getStoredAt());
+
+        verify(target.ticker).publish(Map.of("BTCUSDT", 64_000.5));
+        verify(target.alerts).onResultsPublished(eq("4h"), eq("default"), anyList());
+        verify(target.ranking).onResultsPublished(eq("4h"), eq("default"), anyList());
+    }
+
+    @Test
+    void staleSnapshotIsIgnored() {
+        Node source = new Node(file);
+        when(source.ticker.getLastPrices()).thenReturn(Map.of("BTCUSDT", 1.0));
+        assertTrue(source.snapshots.write());
+
+        Node target = new Node(file);
+        ReflectionTestUtils.setField(target.snapshots, "maxAgeMs", -1L);
+        assertFalse(target.snapshots.restore());
+        verify(target.ticker, never()).publish(anyMap());
+        verify(target.alerts, never()).onResultsPublished(anyString(), anyString(), anyList());
+    }
+
+    @Test
+    void missingOrCorruptFileIsSkipped() throws Exception {
+        Node target = new Node(file);
+        assertFalse(target.snapshots.restore());
+
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
+        assertFalse(target.snapshots.restore());
+    }
+
+    private static OrderBlockResult result(String symbol, Double obPrice) {
+        OrderBlockResult result = new OrderBlockResult();
+        result.setId(symbol);
+        result.setName(symbol.replace("USDT", ""));
+        result.setCurrentPrice(100.0);
+        result.setVolume("1.5B");
+        result.setOrderBlockType(obPrice != null ? "Buying (Bullish)" : "None");
+        result.setOrderBlockPrice(obPrice);
+        result.setTimeframe("4h");
+        if (obPrice != null) {
+            result.setObZoneStart(obPrice - 1);
+            result.setObZoneEnd(obPrice + 1);
+        }
+        return result;
+    }
+
+    // One node's worth of state: real caches and result store, mocked ticker and listeners
+    private static final class Node {
+        final CandleCache candleCache = new CandleCache();
+        final ScanResultStore results = new ScanResultStore();
+        final TickerSnapshotService ticker = mock(TickerSnapshotService.class);
+        final PriceAlertService alerts = mock(PriceAlertService.class);
+        final ZoneProximityRanking ranking = mock(ZoneProximityRanking.class);
+        final WarmStartSnapshotService snapshots = new WarmStartSnapshotService();
+
+        Node(Path file) {
+            ReflectionTestUtils.setField(candleCache, "maxPerSeries", 200);
+            ReflectionTestUtils.setField(candleCache, "maxSeries", 100);
+            ReflectionTestUtils.setField(results, "ttlMs", 3_600_000L);
+            ReflectionTestUtils.setField(results, "maxSymbolsPerSlot", 500);
+            ReflectionTestUtils.setField(results, "maxSlots", 32);
+            ReflectionTestUtils.setField(snapshots, "candleCache", candleCache);
+            ReflectionTestUtils.setField(snapshots, "scanResultStore", results);
+            ReflectionTestUtils.setField(snapshots, "tickerSnapshotService", ticker);
+            ReflectionTestUtils.setField(snapshots, "priceAlertService", alerts);
+            ReflectionTestUtils.setField(snapshots, "zoneProximityRanking", ranking);
+            ReflectionTestUtils.setField(snapshots, "enabled", true);
+            ReflectionTestUtils.setField(snapshots, "path", file.toString());
+            ReflectionTestUtils.setField(snapshots, "maxAgeMs", 3_600_000L);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.cryptoscannerbackend.service;
+
+import com.example.cryptoscannerbackend.model.OrderBlockResult;
+import com.example.cryptoscannerbackend.model.ZoneDistance;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ZoneProximityRankingTest {
+
+    private final ZoneProximityRanking ranking = new ZoneProximityRanking();
+
+    @Test
+    void ranksByDistanceAndFollowsPriceTicks() {
+        ranking.onResultsPublished("4h", "scheduled", List.of(
+                result("AAAUSDT", ScanResultStore.BULLISH, 100.0, 95.0, 97.0),   // 3% above
+                result("BBBUSDT", ScanResultStore.BEARISH, 100.0, 101.0, 102.0), // 1% below
+                result("CCCUSDT", ScanResultStore.BULLISH, 100.0, 99.0, 101.0),  // inside
+                result("DDDUSDT", ScanResultStore.NONE, 100.0, null, null)));
+
+        assertEquals(List.of("CCCUSDT", "BBBUSDT", "AAAUSDT"), symbols(ranking.top("4h", null, 10)));
+        assertEquals(List.of("CCCUSDT", "AAAUSDT"), symbols(ranking.top("4h", "bullish", 10)));
+
+        ranking.onPriceTicks(Map.of("AAAUSDT", 97.5, "BBBUSDT", 95.0, "CCCUSDT", 100.5));
+        assertEquals(List.of("CCCUSDT", "AAAUSDT", "BBBUSDT"), symbols(ranking.top("4h", "any", 10)));
+        assertEquals(100.5, ranking.top("4h", "bullish", 1).get(0).getCurrentPrice());
+
+        // price breaks below the bullish zone: it is no longer a valid zone
+        ranking.onPriceTicks(Map.of("CCCUSDT", 90.0));
+        assertEquals(List.of("AAAUSDT", "BBBUSDT"), symbols(ranking.top("4h", null, 10)));
+        assertEquals(List.of("AAAUSDT"), symbols(ranking.top("4h", null, 1)));
+    }
+
+    @Test
+    void newResultReplacesTheSymbolsPreviousZone() {
+        ranking.onResultsPublished("1h", "scheduled", List.of(result("AAAUSDT", ScanResultStore.BULLISH, 100.0, 95.0, 97.0)));
+        ranking.onResultsPublished("1h", "scheduled", List.of(result("AAAUSDT", ScanResultStore.BEARISH, 100.0, 100.5, 101.0)));
+
+        List<ZoneDistance> top = ranking.top("1h", null, 10);
+        assertEquals(1, top.size());
+        assertEquals(ScanResultStore.BEARISH, top.get(0).getOrderBlockType());
+        assertEquals(0, ranking.top("4h", null, 10).size());
+    }
+
+    @Test
+    void symbolFilterIsAppliedBeforeTheLimit() {
+        ranking.onResultsPublished("4h", "scheduled", List.of(
+                result("AAAUSDT", ScanResultStore.BULLISH, 100.0, 95.0, 97.0),
+                result("BBBUSDT", ScanResultStore.BEARISH, 100.0, 101.0, 102.0),
+                result("CCCUSDT", ScanResultStore.BULLISH, 100.0, 99.0, 101.0)));
+
+        assertEquals(List.of("BBBUSDT", "AAAUSDT"), symbols(ranking.top("4h", null, 2, Set.of("AAAUSDT", "BBBUSDT"))));
+        assertEquals(List.of("AAAUSDT"), symbols(ranking.top("4h", "bullish", 10, Set.of("AAAUSDT", "BBBUSDT"))));
+    }
+
+    @Test
+    void customPresetsAreNotRankedAndScheduledWinsOverDefault() {
+        ranking.onResultsPublished("4h", "default", List.of(result("AAAUSDT", ScanResultStore.BULLISH, 100.0, 95.0, 97.0)));
+        ranking.onResultsPublished("4h", "custom-1a2b", List.of(result("AAAUSDT", ScanResultStore.BEARISH, 100.0, 100.5, 101.0)));
+        assertEquals(ScanResultStore.BULLISH, ranking.top("4h", null, 10).get(0).getOrderBlockType());
+
+        ranking.onResultsPublished("4h", "scheduled", List.of(result("BBBUSDT", ScanResultStore.BULLISH, 100.0, 99.0, 101.0)));
+        assertEquals(List.of("BBBUSDT"), symbols(ranking.top("4h", null, 10)));
+
+        // the scheduled ranking is still the one read after its zones are traded through
+        ranking.onPriceTicks(Map.of("BBBUSDT", 90.0));
+        assertEquals(List.of(), symbols(ranking.top("4h", null, 10)));
+    }
+
+    private static List<String> symbols(List<ZoneDistance> rows) {
+        return rows.stream().map(ZoneDistance::getSymbol).collect(Collectors.toList());
+    }
+
+    private static OrderBlockResult result(String symbol, String type, double price, Double zoneStart, Double zoneEnd) {
+        OrderBlockResult result = new OrderBlockResult();
+        result.setId(symbol);
+        result.setCurrentPrice(price);
+        result.setOrderBlockType(type);
+        result.setObZoneStart(zoneStart);
+        result.setObZoneEnd(zoneEnd);
+        return result;
+    }
+}